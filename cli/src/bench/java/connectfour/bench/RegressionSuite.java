@@ -0,0 +1,349 @@
+package connectfour.bench;
+
+import connectfour.model.Board;
+import connectfour.model.GameState;
+import connectfour.model.Player;
+import connectfour.model.utility.ConnectFourUtility;
+import connectfour.shell.Shell;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Regression suite of the shell scenarios and the machine moves.
+ * <p>
+ * The scenarios are the transcripts of {@code cli/Tests.txt}, stored in
+ * {@code regression/testcase-n.txt}. Every command of a transcript is
+ * executed by a {@link Shell} and its output must match the transcript.
+ * <p>
+ * The file {@code regression/positions.txt} contains benchmark positions,
+ * each with the move the machine is expected to make at a level and the
+ * time it took when the file was recorded. The suite fails if a move
+ * differs. If the system property
+ * {@value RegressionSuite#TIMING_PROPERTY} is {@code true}, it also fails
+ * if the fastest of several runs of a move is more than the tolerance
+ * slower than recorded. Times below {@link RegressionSuite#MIN_TIMED_MICROS}
+ * are too noisy and therefore not compared. The tolerance is given in
+ * percent by the system property {@value RegressionSuite#TOLERANCE_PROPERTY}
+ * and defaults to {@value RegressionSuite#DEFAULT_TOLERANCE}.
+ * <p>
+ * The scenarios and the moves are checked by the unit tests of the build
+ * as well, while the times, which depend on the machine, are compared only
+ * on request.
+ * <p>
+ * Usage: {@code RegressionSuite [--record file]}. With {@code --record} the
+ * positions are measured and written to the file with their current moves
+ * and times, to update the expectations after an intended change.
+ */
+public final class RegressionSuite {
+
+    /**
+     * The system property, which enables the comparison of the times.
+     */
+    public static final String TIMING_PROPERTY
+            = "connectfour.regression.timing";
+
+    /**
+     * The system property of the tolerated slowdown in percent.
+     */
+    public static final String TOLERANCE_PROPERTY
+            = "connectfour.regression.tolerance";
+
+    /**
+     * The tolerated slowdown in percent, if the property is not set.
+     */
+    private static final int DEFAULT_TOLERANCE = 50;
+
+    /**
+     * The time a move must have taken at least when it was recorded, so its
+     * time is compared.
+     */
+    private static final long MIN_TIMED_MICROS = 5_000;
+
+    /**
+     * The number of measured runs per position, whose fastest is compared,
+     * since it is least disturbed by the garbage collector and other
+     * processes.
+     */
+    private static final int RUNS = 7;
+
+    /**
+     * The number of rounds over all positions before measuring.
+     */
+    private static final int WARM_UP_ROUNDS = 3;
+
+    /**
+     * The resources of the scenarios.
+     */
+    private static final String[] SCENARIOS = {"testcase-1.txt",
+            "testcase-2.txt", "testcase-3.txt", "testcase-4.txt"};
+
+    /**
+     * The resource of the benchmark positions.
+     */
+    private static final String POSITIONS = "positions.txt";
+
+    /**
+     * Private constructor to ensure non-instantiability.
+     */
+    private RegressionSuite() {
+        throw new AssertionError("Utility Class!");
+    }
+
+    /**
+     * Runs the suite or records the positions.
+     *
+     * @param args the program arguments, see {@link RegressionSuite}.
+     * @throws Exception If a resource cannot be read, or a search fails.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length == 2 && args[0].equals("--record")) {
+            record(Path.of(args[1]));
+            return;
+        }
+
+        int tolerance = Boolean.getBoolean(TIMING_PROPERTY)
+                ? Integer.getInteger(TOLERANCE_PROPERTY, DEFAULT_TOLERANCE)
+                : -1;
+        int failures = 0;
+        for (String scenario : SCENARIOS) {
+            failures += runScenario(scenario);
+        }
+        failures += checkPositions(tolerance);
+        if (failures > 0) {
+            throw new AssertionError(failures + " regression(s) found!");
+        }
+        System.out.println("No regressions found.");
+    }
+
+    /**
+     * Executes the commands of a scenario and compares their output with
+     * the transcript. The scenario stops at the first difference, since the
+     * following commands depend on the state of the game.
+     *
+     * @param scenario the resource of the scenario.
+     * @return 1 if the output differed, 0 otherwise.
+     * @throws IOException If the resource cannot be read.
+     */
+    private static int runScenario(String scenario) throws IOException {
+        String prompt = Shell.PROMPT.trim();
+        List<String> lines = readResource(scenario);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        Shell shell = new Shell(new PrintStream(buffer, true,
+                StandardCharsets.UTF_8), false, false);
+
+        int i = 0;
+        while (i < lines.size() && !lines.get(i).startsWith(prompt)) {
+            i++;
+        }
+        int commands = 0;
+        while (i < lines.size()) {
+            String command = lines.get(i++).substring(prompt.length()).trim();
+            List<String> expected = new ArrayList<>();
+            while (i < lines.size() && !lines.get(i).startsWith(prompt)) {
+                expected.add(lines.get(i++));
+            }
+            while (!expected.isEmpty()
+                    && expected.get(expected.size() - 1).isEmpty()) {
+                expected.remove(expected.size() - 1);
+            }
+
+            buffer.reset();
+            boolean running = shell.execute(command);
+            commands++;
+            List<String> actual = buffer.toString(StandardCharsets.UTF_8)
+                    .lines().toList();
+            if (!actual.equals(expected)) {
+                System.out.println(scenario + ": command " + commands + " '"
+                        + command + "' printed");
+                actual.forEach(line -> System.out.println("  " + line));
+                System.out.println("instead of");
+                expected.forEach(line -> System.out.println("  " + line));
+                return 1;
+            } else if (!running) {
+                break;
+            }
+        }
+        System.out.println(scenario + ": " + commands + " commands passed.");
+        return 0;
+    }
+
+    /**
+     * Searches all positions and compares the moves and times with the
+     * recorded ones.
+     *
+     * @param tolerance the tolerated slowdown in percent, or -1 if the times
+     *                  are not compared.
+     * @return the number of positions, which failed.
+     * @throws IOException          If the resource cannot be read.
+     * @throws InterruptedException The search was interrupted.
+     */
+    private static int checkPositions(int tolerance)
+            throws IOException, InterruptedException {
+        List<Position> positions = readPositions();
+        long[][] results = measure(positions);
+
+        System.out.printf("%-12s %5s %4s %4s %10s %10s%n", "position",
+                "level", "move", "exp", "micros", "baseline");
+        int failures = 0;
+        for (int i = 0; i < results.length; i++) {
+            Position position = positions.get(i);
+            int move = (int) results[i][0];
+            long micros = results[i][1];
+            String verdict = "";
+            if (move != position.move) {
+                verdict = "  different move";
+            } else if (tolerance >= 0
+                    && position.micros >= MIN_TIMED_MICROS
+                    && micros * 100 > position.micros * (100L + tolerance)) {
+                verdict = "  more than " + tolerance + "% slower";
+            }
+            if (!verdict.isEmpty()) {
+                failures++;
+            }
+            System.out.printf("%-12s %5d %4d %4d %10d %10d%s%n",
+                    position.name, position.level, move, position.move,
+                    micros, position.micros, verdict);
+        }
+        return failures;
+    }
+
+    /**
+     * Measures all positions and writes them with their current moves and
+     * times to the given file.
+     *
+     * @param file the file to write.
+     * @throws IOException          If a file cannot be read or written.
+     * @throws InterruptedException The search was interrupted.
+     */
+    private static void record(Path file)
+            throws IOException, InterruptedException {
+        List<String> lines = readResource(POSITIONS);
+        List<Position> positions = readPositions();
+        long[][] results = measure(positions);
+
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(
+                file, StandardCharsets.UTF_8))) {
+            // keep the header describing the format
+            lines.stream().takeWhile(line -> line.startsWith("#"))
+                    .forEach(writer::println);
+            for (int i = 0; i < results.length; i++) {
+                Position position = positions.get(i);
+                writer.printf("%-12s %-24s %5d %4d %8d%n", position.name,
+                        position.moves, position.level, results[i][0],
+                        results[i][1]);
+            }
+        }
+        System.out.println("Recorded " + positions.size() + " positions to "
+                + file);
+    }
+
+    /**
+     * Searches all positions in {@link RegressionSuite#RUNS} rounds, after
+     * {@link RegressionSuite#WARM_UP_ROUNDS} rounds to compile the search.
+     * Measuring round by round spreads disturbances over all positions.
+     *
+     * @param positions the positions.
+     * @return for each position the column of the move, starting from 1, and
+     * the fastest time in microseconds.
+     * @throws InterruptedException The search was interrupted.
+     */
+    private static long[][] measure(List<Position> positions)
+            throws InterruptedException {
+        long[][] results = new long[positions.size()][];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = new long[]{-1, Long.MAX_VALUE};
+        }
+        for (int round = 0; round < WARM_UP_ROUNDS + RUNS; round++) {
+            for (int i = 0; i < results.length; i++) {
+                Board board = positions.get(i).board();
+                long start = System.nanoTime();
+                Board after = board.machineMove();
+                long micros = (System.nanoTime() - start) / 1000;
+                results[i][0] = ConnectFourUtility.findMove(board, after) + 1;
+                if (round >= WARM_UP_ROUNDS) {
+                    results[i][1] = Math.min(results[i][1], micros);
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Reads the benchmark positions.
+     *
+     * @return the positions.
+     * @throws IOException If the resource cannot be read.
+     */
+    private static List<Position> readPositions() throws IOException {
+        List<Position> positions = new ArrayList<>();
+        for (String line : readResource(POSITIONS)) {
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.trim().split("\\s+");
+            positions.add(new Position(fields[0], fields[1],
+                    Integer.parseInt(fields[2]), Integer.parseInt(fields[3]),
+                    Long.parseLong(fields[4])));
+        }
+        return positions;
+    }
+
+    /**
+     * Reads the lines of a resource of the suite.
+     *
+     * @param name the name of the resource.
+     * @return the lines.
+     * @throws IOException If the resource cannot be read.
+     */
+    private static List<String> readResource(String name) throws IOException {
+        InputStream in = RegressionSuite.class.getResourceAsStream(
+                "/regression/" + name);
+        if (in == null) {
+            throw new IOException("Missing resource " + name);
+        }
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            return reader.lines().toList();
+        }
+    }
+
+    /**
+     * A benchmark position with its expected move.
+     *
+     * @param name   the name of the position.
+     * @param moves  the columns of the moves leading to the position, from
+     *               1 to {@link Board#COLS}, or '-' for the empty board.
+     * @param level  the level of the search.
+     * @param move   the column of the expected move, starting from 1.
+     * @param micros the recorded time of the move in microseconds.
+     */
+    private record Position(String name, String moves, int level, int move,
+                            long micros) {
+
+        /**
+         * Creates the board of this position, where the machine is to move.
+         *
+         * @return the board.
+         */
+        Board board() {
+            int[] cols = moves.equals("-") ? new int[0]
+                    : moves.chars().map(c -> c - '1').toArray();
+            Player first = cols.length % 2 == 0
+                    ? Player.MACHINE : Player.HUMAN;
+            Board board = GameState.fromMoves(first, cols);
+            board.setLevel(level);
+            return board;
+        }
+    }
+}
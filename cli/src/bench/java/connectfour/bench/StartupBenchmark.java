@@ -0,0 +1,246 @@
+package connectfour.bench;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Measures the start-up of a headless process, the engine protocol, in new
+ * virtual machines with different class paths and options.
+ * <p>
+ * Each configuration is given as argument {@code label=path}, followed by
+ * the options of its virtual machine, if any. For each one the benchmark
+ * reports the median time until the process answered {@code isready},
+ * until it answered the first {@code go} with its best move and until it
+ * terminated after {@code quit}, the number of loaded classes and the
+ * memory committed by the virtual machine outside the heap at exit, as
+ * reported by the native memory tracking. The heap is left out, since its
+ * initial size does not depend on the class path.
+ * <p>
+ * With the arguments {@code --dump archive path}, the same workload runs
+ * once and the loaded classes are dumped to the given class data sharing
+ * archive, which later starts can map with
+ * {@code -XX:SharedArchiveFile=archive}.
+ */
+public final class StartupBenchmark {
+
+    /**
+     * The class started in each virtual machine.
+     */
+    private static final String MAIN_CLASS
+            = "connectfour.protocol.EngineProtocol";
+
+    /**
+     * The commands sent once the process is ready, which let the machine
+     * make the first move at the default depth.
+     */
+    private static final List<String> FIRST_MOVE
+            = List.of("position startpos", "go");
+
+    /**
+     * The number of measured starts per configuration.
+     */
+    private static final int RUNS = 11;
+
+    /**
+     * The lines of the native memory tracking with the committed memory of
+     * the virtual machine and of the heap, in bytes or kilobytes.
+     */
+    private static final Pattern NMT_TOTAL = Pattern.compile(
+            "Total: reserved=\\d+(?:KB)?, committed=(\\d+)(KB)?");
+    private static final Pattern NMT_HEAP = Pattern.compile(
+            "Java Heap \\(reserved=\\d+(?:KB)?, committed=(\\d+)(KB)?");
+
+    /**
+     * Private constructor to ensure non-instantiability.
+     */
+    private StartupBenchmark() {
+        throw new AssertionError("Utility Class!");
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args the configurations to compare, each as
+     *             {@code label=path} followed by its options, or
+     *             {@code --dump archive path}.
+     * @throws Exception If a virtual machine cannot be started or fails.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length == 3 && args[0].equals("--dump")) {
+            Path archive = Path.of(args[1]);
+            Files.createDirectories(archive.toAbsolutePath().getParent());
+            Files.deleteIfExists(archive);
+            start(args[2], List.of("-XX:ArchiveClassesAtExit=" + archive));
+            System.out.println("Dumped " + Files.size(archive) / 1024
+                    + " KB to " + archive);
+            return;
+        }
+
+        System.out.printf("%-10s %12s %12s %12s %10s %14s%n", "config",
+                "ready ms", "move ms", "exit ms", "classes", "non-heap KB");
+        int arg = 0;
+        while (arg < args.length) {
+            int split = args[arg].indexOf('=');
+            String label = args[arg].substring(0, split);
+            String classPath = args[arg].substring(split + 1);
+            List<String> options = new ArrayList<>();
+            for (arg++; arg < args.length && args[arg].startsWith("-");
+                 arg++) {
+                options.add(args[arg]);
+            }
+
+            // the first start fills the caches of the file system
+            start(classPath, options);
+            long[][] times = new long[3][RUNS];
+            for (int run = 0; run < RUNS; run++) {
+                long[] runTimes = start(classPath, options);
+                for (int i = 0; i < times.length; i++) {
+                    times[i][run] = runTimes[i];
+                }
+            }
+            for (long[] time : times) {
+                Arrays.sort(time);
+            }
+
+            Path classLog = Files.createTempFile("classes", ".log");
+            List<String> logOptions = new ArrayList<>(options);
+            logOptions.add("-Xlog:class+load:file=" + classLog);
+            start(classPath, logOptions);
+            long classes;
+            try (var lines = Files.lines(classLog)) {
+                classes = lines.count();
+            }
+            Files.deleteIfExists(classLog);
+
+            System.out.printf("%-10s %12.1f %12.1f %12.1f %10d %14d%n",
+                    label, times[0][RUNS / 2] / 1e6,
+                    times[1][RUNS / 2] / 1e6, times[2][RUNS / 2] / 1e6,
+                    classes, nonHeapKilobytes(classPath, options));
+        }
+    }
+
+    /**
+     * Starts the engine protocol, asks if it is ready, lets it make the
+     * first move and quits it.
+     *
+     * @param classPath the class path.
+     * @param options   the additional options of the virtual machine.
+     * @return the time until the process was ready, until the move and
+     *         until the exit in nanoseconds.
+     * @throws IOException          If the process cannot be started.
+     * @throws InterruptedException The benchmark was interrupted.
+     */
+    private static long[] start(String classPath, List<String> options)
+            throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        Process process = launch(classPath, options);
+        long ready = 0;
+        long move = 0;
+        try (PrintStream in = new PrintStream(process.getOutputStream(), true,
+                StandardCharsets.UTF_8);
+             BufferedReader out = new BufferedReader(new InputStreamReader(
+                     process.getInputStream(), StandardCharsets.UTF_8))) {
+            in.println("isready");
+            String line;
+            while ((line = out.readLine()) != null) {
+                if (line.equals("readyok")) {
+                    ready = System.nanoTime() - start;
+                    FIRST_MOVE.forEach(in::println);
+                } else if (line.startsWith("bestmove")) {
+                    move = System.nanoTime() - start;
+                    in.println("quit");
+                }
+            }
+        }
+        if (process.waitFor() != 0 || ready == 0 || move == 0) {
+            throw new IllegalStateException("The process failed!");
+        }
+        return new long[]{ready, move, System.nanoTime() - start};
+    }
+
+    /**
+     * Starts the engine protocol with native memory tracking and quits it
+     * immediately.
+     *
+     * @param classPath the class path.
+     * @param options   the additional options of the virtual machine.
+     * @return the memory committed outside the heap at exit in kilobytes.
+     * @throws IOException          If the process cannot be started.
+     * @throws InterruptedException The benchmark was interrupted.
+     */
+    private static long nonHeapKilobytes(String classPath,
+                                         List<String> options)
+            throws IOException, InterruptedException {
+        List<String> nmtOptions = new ArrayList<>(options);
+        nmtOptions.addAll(List.of("-XX:NativeMemoryTracking=summary",
+                "-XX:+UnlockDiagnosticVMOptions",
+                "-XX:+PrintNMTStatistics"));
+        Process process = launch(classPath, nmtOptions);
+        long total = -1;
+        long heap = 0;
+        try (PrintStream in = new PrintStream(process.getOutputStream(), true,
+                StandardCharsets.UTF_8);
+             BufferedReader out = new BufferedReader(new InputStreamReader(
+                     process.getInputStream(), StandardCharsets.UTF_8))) {
+            in.println("isready");
+            in.println("quit");
+            String line;
+            while ((line = out.readLine()) != null) {
+                Matcher matcher = NMT_TOTAL.matcher(line);
+                if (matcher.find()) {
+                    total = kilobytes(matcher);
+                }
+                matcher = NMT_HEAP.matcher(line);
+                if (matcher.find()) {
+                    heap = kilobytes(matcher);
+                }
+            }
+        }
+        process.waitFor();
+        return total - heap;
+    }
+
+    /**
+     * Converts the amount of memory matched by a pattern of the native
+     * memory tracking.
+     *
+     * @param matcher the matcher, whose first group is the amount and whose
+     *                second group is the unit, if any.
+     * @return the amount in kilobytes.
+     */
+    private static long kilobytes(Matcher matcher) {
+        long amount = Long.parseLong(matcher.group(1));
+        return matcher.group(2) == null ? amount / 1024 : amount;
+    }
+
+    /**
+     * Launches a new virtual machine running the engine protocol.
+     *
+     * @param classPath the class path.
+     * @param options   the additional options of the virtual machine.
+     * @return the process.
+     * @throws IOException If the process cannot be started.
+     */
+    private static Process launch(String classPath, List<String> options)
+            throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java")
+                .toString());
+        command.addAll(options);
+        command.add("-cp");
+        command.add(classPath);
+        command.add(MAIN_CLASS);
+        return new ProcessBuilder(command)
+                .redirectError(ProcessBuilder.Redirect.INHERIT).start();
+    }
+}
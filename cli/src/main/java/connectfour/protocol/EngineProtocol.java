@@ -0,0 +1,455 @@
+package connectfour.protocol;
+
+import connectfour.engine.EngineService;
+import connectfour.model.Board;
+import connectfour.model.GameState;
+import connectfour.model.Player;
+import connectfour.model.SearchIteration;
+import connectfour.model.SearchLimits;
+import connectfour.model.exceptions.IllegalMoveException;
+import connectfour.model.utility.ConnectFourUtility;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Text protocol in the style of UCI, which lets match managers and load
+ * tools drive the engine as a subprocess through the standard input and
+ * output.
+ * <p>
+ * The engine always plays the player to move. Columns are numbered from 1 to
+ * {@link Board#COLS}, like in the {@link connectfour.shell.Shell}.
+ * <pre>
+ *  uci                           -&gt; id name ..., id author ..., uciok
+ *  isready                       -&gt; readyok
+ *  ucinewgame                    -&gt; nothing, stops the search
+ *  position startpos [moves c..] -&gt; nothing, sets up the position
+ *  go [depth n] [movetime ms]    -&gt; info ..., bestmove c
+ *  go infinite                   -&gt; info ..., bestmove c after stop
+ *  stop                          -&gt; bestmove c
+ *  d                             -&gt; the rows of the board
+ *  quit                          -&gt; nothing, terminates the engine
+ * </pre>
+ * Without a limit, {@code go} searches to the depth of the default level.
+ * While searching, one line is printed per completed iteration:
+ * <pre>
+ *  info depth d score s nodes n nps n time ms pv c
+ * </pre>
+ * where nodes and time are counted from the start of the search and the
+ * score is the evaluation of the machine. {@code bestmove none} is printed
+ * if the game is already over. Invalid commands are answered by
+ * {@code info string error message}.
+ * <p>
+ * The commands are read while searching, so {@code stop} and
+ * {@code isready} are answered immediately. The searches run on their own
+ * {@link EngineService} without a deadline. This class does not load any
+ * classes of AWT or Swing.
+ */
+public final class EngineProtocol {
+
+    /**
+     * The depth of searches without limits.
+     */
+    private static final int DEFAULT_DEPTH = 4;
+
+    /**
+     * The share of the maximum heap size a game tree may occupy at most,
+     * which keeps deep searches from running out of memory.
+     */
+    private static final int HEAP_SHARE = 4;
+
+    /**
+     * The time a search may take at most, after which the engine answers
+     * with a shallow search.
+     */
+    private static final Duration MAX_SEARCH_TIME = Duration.ofDays(1);
+
+    /**
+     * The number of searches waiting for the worker. Every {@code go}
+     * cancels the search before, but a cancelled search stays in the queue
+     * until the worker has finished the search it is running, so a client
+     * sending {@code go} and {@code stop} in quick succession queues several
+     * of them.
+     */
+    private static final int QUEUE_CAPACITY = 16;
+
+    /**
+     * The stream all output is printed to. Used as lock for printing, since
+     * the searches print from the worker thread.
+     */
+    private final PrintStream out;
+
+    /**
+     * Service running the searches.
+     */
+    private final EngineService engine = new EngineService(1, QUEUE_CAPACITY,
+            MAX_SEARCH_TIME);
+
+    /**
+     * The current position.
+     */
+    private Board position = new GameState();
+
+    /**
+     * The search currently running, or {@code null} if none is.
+     */
+    private Search search;
+
+    /**
+     * Constructs a new EngineProtocol.
+     *
+     * @param out the stream all output is printed to.
+     */
+    public EngineProtocol(PrintStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Runs the protocol on the standard input and output.
+     *
+     * @param args the program arguments, which are ignored.
+     * @throws IOException If an I/O error occurs while reading the input.
+     */
+    public static void main(String[] args) throws IOException {
+        PrintStream out = new PrintStream(System.out, true,
+                StandardCharsets.UTF_8);
+        EngineProtocol protocol = new EngineProtocol(out);
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                System.in, StandardCharsets.UTF_8))) {
+            protocol.run(in);
+        }
+    }
+
+    /**
+     * Processes commands until 'quit' is read or the input ends. A running
+     * search is stopped at the end.
+     *
+     * @param in the reader to read the commands from.
+     * @throws IOException If an I/O error occurs while reading the input.
+     */
+    public void run(BufferedReader in) throws IOException {
+        try {
+            String input;
+            while ((input = in.readLine()) != null) {
+                if (!execute(input)) {
+                    break;
+                }
+            }
+        } finally {
+            stop(false);
+            engine.shutdownNow();
+        }
+    }
+
+    /**
+     * Executes a single command.
+     *
+     * @param line the command line.
+     * @return false if the command was 'quit', true otherwise.
+     */
+    public boolean execute(String line) {
+        String[] tokens = line.trim().split("\\s+");
+        switch (tokens[0]) {
+            case "uci" -> print("id name ConnectFour", "id author pfeifermika",
+                    "uciok");
+            case "isready" -> print("readyok");
+            case "ucinewgame" -> {
+                stop(false);
+                position = new GameState();
+            }
+            case "position" -> setPosition(tokens);
+            case "go" -> go(tokens);
+            case "stop" -> stop(true);
+            case "d" -> print(position.toString());
+            case "quit" -> {
+                return false;
+            }
+            case "" -> {
+                // empty lines are ignored
+            }
+            default -> error("Unknown command " + tokens[0]);
+        }
+        return true;
+    }
+
+    /**
+     * Sets up the position reached by the given moves from the empty board.
+     * The player making the last move is the human, so that the machine is
+     * to move.
+     *
+     * @param tokens the command and its arguments.
+     */
+    private void setPosition(String[] tokens) {
+        if (tokens.length < 2 || !tokens[1].equals("startpos")
+                || (tokens.length > 2 && !tokens[2].equals("moves"))) {
+            error("Expected position startpos [moves c1 c2 ...]");
+            return;
+        }
+
+        int[] cols = new int[Math.max(0, tokens.length - 3)];
+        try {
+            for (int i = 0; i < cols.length; i++) {
+                cols[i] = Integer.parseInt(tokens[i + 3]) - 1;
+            }
+            Player first = cols.length % 2 == 0
+                    ? Player.MACHINE : Player.HUMAN;
+            Board newPosition = GameState.fromMoves(first, cols);
+            stop(false);
+            position = newPosition;
+        } catch (NumberFormatException e) {
+            error("Invalid column");
+        } catch (IllegalMoveException | IllegalArgumentException e) {
+            error(e.getMessage());
+        }
+    }
+
+    /**
+     * Starts a search on the current position with the given limits.
+     *
+     * @param tokens the command and its arguments.
+     */
+    private void go(String[] tokens) {
+        int depth = 0;
+        Duration moveTime = null;
+        boolean infinite = false;
+        try {
+            for (int i = 1; i < tokens.length; i++) {
+                switch (tokens[i]) {
+                    case "depth" -> depth = Integer.parseInt(tokens[++i]);
+                    case "movetime" -> moveTime = Duration.ofMillis(
+                            Long.parseLong(tokens[++i]));
+                    case "infinite" -> infinite = true;
+                    default -> throw new IllegalArgumentException(
+                            "Unknown limit " + tokens[i]);
+                }
+            }
+            if (depth < 0 || (moveTime != null && moveTime.isNegative())) {
+                throw new IllegalArgumentException("Negative limit");
+            }
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            error("Expected go [depth n] [movetime ms] [infinite]");
+            return;
+        } catch (IllegalArgumentException e) {
+            error(e.getMessage());
+            return;
+        }
+
+        stop(true);
+        if (position.isGameOver()) {
+            print("bestmove none");
+            return;
+        }
+        if (depth == 0) {
+            depth = moveTime == null && !infinite
+                    ? DEFAULT_DEPTH : Board.ROWS * Board.COLS;
+        }
+        SearchLimits limits = SearchLimits.ofDepth(depth)
+                .withMemory(Runtime.getRuntime().maxMemory() / HEAP_SHARE);
+        if (moveTime != null) {
+            limits = limits.withTimeout(moveTime.isZero()
+                    ? Duration.ofMillis(1) : moveTime);
+        }
+
+        Search newSearch = new Search(position, infinite);
+        search = newSearch;
+        newSearch.future = engine.submitAsync(position, limits,
+                newSearch::iterationCompleted, null);
+        newSearch.future.whenComplete(newSearch::searchCompleted);
+    }
+
+    /**
+     * Stops the running search, if any.
+     *
+     * @param report if the best move found so far is printed.
+     */
+    private void stop(boolean report) {
+        Search running = search;
+        search = null;
+        if (running != null) {
+            running.stop(report);
+        }
+    }
+
+    /**
+     * Prints the given lines as one block.
+     *
+     * @param lines the lines to print.
+     */
+    private void print(String... lines) {
+        synchronized (out) {
+            for (String line : lines) {
+                out.println(line);
+            }
+            out.flush();
+        }
+    }
+
+    /**
+     * Prints an error message.
+     *
+     * @param message the error message.
+     */
+    private void error(String message) {
+        print("info string error " + message);
+    }
+
+    /**
+     * A search of the engine, which prints its progress and its result
+     * exactly once, either on completion or when it is stopped.
+     */
+    private final class Search {
+
+        /**
+         * The position searched.
+         */
+        private final Board board;
+
+        /**
+         * Flag indicating if the result is only printed when stopped.
+         */
+        private final boolean infinite;
+
+        /**
+         * The future of the search.
+         */
+        private CompletableFuture<Board> future;
+
+        /**
+         * The number of nodes of all completed iterations.
+         */
+        private long nodes = 0;
+
+        /**
+         * The deepest completed iteration, or {@code null} if none
+         * completed yet.
+         */
+        private SearchIteration deepest;
+
+        /**
+         * The result found on completion of an infinite search, or
+         * {@code null}.
+         */
+        private Board result;
+
+        /**
+         * Flag indicating if the result was printed.
+         */
+        private boolean finished = false;
+
+        /**
+         * Constructs a new Search.
+         *
+         * @param board    the position searched.
+         * @param infinite if the result is only printed when stopped.
+         */
+        Search(Board board, boolean infinite) {
+            this.board = board;
+            this.infinite = infinite;
+        }
+
+        /**
+         * Prints an info line for the completed iteration. Called by the
+         * worker thread.
+         *
+         * @param iteration the completed iteration.
+         */
+        void iterationCompleted(SearchIteration iteration) {
+            synchronized (out) {
+                if (finished) {
+                    return;
+                }
+                nodes += iteration.nodes();
+                deepest = iteration;
+                long millis = iteration.elapsedNanos() / 1_000_000;
+                long nps = nodes * 1_000_000_000L
+                        / Math.max(1, iteration.elapsedNanos());
+                print("info depth " + iteration.depth()
+                        + " score " + iteration.score(iteration.bestCol())
+                        + " nodes " + nodes + " nps " + nps
+                        + " time " + millis
+                        + " pv " + (iteration.bestCol() + 1));
+            }
+        }
+
+        /**
+         * Prints the best move, once the search completed. An infinite
+         * search waits for {@link Search#stop(boolean)} instead.
+         *
+         * @param newBoard the board with the best move executed, or
+         *                 {@code null} if the search failed.
+         * @param error    the reason of the failure, or {@code null}.
+         */
+        void searchCompleted(Board newBoard, Throwable error) {
+            synchronized (out) {
+                if (finished) {
+                    return;
+                } else if (error != null) {
+                    finished = true;
+                    error("Search failed: " + error);
+                } else if (infinite) {
+                    result = newBoard;
+                } else {
+                    finished = true;
+                    print("bestmove "
+                            + (ConnectFourUtility.findMove(board, newBoard)
+                            + 1));
+                }
+            }
+        }
+
+        /**
+         * Cancels the search and prints the move of the deepest completed
+         * iteration.
+         *
+         * @param report if the best move is printed.
+         */
+        void stop(boolean report) {
+            // finished first, so the cancellation is not reported as failure
+            synchronized (out) {
+                if (!finished) {
+                    finished = true;
+                    if (report) {
+                        printBestMove();
+                    }
+                }
+            }
+            future.cancel(true);
+        }
+
+        /**
+         * Prints the move of the completed search, or of the deepest
+         * completed iteration.
+         */
+        private void printBestMove() {
+            if (result != null) {
+                print("bestmove "
+                        + (ConnectFourUtility.findMove(board, result) + 1));
+            } else if (deepest != null) {
+                print("bestmove " + (deepest.bestCol() + 1));
+            } else {
+                print("bestmove " + (fallbackMove() + 1));
+            }
+        }
+
+        /**
+         * Chooses the best column of a search of depth 1, if the search was
+         * stopped before completing any iteration.
+         *
+         * @return the column, starting from 0.
+         */
+        private int fallbackMove() {
+            try {
+                return ConnectFourUtility.findMove(board,
+                        board.machineMove(SearchLimits.ofDepth(1), null));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Board.COLS / 2;
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package connectfour.server;
+
+import connectfour.engine.EngineService;
+import connectfour.model.log.GameLogWriter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Headless server, which lets many clients play games of connect four at the
+ * same time over a local socket, without any graphical user interface.
+ * <p>
+ * Every connection is handled by its own {@link GameSession}. Sessions run on
+ * virtual threads if the runtime supports them, so idle sessions cost almost
+ * nothing. Otherwise, a cached pool of platform threads is used. The machine
+ * moves of all sessions are calculated by the shared {@link EngineService}.
+ */
+public class GameServer implements Closeable {
+
+    /**
+     * The port used, if none is given on the command line.
+     */
+    public static final int DEFAULT_PORT = 4444;
+
+    /**
+     * The socket accepting new connections on the loopback interface.
+     */
+    private final ServerSocket serverSocket;
+
+    /**
+     * Executor running the sessions.
+     */
+    private final ExecutorService sessionExecutor = newSessionExecutor();
+
+    /**
+     * Service calculating the machine moves of all sessions.
+     */
+    private final EngineService engine = EngineService.shared();
+
+    /**
+     * Log to append finished games to, or {@code null} if none is configured.
+     */
+    private final GameLogWriter gameLog;
+
+    /**
+     * Constructs a new server listening on the given port of the loopback
+     * interface.
+     *
+     * @param port the port to listen on, or 0 to pick a free one.
+     * @throws IOException If the socket cannot be opened or the configured
+     *                     game log cannot be opened.
+     */
+    public GameServer(int port) throws IOException {
+        serverSocket = new ServerSocket(port, 0,
+                InetAddress.getLoopbackAddress());
+        gameLog = GameLogWriter.openConfigured();
+    }
+
+    /**
+     * Starts the server on the port given as the first argument, or the
+     * {@link GameServer#DEFAULT_PORT}, and serves clients until the process is
+     * terminated.
+     *
+     * @param args the program arguments.
+     * @throws IOException If the server cannot be started.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        try (GameServer server = new GameServer(port)) {
+            System.out.println("Listening on port " + server.getPort());
+            server.serve();
+        }
+    }
+
+    /**
+     * Accepts connections and starts a session for each of them, until the
+     * server is closed. A connection, which cannot be accepted, e.g. since
+     * the client reset it or the process ran out of file descriptors, is
+     * reported and skipped.
+     *
+     * @throws IOException If an I/O error occurs while setting up an accepted
+     *                     connection.
+     */
+    public void serve() throws IOException {
+        while (!serverSocket.isClosed()) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                if (serverSocket.isClosed()) {
+                    return;
+                }
+                System.err.println("Cannot accept a connection: "
+                        + e.getMessage());
+                continue;
+            }
+            socket.setTcpNoDelay(true);
+            sessionExecutor.execute(
+                    new GameSession(socket, engine, gameLog));
+        }
+    }
+
+    /**
+     * @return the port the server is listening on.
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Stops accepting connections and interrupts all running sessions.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        sessionExecutor.shutdownNow();
+        if (gameLog != null) {
+            gameLog.close();
+        }
+    }
+
+    /**
+     * Creates an executor starting a new virtual thread for each task, if the
+     * runtime supports virtual threads, or a cached thread pool otherwise.
+     *
+     * @return the executor for sessions.
+     */
+    private static ExecutorService newSessionExecutor() {
+        try {
+            Method factory = Executors.class.getMethod(
+                    "newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(
+                    daemonThreadFactory("session-"));
+        }
+    }
+
+    /**
+     * Creates a factory for numbered daemon threads.
+     *
+     * @param prefix the prefix of the thread names.
+     * @return the thread factory.
+     */
+    private static ThreadFactory daemonThreadFactory(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable,
+                    prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,437 @@
+package connectfour.server;
+
+import connectfour.engine.Calibration;
+import connectfour.engine.DifficultyProfile;
+import connectfour.engine.Engine;
+import connectfour.engine.EngineService;
+import connectfour.engine.Engines;
+import connectfour.model.Board;
+import connectfour.model.Coordinates2D;
+import connectfour.model.GameState;
+import connectfour.model.Player;
+import connectfour.model.SearchIteration;
+import connectfour.model.SearchLimits;
+import connectfour.model.exceptions.IllegalMoveException;
+import connectfour.model.log.GameLogWriter;
+import connectfour.model.log.GameRecorder;
+import connectfour.model.utility.ConnectFourUtility;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeSet;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * A game of connect four played by a single client of the
+ * {@link GameServer}.
+ * <p>
+ * The client sends one command per line and receives one or more response
+ * lines. Columns are numbered from 1 to {@link Board#COLS}, like in the
+ * {@link connectfour.shell.Shell}.
+ * <pre>
+ *  new        -&gt; ok, followed by "machine c" if the machine starts
+ *  level l    -&gt; ok
+ *  engine e   -&gt; ok, where e is the name of an engine, e.g. minimax
+ *  switch     -&gt; ok, followed by "machine c" if the machine starts
+ *  move c     -&gt; machine c, or "over winner" if the game is over
+ *  print      -&gt; the rows of the board, followed by ok
+ *  witness    -&gt; witness (row, col), ...
+ *  info       -&gt; info, followed by the metrics of the engine
+ *  analyse a  -&gt; ok, where a is on or off to report the search progress
+ *  quit       -&gt; bye
+ * </pre>
+ * The machine's reply to a move is followed by "over winner" if it ends the
+ * game, where winner is one of human, machine and tie. Failed commands are
+ * answered by "error message".
+ * <p>
+ * While analysing, the machine's reply is preceded by one line per completed
+ * iteration of the search, "depth d move c scores s1 ... sn", with the score
+ * of the move into each column, or "-" if the column is full.
+ */
+class GameSession implements Runnable {
+
+    /**
+     * The connection to the client.
+     */
+    private final Socket socket;
+
+    /**
+     * Service calculating the machine moves.
+     */
+    private final EngineService engine;
+
+    /**
+     * Log to append finished games to, or {@code null} if none is configured.
+     */
+    private final GameLogWriter gameLog;
+
+    /**
+     * Records the moves of the game currently running.
+     */
+    private final GameRecorder recorder = new GameRecorder();
+
+    /**
+     * Writer to send responses to the client.
+     */
+    private PrintWriter out;
+
+    /**
+     * The current state of the game.
+     */
+    private Board game = new GameState();
+
+    /**
+     * The starting player of the game currently running.
+     */
+    private Player firstPlayer = Player.HUMAN;
+
+    /**
+     * The difficulty level of the game currently running.
+     */
+    private int level = 4;
+
+    /**
+     * The engine calculating the machine moves of the game currently
+     * running.
+     */
+    private Engine gameEngine = Engines.defaultEngine();
+
+    /**
+     * The budget of each level, if the speed of this machine is configured,
+     * see {@link Calibration#RATE_PROPERTY}, or {@code null} to search each
+     * level to its depth.
+     */
+    private final DifficultyProfile[] profiles
+            = Calibration.configuredProfiles();
+
+    /**
+     * Flag indicating if the searches report their progress.
+     */
+    private boolean analysing = false;
+
+    /**
+     * Constructs a new session for the given client.
+     *
+     * @param socket  the connection to the client.
+     * @param engine  service calculating the machine moves.
+     * @param gameLog log to append finished games to, may be {@code null}.
+     */
+    GameSession(Socket socket, EngineService engine, GameLogWriter gameLog) {
+        this.socket = socket;
+        this.engine = engine;
+        this.gameLog = gameLog;
+    }
+
+    /**
+     * Processes commands until the client quits or closes the connection, or
+     * the engine cancels a machine move.
+     */
+    @Override
+    public void run() {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(
+                     socket.getInputStream(), StandardCharsets.UTF_8))) {
+            out = new PrintWriter(socket.getOutputStream(), true,
+                    StandardCharsets.UTF_8);
+            String input;
+            while ((input = in.readLine()) != null) {
+                if (!process(input.trim().split("\\s+"))) {
+                    break;
+                }
+            }
+        } catch (IOException | InterruptedException
+                 | CancellationException ignored) {
+            // the connection is closed either way
+        }
+    }
+
+    /**
+     * Processes a single command.
+     *
+     * @param tokens the command and its arguments.
+     * @return false if the client quit, true otherwise.
+     * @throws InterruptedException The session was interrupted while waiting
+     *                              for the machine.
+     */
+    private boolean process(String[] tokens) throws InterruptedException {
+        char command = tokens[0].isEmpty()
+                ? ' ' : Character.toLowerCase(tokens[0].charAt(0));
+
+        switch (command) {
+            case 'n' -> newGame(firstPlayer);
+            case 'l' -> changeLevel(tokens);
+            case 'e' -> changeEngine(tokens);
+            case 's' -> newGame(Player.oppositePlayer(firstPlayer));
+            case 'm' -> move(tokens);
+            case 'w' -> printWitness();
+            case 'i' -> out.println("info " + engine.getMetrics());
+            case 'a' -> changeAnalysing(tokens);
+            case 'p' -> {
+                out.println(game);
+                out.println("ok");
+            }
+            case 'q' -> {
+                out.println("bye");
+                return false;
+            }
+            default -> error("Invalid command!");
+        }
+        return true;
+    }
+
+    /**
+     * Starts a new game with the given first player. If the machine starts,
+     * its move is executed immediately.
+     *
+     * @param newFirstPlayer the player making the first move.
+     * @throws InterruptedException The session was interrupted while waiting
+     *                              for the machine.
+     */
+    private void newGame(Player newFirstPlayer) throws InterruptedException {
+        firstPlayer = newFirstPlayer;
+        game = new GameState();
+        game.setLevel(level);
+        game.setEngine(gameEngine);
+        recorder.start();
+        out.println("ok");
+        if (firstPlayer == Player.MACHINE) {
+            machineMove(null);
+        }
+    }
+
+    /**
+     * Changes the level of the current and all following games.
+     *
+     * @param tokens the command and its arguments.
+     */
+    private void changeLevel(String[] tokens) {
+        try {
+            int newLevel = Integer.parseInt(tokens[1]);
+            game.setLevel(newLevel);
+            level = newLevel;
+            out.println("ok");
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            error("Wrong command format.");
+        } catch (IllegalArgumentException e) {
+            error(e.getMessage());
+        }
+    }
+
+    /**
+     * Changes the engine calculating the machine moves of the current and
+     * all following games.
+     *
+     * @param tokens the command and its arguments.
+     */
+    private void changeEngine(String[] tokens) {
+        try {
+            gameEngine = Engines.byName(tokens[1]);
+            game.setEngine(gameEngine);
+            out.println("ok");
+        } catch (ArrayIndexOutOfBoundsException e) {
+            error("Wrong command format.");
+        } catch (IllegalArgumentException e) {
+            error(e.getMessage());
+        }
+    }
+
+    /**
+     * Turns reporting the progress of the searches on or off.
+     *
+     * @param tokens the command and its arguments.
+     */
+    private void changeAnalysing(String[] tokens) {
+        if (tokens.length < 2) {
+            error("Wrong command format.");
+        } else if (tokens[1].equalsIgnoreCase("on")) {
+            analysing = true;
+            out.println("ok");
+        } else if (tokens[1].equalsIgnoreCase("off")) {
+            analysing = false;
+            out.println("ok");
+        } else {
+            error("Wrong command format.");
+        }
+    }
+
+    /**
+     * Executes a human move followed by the machine's reply.
+     *
+     * @param tokens the command and its arguments.
+     * @throws InterruptedException The session was interrupted while waiting
+     *                              for the machine.
+     */
+    private void move(String[] tokens) throws InterruptedException {
+        Board newGame;
+        try {
+            newGame = game.move(Integer.parseInt(tokens[1]) - 1);
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            error("Wrong command format.");
+            return;
+        } catch (IllegalMoveException | IllegalArgumentException e) {
+            error(e.getMessage());
+            return;
+        }
+
+        if (newGame == null) {
+            error("The column is already full!");
+            return;
+        }
+        Board previous = game;
+        recorder.recordMove(game, newGame);
+        game = newGame;
+        if (game.isGameOver()) {
+            gameOver();
+        } else {
+            machineMove(previous);
+        }
+    }
+
+    /**
+     * Calculates the machine move on the {@link GameSession#engine} and waits
+     * for its result.
+     *
+     * @param previous the game before the human move the machine replies to,
+     *                 or {@code null} if the machine makes the first move.
+     * @throws InterruptedException  The session was interrupted while
+     *                               waiting for the machine.
+     * @throws CancellationException The search was cancelled by the engine,
+     *                               which ends the session.
+     */
+    private void machineMove(Board previous) throws InterruptedException {
+        Board current = game;
+        Future<Board> result = engine.submitAsync(current, limits(),
+                analysing ? this::printIteration : null, null);
+        Board newGame;
+        try {
+            newGame = result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            throw e;
+        } catch (CancellationException e) {
+            // the engine was shut down, so no move can be calculated anymore
+            error("The machine move was cancelled, the session ends.");
+            throw e;
+        } catch (ExecutionException e) {
+            machineMoveFailed(
+                    e.getCause() instanceof RejectedExecutionException
+                            ? "The machine is busy"
+                            : "Error while calculating the machine's move",
+                    previous);
+            return;
+        }
+
+        recorder.recordMove(current, newGame);
+        game = newGame;
+        out.println("machine "
+                + (ConnectFourUtility.findMove(current, newGame) + 1));
+        if (game.isGameOver()) {
+            gameOver();
+        }
+    }
+
+    /**
+     * @return the limits of the searches at the current level.
+     */
+    private SearchLimits limits() {
+        return profiles == null
+                ? SearchLimits.DEFAULT : profiles[level - 1].toLimits();
+    }
+
+    /**
+     * Reports a machine move, which could not be calculated. Since nothing
+     * calculates it again, the human move it replies to is taken back, so
+     * the client can repeat it. If the machine makes the first move, the
+     * client has to start a new game.
+     *
+     * @param reason   the reason of the failure.
+     * @param previous the game before the human move, or {@code null} if
+     *                 the machine makes the first move.
+     */
+    private void machineMoveFailed(String reason, Board previous) {
+        if (previous == null) {
+            error(reason + ", please start a new game.");
+        } else {
+            game = previous;
+            recorder.truncate(recorder.size() - 1);
+            error(reason + ", your move was taken back.");
+        }
+    }
+
+    /**
+     * Sends the progress of a search to the client. Called by the worker
+     * thread of the {@link GameSession#engine} while the session waits for
+     * the machine.
+     *
+     * @param iteration the result of the completed iteration.
+     */
+    private void printIteration(SearchIteration iteration) {
+        StringBuilder line = new StringBuilder("depth ")
+                .append(iteration.depth())
+                .append(" move ").append(iteration.bestCol() + 1)
+                .append(" scores");
+        for (int col = 0; col < Board.COLS; col++) {
+            int score = iteration.score(col);
+            line.append(' ').append(score == SearchIteration.NO_SCORE
+                    ? "-" : Integer.toString(score));
+        }
+        out.println(line);
+    }
+
+    /**
+     * Reports the winner of the finished game and appends it to the
+     * {@link GameSession#gameLog}, if one is configured.
+     */
+    private void gameOver() {
+        Player winner = game.getWinner();
+        if (winner == Player.HUMAN) {
+            out.println("over human");
+        } else if (winner == Player.MACHINE) {
+            out.println("over machine");
+        } else {
+            out.println("over tie");
+        }
+
+        if (gameLog != null) {
+            try {
+                gameLog.append(recorder.finish(game, level));
+            } catch (IOException e) {
+                error("The game could not be logged.");
+            }
+        }
+    }
+
+    /**
+     * Sends the coordinates of the winning group, if the game is won.
+     */
+    private void printWitness() {
+        if (game.getWinner() == null) {
+            error("The game is not won by any player!");
+            return;
+        }
+        StringJoiner joiner = new StringJoiner(", ", "witness ", "");
+        Set<Coordinates2D> set = new TreeSet<>();
+        game.getWitness().forEach(c ->
+                set.add(ConnectFourUtility.convertCord(c)));
+        set.forEach(c -> joiner.add(c.toString()));
+        out.println(joiner);
+    }
+
+    /**
+     * Sends an error message to the client.
+     *
+     * @param message the error message.
+     */
+    private void error(String message) {
+        out.println("error " + message);
+    }
+}
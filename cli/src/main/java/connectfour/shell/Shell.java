@@ -0,0 +1,697 @@
+package connectfour.shell;
+
+import connectfour.engine.Calibration;
+import connectfour.engine.DifficultyProfile;
+import connectfour.engine.Engine;
+import connectfour.engine.EngineService;
+import connectfour.engine.Engines;
+import connectfour.engine.ProofResult;
+import connectfour.model.AnalysedMove;
+import connectfour.model.Board;
+import connectfour.model.Coordinates2D;
+import connectfour.model.GameHistory;
+import connectfour.model.GameState;
+import connectfour.model.Player;
+import connectfour.model.SearchLimits;
+import connectfour.model.exceptions.IllegalMoveException;
+import connectfour.model.utility.ConnectFourUtility;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+
+/**
+ * Command line interface to play a game of connect four, either interactively
+ * or by running scripts of commands.
+ * <p>
+ * Interactively a prompt is printed before each command. In batch mode,
+ * which is used for scripts, the prompt is suppressed and every command is
+ * followed by a status line:
+ * <pre>
+ *  # ok|error command microseconds
+ * </pre>
+ * where command is the first word of the command line and microseconds the
+ * time needed to execute it. Scripts may contain empty lines and comment
+ * lines starting with '#', which are skipped in batch mode. With the option
+ * {@code --echo} every command is printed after the prompt, so the output
+ * has the format of the transcripts in {@code Tests.txt}.
+ * <p>
+ * Usage: {@code Shell [--batch] [--echo] [script ...]}, where a script is a
+ * file or '-' for the standard input. Scripts imply the batch mode. Without
+ * scripts the commands are read from the standard input.
+ */
+public final class Shell {
+
+    /**
+     * The prompt printed before each command.
+     */
+    public static final String PROMPT = "connect4> ";
+
+    /**
+     * The error message of an invalid level.
+     */
+    private static final String LEVEL_RANGE
+            = "Level has to be between 1 and " + GameState.MAX_LEVEL + ".";
+
+    /**
+     * The current state of the game.
+     */
+    private Board game = new GameState();
+
+    /**
+     * The moves of the game currently running, which can be taken back.
+     */
+    private final GameHistory history = new GameHistory();
+
+    /**
+     * The starting player of the game currently running.
+     */
+    private Player firstPlayer = Player.HUMAN;
+
+    /**
+     * The difficulty level of the game currently running.
+     */
+    private int level = 4;
+
+    /**
+     * The engine calculating the machine moves of the game currently
+     * running.
+     */
+    private Engine engine = Engines.defaultEngine();
+
+    /**
+     * The budget of each level for the configured speed or after a
+     * calibration, or {@code null} if the levels are plain search depths.
+     */
+    private DifficultyProfile[] profiles;
+
+    /**
+     * The stream all output is printed to.
+     */
+    private final PrintStream out;
+
+    /**
+     * Flag indicating if the batch mode is active.
+     */
+    private final boolean batch;
+
+    /**
+     * Flag indicating if the commands are printed after the prompt.
+     */
+    private final boolean echo;
+
+    /**
+     * Flag indicating if the current command failed.
+     */
+    private boolean failed;
+
+    /**
+     * Constructs a new Shell.
+     *
+     * @param out   the stream all output is printed to.
+     * @param batch if the prompt is suppressed and every command is followed
+     *              by a status line.
+     * @param echo  if the commands are printed after the prompt.
+     */
+    public Shell(PrintStream out, boolean batch, boolean echo) {
+        this.out = out;
+        this.batch = batch;
+        this.echo = echo;
+        profiles = Calibration.configuredProfiles();
+    }
+
+    /**
+     * Runs the shell on the given command line arguments.
+     *
+     * @param args Command line arguments, see {@link Shell}.
+     * @throws IOException If an I/O error occurs while reading user input.
+     */
+    public static void main(String[] args) throws IOException {
+        boolean batch = false;
+        boolean echo = false;
+        List<String> scripts = new ArrayList<>();
+        for (String arg : args) {
+            switch (arg) {
+                case "-b", "--batch" -> batch = true;
+                case "-e", "--echo" -> echo = true;
+                default -> scripts.add(arg);
+            }
+        }
+        if (scripts.isEmpty()) {
+            scripts.add("-");
+        } else {
+            batch = true;
+        }
+
+        // scripts are printed in large blocks instead of line by line
+        PrintStream out = batch
+                ? new PrintStream(new BufferedOutputStream(
+                        new FileOutputStream(FileDescriptor.out), 1 << 16),
+                        false, StandardCharsets.UTF_8)
+                : System.out;
+        Shell shell = new Shell(out, batch, echo);
+        try {
+            for (String script : scripts) {
+                BufferedReader in = script.equals("-")
+                        ? new BufferedReader(new InputStreamReader(System.in,
+                                StandardCharsets.UTF_8))
+                        : Files.newBufferedReader(Path.of(script));
+                try (in) {
+                    if (!shell.run(in)) {
+                        break;
+                    }
+                }
+            }
+        } finally {
+            out.flush();
+        }
+    }
+
+    /**
+     * Main game loop.
+     * <p>
+     * Keeps processing the commands read until either 'quit' is entered or
+     * the end of the input is reached. In batch mode the output is buffered
+     * and only flushed, when no further command is ready to be read.
+     *
+     * @param in the reader to read the commands from.
+     * @return false if 'quit' was entered, true otherwise.
+     * @throws IOException If an I/O error occurs while reading user input.
+     */
+    public boolean run(BufferedReader in) throws IOException {
+        while (true) {
+            if (!batch) {
+                out.print(PROMPT);
+                out.flush();
+            } else if (!in.ready()) {
+                // the answers are complete before waiting for more input
+                out.flush();
+            }
+            String input = in.readLine();
+            if (input == null) {
+                return true;
+            }
+            String line = input.trim();
+            if (batch && (line.isEmpty() || line.startsWith("#"))) {
+                continue;
+            }
+            if (echo) {
+                out.println(PROMPT + line);
+            }
+            if (!execute(line)) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Executes a single command. In batch mode prints the status line
+     * afterwards.
+     *
+     * @param line the command line.
+     * @return false if the command was 'quit', true otherwise.
+     */
+    public boolean execute(String line) {
+        String[] tokens = line.trim().split("\\s+");
+        char command = tokens[0].isEmpty()
+                ? ' ' : Character.toLowerCase(tokens[0].charAt(0));
+        failed = false;
+        long start = System.nanoTime();
+
+        boolean run = true;
+        switch (command) {
+            case 'n' -> newGame();
+            case 'l' -> changeLevel(tokens);
+            case 'e' -> changeEngine(tokens);
+            case 's' -> switchSides();
+            case 'm' -> move(tokens);
+            case 'u' -> undo();
+            case 'r' -> redo();
+            case 'w' -> printWitness();
+            case 'p' -> out.println(game.toString());
+            case 'h' -> printHelp();
+            case 'c' -> calibrate();
+            case 'a' -> analyse(tokens);
+            case 'f' -> proveForcedWin();
+            case 'q' -> run = false;
+            default -> errorMessage("Invalid command!");
+        }
+
+        if (batch) {
+            long micros = (System.nanoTime() - start) / 1000;
+            out.println("# " + (failed ? "error " : "ok ") + tokens[0] + " "
+                    + micros);
+        }
+        return run;
+    }
+
+    /**
+     * Starts a new game with the same difficulty and first player as the game
+     * before.
+     */
+    private void newGame() {
+        game = new GameState();
+        game.setLevel(level);
+        game.setEngine(engine);
+        history.start(level);
+        if (firstPlayer == Player.MACHINE) {
+            machineMove();
+        }
+    }
+
+
+    /**
+     * Changes the level to the entered level. If the input level is over
+     * {@link GameState#MAX_LEVEL} this will print an error message.
+     *
+     * @param tokens the user input.
+     */
+    private void changeLevel(String[] tokens) {
+        try {
+            int newLevel = Integer.parseInt(tokens[1]);
+            if (newLevel > GameState.MAX_LEVEL || newLevel < 1) {
+                errorMessage(LEVEL_RANGE);
+            } else {
+                game.setLevel(newLevel);
+                level = newLevel;
+            }
+        } catch (NumberFormatException e) {
+            errorMessage("Level has to be a number!");
+        } catch (ArrayIndexOutOfBoundsException | NullPointerException e) {
+            errorMessage("Wrong command format.");
+        } catch (IllegalArgumentException e) {
+            errorMessage(LEVEL_RANGE);
+        }
+    }
+
+    /**
+     * Changes the engine calculating the machine moves of the current and
+     * all following games.
+     *
+     * @param tokens the user input.
+     */
+    private void changeEngine(String[] tokens) {
+        try {
+            engine = Engines.byName(tokens[1]);
+            game.setEngine(engine);
+        } catch (ArrayIndexOutOfBoundsException e) {
+            errorMessage("Wrong command format.");
+        } catch (IllegalArgumentException e) {
+            errorMessage("Engine has to be one of "
+                    + String.join(", ", Engines.names()) + ".");
+        }
+    }
+
+    /**
+     * Measures the speed of the search on this machine and uses the budgets
+     * of the resulting {@link DifficultyProfile}s as levels from now on.
+     * Prints the budget of each level.
+     */
+    private void calibrate() {
+        long nodesPerSecond;
+        try {
+            nodesPerSecond = Calibration.measureNodesPerSecond();
+        } catch (InterruptedException e) {
+            errorMessage("The calibration was interrupted.");
+            return;
+        } catch (IllegalStateException e) {
+            errorMessage(e.getMessage());
+            return;
+        }
+        profiles = Calibration.profiles(nodesPerSecond);
+
+        out.println("Searching " + nodesPerSecond
+                + " nodes per second.");
+        out.printf("%-6s %10s %12s %10s%n",
+                "level", "time ms", "nodes", "memory MB");
+        for (DifficultyProfile profile : profiles) {
+            out.printf("%-6d %10d %12d %10d%n", profile.level(),
+                    profile.time().toMillis(), profile.nodes(),
+                    profile.memory() >> 20);
+        }
+        out.println("Start with -D" + Calibration.RATE_PROPERTY + "="
+                + nodesPerSecond + " to use these levels without a "
+                + "calibration.");
+    }
+
+
+    /**
+     * Switches the {@link Shell#firstPlayer} and starts a new game.
+     * If the new {@link Shell#firstPlayer} is the machine, automatically
+     * executes a machine move.
+     */
+    private void switchSides() {
+        game = new GameState();
+        game.setLevel(level);
+        game.setEngine(engine);
+        history.start(level);
+        if (firstPlayer == Player.HUMAN) {
+            firstPlayer = Player.MACHINE;
+            machineMove();
+        } else if (firstPlayer == Player.MACHINE) {
+            firstPlayer = Player.HUMAN;
+        }
+    }
+
+
+    /**
+     * Tries to execute a human move.
+     * <p>
+     * If any of the steps, to make a move, fails prints an error message with
+     * detailed information regarding the nature of the error, and takes back
+     * the human move the machine should have replied to.
+     * <p>
+     * Automatically checks if the game is over after executing the move.
+     * If the game is not over executes a machine move, otherwise prints out a
+     * winner message.
+     *
+     * @param tokens the user input.
+     */
+    private void move(String[] tokens) {
+        if (game.isGameOver()) {
+            errorMessage("The game is over!");
+            return;
+        }
+
+        Board newGamestate;
+
+        try {
+            int column = Integer.parseInt(tokens[1]);
+            newGamestate = game.move(column - 1);
+        } catch (NumberFormatException | NullPointerException
+                | ArrayIndexOutOfBoundsException e) {
+            errorMessage("Invalid Arguments!");
+            return;
+        } catch (IllegalArgumentException e) {
+            errorMessage("The column is out of bounds");
+            return;
+        } catch (IllegalMoveException e) {
+            errorMessage("Its not your turn");
+            return;
+        }
+
+        if (newGamestate == null) {
+            errorMessage("The column is already full!");
+        } else if (newGamestate.isGameOver()) {
+            history.add(newGamestate);
+            game = newGamestate;
+            printWinnerMessage();
+        } else {
+            // game is not finished.
+            history.add(newGamestate);
+            game = newGamestate;
+            machineMove();
+        }
+    }
+
+
+    /**
+     * Tries to execute a machine move.
+     * <p>
+     * If any of the steps, to make a move, fails prints an error message with
+     * detailed information regarding the nature of the error, and takes back
+     * the human move the machine should have replied to.
+     * <p>
+     * Automatically checks if the game is over after executing the move.
+     * If the game is over prints out a winner message.
+     */
+    private void machineMove() {
+        if (game.isGameOver()) {
+            errorMessage("The game is over!");
+            return;
+        }
+
+        Board newGamestate;
+
+        try {
+            newGamestate = game.machineMoveAsync(limits()).get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IllegalMoveException) {
+                errorMessage("Its not the machines move!");
+            } else {
+                machineMoveFailed(
+                        e.getCause() instanceof RejectedExecutionException
+                                ? "The machine is busy"
+                                : "Error while calculating the machines move");
+            }
+            return;
+        } catch (InterruptedException e) {
+            machineMoveFailed("Error while calculating the machines move");
+            return;
+        }
+
+        if (newGamestate == null) {
+            machineMoveFailed("Error executing the calculated move");
+        } else {
+            history.add(newGamestate);
+            game = newGamestate;
+            printWinnerMessage();
+        }
+    }
+
+
+    /**
+     * Reports a machine move, which could not be calculated. Since nothing
+     * calculates it again, the human move it replies to is taken back, so
+     * the user can repeat it or make another one. If the machine makes the
+     * first move, the user has to start a new game.
+     *
+     * @param reason the reason the move failed.
+     */
+    private void machineMoveFailed(String reason) {
+        if (!history.canUndo()) {
+            errorMessage(reason + ", please start a new game.");
+            return;
+        }
+        game = history.undo();
+        game.setLevel(level);
+        game.setEngine(engine);
+        errorMessage(reason + ", your move was taken back.");
+    }
+
+    /**
+     * Prints the best moves for the player to move, each with its score and
+     * the moves expected to follow. Without a count only the best move is
+     * printed.
+     *
+     * @param tokens the user input.
+     */
+    private void analyse(String[] tokens) {
+        if (game.isGameOver()) {
+            errorMessage("The game is over!");
+            return;
+        }
+
+        List<AnalysedMove> moves;
+        try {
+            int count = tokens.length > 1 ? Integer.parseInt(tokens[1]) : 1;
+            moves = game.analyse(count, limits());
+        } catch (NumberFormatException e) {
+            errorMessage("The count has to be a number!");
+            return;
+        } catch (IllegalArgumentException e) {
+            errorMessage("The count has to be positive!");
+            return;
+        } catch (InterruptedException e) {
+            errorMessage("The analysis was interrupted.");
+            return;
+        }
+
+        for (int i = 0; i < moves.size(); i++) {
+            AnalysedMove move = moves.get(i);
+            StringJoiner variation = new StringJoiner(" ");
+            for (int col : move.variation()) {
+                variation.add(Integer.toString(col + 1));
+            }
+            out.println((i + 1) + ". column " + (move.col() + 1) + " score "
+                    + move.score() + " line " + variation);
+        }
+    }
+
+    /**
+     * Proves or disproves a forced win of the player to move with a
+     * proof-number search, whose tree may occupy a quarter of the maximum
+     * heap. Prints the winning column and the size of the proof, or that
+     * there is no forced win, or that the memory did not suffice.
+     */
+    private void proveForcedWin() {
+        if (game.isGameOver()) {
+            errorMessage("The game is over!");
+            return;
+        }
+
+        // nobody has moved in a new game, which the human starts
+        Player attacker = game.getPlayerToMove() == null
+                ? Player.HUMAN : game.getPlayerToMove();
+        Future<ProofResult> proof = EngineService.shared().proveAsync(game,
+                attacker, Runtime.getRuntime().maxMemory() / 4);
+        ProofResult result;
+        try {
+            result = proof.get();
+        } catch (InterruptedException e) {
+            proof.cancel(true);
+            errorMessage("The proof was interrupted.");
+            return;
+        } catch (ExecutionException e) {
+            errorMessage("Error while proving a forced win.");
+            return;
+        }
+
+        long millis = result.elapsedNanos() / 1_000_000;
+        switch (result.outcome()) {
+            case WIN -> out.println("Forced win with column "
+                    + (result.col() + 1) + ", proof of "
+                    + result.proofSize() + " positions, " + result.nodes()
+                    + " searched in " + millis + " ms.");
+            case NO_WIN -> out.println("No forced win, disproof of "
+                    + result.proofSize() + " positions, " + result.nodes()
+                    + " searched in " + millis + " ms.");
+            default -> out.println("Unknown, the memory was exhausted after "
+                    + result.nodes() + " positions in " + millis + " ms.");
+        }
+    }
+
+    /**
+     * @return the limits of the searches at the current level.
+     */
+    private SearchLimits limits() {
+        return profiles == null
+                ? SearchLimits.DEFAULT : profiles[level - 1].toLimits();
+    }
+
+    /**
+     * Takes back the last move of the human and the machine's reply. If the
+     * machine made the first move, taking it back lets the machine move
+     * again.
+     */
+    private void undo() {
+        if (!history.canUndo()) {
+            errorMessage("There is no move to undo!");
+            return;
+        }
+        do {
+            game = history.undo();
+        } while (game.getPlayerToMove() != Player.HUMAN && history.canUndo());
+
+        game.setLevel(level);
+        game.setEngine(engine);
+        if (game.getPlayerToMove() == Player.MACHINE) {
+            machineMove();
+        }
+    }
+
+    /**
+     * Makes the moves taken back last again, up to the next move of the
+     * human.
+     */
+    private void redo() {
+        if (!history.canRedo()) {
+            errorMessage("There is no move to redo!");
+            return;
+        }
+        do {
+            game = history.redo();
+        } while (game.getPlayerToMove() != Player.HUMAN && history.canRedo());
+
+        game.setLevel(level);
+        game.setEngine(engine);
+        if (game.isGameOver()) {
+            printWinnerMessage();
+        } else if (game.getPlayerToMove() == Player.MACHINE) {
+            machineMove();
+        }
+    }
+
+    /**
+     * If the game is over prints a winner message, otherwise does nothing.
+     */
+    private void printWinnerMessage() {
+        if (game.isGameOver()) {
+            Player player = game.getWinner();
+
+            if (player == Player.HUMAN) {
+                out.println("Congratulations! You won.");
+            } else if (player == Player.MACHINE) {
+                out.println("Sorry! Machine wins.");
+            } else {
+                out.println("Nobody wins. Tie.");
+            }
+        }
+    }
+
+    /**
+     * Prints a helpful message describing possible commands.
+     */
+    private void printHelp() {
+        out.print("""
+                Commands:
+                - new:     Starts a new game
+                - level l: Sets the difficulty to 'l' (default is 4)
+                           Only difficulties from 1 to"""
+                + " " + GameState.MAX_LEVEL + " are supported.\n" + """
+                - engine e: Sets the engine of the machine to 'e'.
+                           Available are"""
+                + " " + String.join(", ", Engines.names()) + ".\n" + """
+                - calibrate: Measures this machine and limits each level
+                             by time, nodes and memory from now on.
+                - switch:  Switches the starting player and starts a new game.
+                - move c:  Drops a token in the column 'c'.
+                           c has to be an integer between 0 and"""
+                + " " + Board.COLS + "\n" + """
+                - analyse k: Prints your best 'k' moves (default is 1),
+                             each with its score and the expected line.
+                - forced:  Proves if you can force a win and with which
+                           column, or that you cannot.
+                - undo:    Takes back your last move and the machine's reply.
+                - redo:    Makes the moves taken back again.
+                - witness: Prints out the coordinates of a winning group.
+                           Only usable, when the game is won by a player.
+                - print:   Prints the current board to the console.
+                - help:    Prints out this help text.
+                - quit:    Terminates the program.
+                """);
+    }
+
+    /**
+     * Prints out the coordinates of the winning connect four group
+     * if the game has been won.
+     */
+    private void printWitness() {
+        if (game.getWinner() != null) {
+            StringJoiner joiner = new StringJoiner(", ");
+            Set<Coordinates2D> set = new TreeSet<>();
+            game.getWitness().forEach(c ->
+                    set.add(ConnectFourUtility.convertCord(c)));
+
+            set.forEach(c ->
+                    joiner.add(c.toString()));
+
+            out.println(joiner);
+        } else {
+            errorMessage("The game is not won by any player!");
+        }
+    }
+
+    private void errorMessage(String message) {
+        failed = true;
+        out.println("Error! " + message);
+    }
+
+}
+
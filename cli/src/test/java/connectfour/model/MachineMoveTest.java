@@ -0,0 +1,69 @@
+package connectfour.model;
+
+import connectfour.model.utility.ConnectFourUtility;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Checks the machine moves of the benchmark positions of
+ * {@code regression/positions.txt}, see {@code RegressionSuite}. Every
+ * position must be answered by the recorded move; the recorded times are
+ * compared only by {@code gradle regressionCheck -Pregression.timing}.
+ */
+class MachineMoveTest {
+
+    /**
+     * Creates a test for each benchmark position.
+     *
+     * @return the tests.
+     * @throws IOException If the positions cannot be read.
+     */
+    @TestFactory
+    Stream<DynamicTest> recordedMoves() throws IOException {
+        InputStream in = MachineMoveTest.class.getResourceAsStream(
+                "/regression/positions.txt");
+        assertNotNull(in, "Missing resource positions.txt");
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            return reader.lines()
+                    .filter(line -> !line.isBlank() && !line.startsWith("#"))
+                    .map(line -> line.trim().split("\\s+"))
+                    .map(fields -> DynamicTest.dynamicTest(fields[0] + " at "
+                            + "level " + fields[2], () -> assertMove(fields[1],
+                            Integer.parseInt(fields[2]),
+                            Integer.parseInt(fields[3]))))
+                    .toList().stream();
+        }
+    }
+
+    /**
+     * Lets the machine move in a position and compares its move with the
+     * expected one.
+     *
+     * @param moves the columns of the moves leading to the position, from 1
+     *              to {@link Board#COLS}, or '-' for the empty board.
+     * @param level the level of the search.
+     * @param move  the column of the expected move, starting from 1.
+     * @throws InterruptedException The search was interrupted.
+     */
+    private static void assertMove(String moves, int level, int move)
+            throws InterruptedException {
+        int[] cols = moves.equals("-") ? new int[0]
+                : moves.chars().map(c -> c - '1').toArray();
+        Player first = cols.length % 2 == 0 ? Player.MACHINE : Player.HUMAN;
+        Board board = GameState.fromMoves(first, cols);
+        board.setLevel(level);
+        Board after = board.machineMove();
+        assertEquals(move, ConnectFourUtility.findMove(board, after) + 1);
+    }
+}
@@ -0,0 +1,102 @@
+package connectfour.shell;
+
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Replays the transcripts of {@code cli/Tests.txt}, stored in
+ * {@code regression/testcase-n.txt}, with a {@link Shell}. The output of
+ * every command must match the transcript.
+ */
+class ShellScenarioTest {
+
+    /**
+     * The resources of the scenarios.
+     */
+    private static final String[] SCENARIOS = {"testcase-1.txt",
+            "testcase-2.txt", "testcase-3.txt", "testcase-4.txt"};
+
+    /**
+     * Creates a test for each scenario.
+     *
+     * @return the tests.
+     */
+    @TestFactory
+    Stream<DynamicTest> scenarios() {
+        return Stream.of(SCENARIOS).map(scenario -> DynamicTest.dynamicTest(
+                scenario, () -> replay(scenario)));
+    }
+
+    /**
+     * Executes the commands of a scenario and compares their output with
+     * the transcript. The scenario stops at the first difference, since the
+     * following commands depend on the state of the game.
+     *
+     * @param scenario the resource of the scenario.
+     */
+    private static void replay(String scenario) {
+        String prompt = Shell.PROMPT.trim();
+        List<String> lines = readResource(scenario);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        Shell shell = new Shell(new PrintStream(buffer, true,
+                StandardCharsets.UTF_8), false, false);
+
+        int i = 0;
+        while (i < lines.size() && !lines.get(i).startsWith(prompt)) {
+            i++;
+        }
+        int commands = 0;
+        boolean running = true;
+        while (i < lines.size() && running) {
+            String command = lines.get(i++).substring(prompt.length()).trim();
+            List<String> expected = new ArrayList<>();
+            while (i < lines.size() && !lines.get(i).startsWith(prompt)) {
+                expected.add(lines.get(i++));
+            }
+            while (!expected.isEmpty()
+                    && expected.get(expected.size() - 1).isEmpty()) {
+                expected.remove(expected.size() - 1);
+            }
+
+            buffer.reset();
+            running = shell.execute(command);
+            commands++;
+            assertEquals(expected, buffer.toString(StandardCharsets.UTF_8)
+                    .lines().toList(), scenario + ": command " + commands
+                    + " '" + command + "'");
+        }
+    }
+
+    /**
+     * Reads the lines of a scenario.
+     *
+     * @param name the name of the resource.
+     * @return the lines.
+     */
+    private static List<String> readResource(String name) {
+        InputStream in = ShellScenarioTest.class.getResourceAsStream(
+                "/regression/" + name);
+        assertNotNull(in, "Missing resource " + name);
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            return reader.lines().toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
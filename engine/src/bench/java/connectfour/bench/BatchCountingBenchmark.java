@@ -0,0 +1,239 @@
+package connectfour.bench;
+
+import connectfour.model.Board;
+import connectfour.model.GameState;
+import connectfour.model.Player;
+import connectfour.model.SearchIteration;
+import connectfour.model.SearchLimits;
+import connectfour.model.utility.Bitboards;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static connectfour.model.Board.COLS;
+import static connectfour.model.Board.CONNECT;
+import static connectfour.model.Board.ROWS;
+
+/**
+ * Compares counting the groups of batches of bitboards with the Vector API
+ * against counting them one after the other, see
+ * {@link Bitboards#countGroups(long[], int, int[])}.
+ * <p>
+ * Each implementation is selected by {@link Bitboards#BATCH_PROPERTY} in a
+ * new virtual machine, which has the module {@code jdk.incubator.vector}
+ * added. It checks the batches against
+ * {@link Bitboards#countGroups(long, int[])} and fails if they disagree,
+ * then reports the time per bitboard in batches of the size used by the
+ * search, and the nodes per second of searches.
+ */
+public final class BatchCountingBenchmark {
+
+    /**
+     * The number of bitboards per batch, which are the positions of both
+     * players after every move.
+     */
+    private static final int BATCH = 2 * COLS;
+
+    /**
+     * The number of random batches.
+     */
+    private static final int BATCHES = 10_000;
+
+    /**
+     * The number of measured rounds over all batches.
+     */
+    private static final int ROUNDS = 50;
+
+    /**
+     * The level of the measured searches.
+     */
+    private static final int LEVEL = 6;
+
+    /**
+     * The number of searched positions.
+     */
+    private static final int POSITIONS = 8;
+
+    /**
+     * Private constructor to ensure non-instantiability.
+     */
+    private BatchCountingBenchmark() {
+        throw new AssertionError("Utility Class!");
+    }
+
+    /**
+     * Runs the benchmark, or the measurement of the selected implementation
+     * with the argument {@code --measure}.
+     *
+     * @param args the program arguments.
+     * @throws Exception If a virtual machine cannot be started or fails.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length == 1 && args[0].equals("--measure")) {
+            measure();
+            return;
+        }
+
+        System.out.printf("%-10s %-10s %16s %14s%n", "requested", "used",
+                "ns per bitboard", "nodes per s");
+        for (String mode : List.of("scalar", "vector")) {
+            Process process = new ProcessBuilder(List.of(
+                    Path.of(System.getProperty("java.home"), "bin", "java")
+                            .toString(),
+                    "--add-modules", "jdk.incubator.vector",
+                    "-D" + Bitboards.BATCH_PROPERTY + "=" + mode,
+                    "-cp", System.getProperty("java.class.path"),
+                    BatchCountingBenchmark.class.getName(), "--measure"))
+                    .redirectError(ProcessBuilder.Redirect.INHERIT).start();
+            String line;
+            try (BufferedReader out = new BufferedReader(new InputStreamReader(
+                    process.getInputStream(), StandardCharsets.UTF_8))) {
+                line = out.readLine();
+            }
+            if (process.waitFor() != 0 || line == null) {
+                throw new IllegalStateException("The measurement failed!");
+            }
+            System.out.printf("%-10s %s%n", mode, line);
+        }
+    }
+
+    /**
+     * Checks and measures the implementation selected in this virtual
+     * machine and prints the results on one line.
+     *
+     * @throws InterruptedException The search was interrupted.
+     */
+    private static void measure() throws InterruptedException {
+        Random random = new Random(42);
+        long[][] batches = new long[BATCHES][];
+        for (int i = 0; i < BATCHES; i++) {
+            batches[i] = randomBatch(random);
+        }
+
+        for (long[] batch : batches) {
+            int[] expected = new int[BATCH * (CONNECT - 1)];
+            for (int i = 0; i < BATCH; i++) {
+                int[] groups = new int[CONNECT - 1];
+                Bitboards.countGroups(batch[i], groups);
+                System.arraycopy(groups, 0, expected, i * (CONNECT - 1),
+                        CONNECT - 1);
+            }
+            int[] actual = new int[BATCH * (CONNECT - 1)];
+            Bitboards.countGroups(batch, BATCH, actual);
+            if (!Arrays.equals(expected, actual)) {
+                throw new AssertionError("Group counts differ: "
+                        + Arrays.toString(expected) + " != "
+                        + Arrays.toString(actual));
+            }
+        }
+
+        // warm up before measuring
+        measureBatches(batches);
+        double batch = measureBatches(batches);
+
+        Board[] positions = new Board[POSITIONS];
+        for (int i = 0; i < POSITIONS; i++) {
+            positions[i] = randomPosition(random);
+        }
+        search(positions);
+        long[] searched = search(positions);
+
+        System.out.printf("%-10s %16.2f %14d%n", Bitboards.batchCounter(),
+                batch, searched[0] * 1_000_000_000L / searched[1]);
+    }
+
+    /**
+     * Measures counting the groups of all batches.
+     *
+     * @param batches the batches of bitboards.
+     * @return the average time per bitboard in nanoseconds.
+     */
+    private static double measureBatches(long[][] batches) {
+        int[] groups = new int[BATCH * (CONNECT - 1)];
+        long start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            for (long[] batch : batches) {
+                Bitboards.countGroups(batch, BATCH, groups);
+            }
+        }
+        long time = System.nanoTime() - start;
+        if (groups[0] == Integer.MIN_VALUE) {
+            System.out.println(groups[0]);
+        }
+        return (double) time / ROUNDS / BATCHES / BATCH;
+    }
+
+    /**
+     * Searches all positions to the {@link BatchCountingBenchmark#LEVEL}.
+     *
+     * @param positions the positions to search.
+     * @return the number of nodes and the time in nanoseconds.
+     * @throws InterruptedException The search was interrupted.
+     */
+    private static long[] search(Board[] positions)
+            throws InterruptedException {
+        long[] total = new long[2];
+        for (Board position : positions) {
+            long start = System.nanoTime();
+            position.machineMove(SearchLimits.ofDepth(LEVEL),
+                    (SearchIteration iteration) ->
+                            total[0] += iteration.nodes());
+            total[1] += System.nanoTime() - start;
+        }
+        return total;
+    }
+
+    /**
+     * Creates the bitboards of both players after each move from a random
+     * position, like the search does for the children of a node.
+     *
+     * @param random the source of randomness.
+     * @return the batch of bitboards.
+     */
+    private static long[] randomBatch(Random random) {
+        long[] batch = new long[Bitboards.batchLength(BATCH)];
+        long[] bits = new long[2];
+        int[] heights = new int[COLS];
+        int tokens = random.nextInt(ROWS * COLS - COLS);
+        for (int i = 0; i < tokens; i++) {
+            int col;
+            do {
+                col = random.nextInt(COLS);
+            } while (heights[col] == ROWS);
+            bits[i % 2] |= 1L << Bitboards.bit(ROWS - 1 - heights[col]++,
+                    col);
+        }
+        for (int col = 0; col < COLS; col++) {
+            batch[2 * col] = bits[0];
+            batch[2 * col + 1] = bits[1];
+            if (heights[col] < ROWS) {
+                batch[2 * col + tokens % 2] |= 1L << Bitboards.bit(
+                        ROWS - 1 - heights[col], col);
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Plays a few random moves from the empty board, after which the
+     * machine is to move.
+     *
+     * @param random the source of randomness.
+     * @return the position.
+     */
+    private static Board randomPosition(Random random) {
+        int[] cols = random.ints(2 * (random.nextInt(3) + 1), 0, COLS)
+                .toArray();
+        try {
+            GameState position = GameState.fromMoves(Player.MACHINE, cols);
+            return position.isGameOver() ? randomPosition(random) : position;
+        } catch (RuntimeException e) {
+            return randomPosition(random);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package connectfour.bench;
+
+import connectfour.model.Board;
+import connectfour.model.Coordinates2D;
+import connectfour.model.GameState;
+import connectfour.model.SearchLimits;
+import connectfour.model.utility.ConnectFourUtility;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.IntFunction;
+
+/**
+ * Measures the allocations of coordinates.
+ * <p>
+ * The benchmark reports the bytes allocated per call of the coordinate
+ * factories, compared to allocating a new coordinate, measured by the
+ * allocation counter of the current thread. It then runs searches while
+ * Flight Recorder samples the allocations and reports the allocated bytes
+ * per search node and the sampled allocations of coordinates, which must be
+ * zero.
+ */
+public final class CoordinateAllocationBenchmark {
+
+    /**
+     * The number of measured calls per factory.
+     */
+    private static final int CALLS = 1_000_000;
+
+    /**
+     * The level of the measured searches.
+     */
+    private static final int LEVEL = 6;
+
+    /**
+     * The number of measured searches.
+     */
+    private static final int SEARCHES = 10;
+
+    /**
+     * Keeps the created coordinates reachable, so the allocations are not
+     * eliminated by the JIT compiler.
+     */
+    private static final Coordinates2D[] SINK = new Coordinates2D[1024];
+
+    /**
+     * Private constructor to ensure non-instantiability.
+     */
+    private CoordinateAllocationBenchmark() {
+        throw new AssertionError("Utility Class!");
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args the program arguments, which are ignored.
+     * @throws Exception If the search or the recording fails.
+     */
+    public static void main(String[] args) throws Exception {
+        // warm up all factories before measuring
+        for (int i = 0; i < 5; i++) {
+            measure(CoordinateAllocationBenchmark::allocate);
+            measure(CoordinateAllocationBenchmark::canonical);
+            measure(CoordinateAllocationBenchmark::converted);
+        }
+        System.out.printf("new Coordinates2D:  %6.2f bytes per call%n",
+                measure(CoordinateAllocationBenchmark::allocate));
+        System.out.printf("Coordinates2D.of:   %6.2f bytes per call%n",
+                measure(CoordinateAllocationBenchmark::canonical));
+        System.out.printf("convertCord:        %6.2f bytes per call%n",
+                measure(CoordinateAllocationBenchmark::converted));
+
+        measureSearch();
+    }
+
+    /**
+     * Measures the bytes allocated per call of the given factory.
+     *
+     * @param factory the factory creating a coordinate from a cell index.
+     * @return the average number of bytes allocated per call.
+     */
+    private static double measure(IntFunction<Coordinates2D> factory) {
+        long before = allocatedBytes();
+        for (int i = 0; i < CALLS; i++) {
+            SINK[i & (SINK.length - 1)]
+                    = factory.apply(i % Coordinates2D.CELLS);
+        }
+        return (double) (allocatedBytes() - before) / CALLS;
+    }
+
+    /**
+     * Runs searches while Flight Recorder samples the allocations.
+     *
+     * @throws IOException          If the recording cannot be written.
+     * @throws InterruptedException The search was interrupted.
+     */
+    private static void measureSearch()
+            throws IOException, InterruptedException {
+        Board board = new GameState();
+        board.setLevel(LEVEL);
+        long[] nodes = new long[1];
+        board.machineMove(SearchLimits.DEFAULT, iteration -> { });
+
+        Path file = Files.createTempFile("allocations", ".jfr");
+        long allocated;
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.ObjectAllocationInNewTLAB");
+            recording.enable("jdk.ObjectAllocationOutsideTLAB");
+            recording.start();
+            long before = allocatedBytes();
+            for (int i = 0; i < SEARCHES; i++) {
+                board.machineMove(SearchLimits.ofDepth(LEVEL),
+                        iteration -> nodes[0] += iteration.nodes());
+            }
+            allocated = allocatedBytes() - before;
+            recording.stop();
+            recording.dump(file);
+        }
+
+        long samples = 0;
+        long coordinateSamples = 0;
+        for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+            samples++;
+            String type = event.getClass("objectClass").getName();
+            if (type.equals(Coordinates2D.class.getName())) {
+                coordinateSamples++;
+            }
+        }
+        Files.deleteIfExists(file);
+
+        System.out.printf("Search:             %6.2f bytes per node%n",
+                (double) allocated / nodes[0]);
+        System.out.println("Sampled allocations: " + samples
+                + ", of coordinates: " + coordinateSamples);
+        if (coordinateSamples > 0) {
+            throw new AssertionError("The search allocates coordinates!");
+        }
+    }
+
+    /**
+     * Creates a new coordinate.
+     *
+     * @param index the cell index.
+     * @return the coordinate.
+     */
+    private static Coordinates2D allocate(int index) {
+        return new Coordinates2D(index / Board.COLS, index % Board.COLS);
+    }
+
+    /**
+     * Gets the canonical coordinate.
+     *
+     * @param index the cell index.
+     * @return the coordinate.
+     */
+    private static Coordinates2D canonical(int index) {
+        return Coordinates2D.of(index / Board.COLS, index % Board.COLS);
+    }
+
+    /**
+     * Gets the canonical coordinate converted to start from 1.
+     *
+     * @param index the cell index.
+     * @return the coordinate.
+     */
+    private static Coordinates2D converted(int index) {
+        return ConnectFourUtility.convertCord(Coordinates2D.ofIndex(index));
+    }
+
+    /**
+     * @return the number of bytes allocated by the current thread so far.
+     */
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean)
+                ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
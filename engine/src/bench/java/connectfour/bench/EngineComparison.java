@@ -0,0 +1,336 @@
+package connectfour.bench;
+
+import connectfour.engine.Engine;
+import connectfour.engine.Engines;
+import connectfour.engine.Position;
+import connectfour.engine.ProofNumberSearch;
+import connectfour.engine.ProofResult;
+import connectfour.model.GameState;
+import connectfour.model.Player;
+import connectfour.model.SearchLimits;
+import connectfour.model.utility.Bitboards;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static connectfour.model.Board.COLS;
+
+/**
+ * Compares two {@link Engine}s, found by their names with {@link Engines},
+ * on throughput and move quality at the same level.
+ * <p>
+ * The benchmark reports, for each engine:
+ * <ul>
+ *     <li>the median and mean time of a move on positions of random games
+ *         from the opening to the late middle game,</li>
+ *     <li>the share of late positions, in which it plays a move of the best
+ *         value, where the value of every move, win, draw or loss, is proven
+ *         by a {@link ProofNumberSearch}. Only positions whose moves differ
+ *         in value are counted,</li>
+ *     <li>the result of a match between both engines from random openings of
+ *         two moves, with alternating first player.</li>
+ * </ul>
+ * All random positions are derived from fixed seeds, so every run compares
+ * the engines on the same positions.
+ * <p>
+ * Usage: {@code EngineComparison [engine engine [level [games]]]}, which
+ * defaults to {@code minimax mcts 4 20}.
+ */
+public final class EngineComparison {
+
+    /**
+     * The number of positions timed per engine.
+     */
+    private static final int TIMED_POSITIONS = 60;
+
+    /**
+     * The number of late positions, whose moves are proven.
+     */
+    private static final int PROVEN_POSITIONS = 60;
+
+    /**
+     * The number of tokens of the late positions.
+     */
+    private static final int LATE_TOKENS = 26;
+
+    /**
+     * The memory of each proof in bytes.
+     */
+    private static final long PROOF_MEMORY = 64L << 20;
+
+    /**
+     * The results of a move or game.
+     */
+    private static final int LOSS = 0;
+    private static final int DRAW = 1;
+    private static final int WIN = 2;
+
+    /**
+     * The value of a move, which could not be proven.
+     */
+    private static final int UNPROVEN = -1;
+
+    /**
+     * The value of a move into a full column.
+     */
+    private static final int FULL = -2;
+
+    /**
+     * Private constructor to ensure non-instantiability.
+     */
+    private EngineComparison() {
+        throw new AssertionError("Utility Class!");
+    }
+
+    /**
+     * Runs the comparison.
+     *
+     * @param args the names of both engines, the level and the number of
+     *             games of the match.
+     * @throws InterruptedException The comparison was interrupted.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        Engine[] engines = {
+                Engines.byName(args.length > 0 ? args[0] : "minimax"),
+                Engines.byName(args.length > 1 ? args[1] : "mcts")};
+        int level = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        int games = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+        System.out.println("Comparing " + engines[0].name() + " and "
+                + engines[1].name() + " at level " + level
+                + ", engines available: " + Engines.names());
+
+        List<int[]> timed = randomPositions(new Random(1), TIMED_POSITIONS,
+                0, 30);
+        System.out.printf("%-10s %12s %12s %12s%n", "engine", "median ms",
+                "mean ms", "moves/s");
+        for (Engine engine : engines) {
+            // the first pass compiles the search
+            time(engine, timed, level);
+            long[] times = time(engine, timed, level);
+            double mean = Arrays.stream(times).average().orElse(0) / 1e6;
+            Arrays.sort(times);
+            System.out.printf("%-10s %12.2f %12.2f %12.1f%n", engine.name(),
+                    times[times.length / 2] / 1e6, mean, 1e3 / mean);
+        }
+
+        List<int[]> late = randomPositions(new Random(2), PROVEN_POSITIONS,
+                LATE_TOKENS, LATE_TOKENS);
+        int[] best = new int[engines.length];
+        int critical = 0;
+        for (int[] moves : late) {
+            int[] values = moveValues(moves);
+            int bestValue = Arrays.stream(values).max().orElse(-1);
+            if (Arrays.stream(values).anyMatch(value -> value == UNPROVEN)
+                    || Arrays.stream(values).filter(value -> value != FULL)
+                    .allMatch(value -> value == bestValue)) {
+                // unproven, or every move is as good as any other
+                continue;
+            }
+            critical++;
+            for (int i = 0; i < engines.length; i++) {
+                int col = bestMove(engines[i], moves, level);
+                if (values[col] == bestValue) {
+                    best[i]++;
+                }
+            }
+        }
+        System.out.printf("%-10s %12s %12s%n", "engine", "best moves",
+                "positions");
+        for (int i = 0; i < engines.length; i++) {
+            System.out.printf("%-10s %11.0f%% %12d%n", engines[i].name(),
+                    critical == 0 ? 0 : 100.0 * best[i] / critical,
+                    critical);
+        }
+
+        int[] results = new int[3];
+        Random random = new Random(3);
+        for (int game = 0; game < games; game++) {
+            int[] opening = {random.nextInt(COLS), random.nextInt(COLS)};
+            results[play(engines, game % 2, opening, level)]++;
+        }
+        System.out.printf("%s against %s: %d wins, %d draws, %d losses%n",
+                engines[0].name(), engines[1].name(), results[WIN],
+                results[DRAW], results[LOSS]);
+    }
+
+    /**
+     * Measures the time of the moves of an engine.
+     *
+     * @param engine    the engine.
+     * @param positions the positions, each given by the columns of its
+     *                  moves.
+     * @param level     the level.
+     * @return the time of each move in nanoseconds.
+     * @throws InterruptedException The comparison was interrupted.
+     */
+    private static long[] time(Engine engine, List<int[]> positions,
+                               int level) throws InterruptedException {
+        long[] times = new long[positions.size()];
+        for (int i = 0; i < times.length; i++) {
+            long start = System.nanoTime();
+            bestMove(engine, positions.get(i), level);
+            times[i] = System.nanoTime() - start;
+        }
+        return times;
+    }
+
+    /**
+     * Lets an engine search the move of the player to move.
+     *
+     * @param engine the engine.
+     * @param moves  the columns of the moves of the position.
+     * @param level  the level.
+     * @return the column of the move.
+     * @throws InterruptedException The comparison was interrupted.
+     */
+    private static int bestMove(Engine engine, int[] moves, int level)
+            throws InterruptedException {
+        long[] bits = bitboards(moves);
+        return engine.bestMove(new Position(bits[0], bits[1], level),
+                SearchLimits.DEFAULT, null);
+    }
+
+    /**
+     * Proves the value of every move of the player to move.
+     *
+     * @param moves the columns of the moves of the position.
+     * @return the value of the move into each column, {@code WIN},
+     * {@code DRAW} or {@code LOSS}, {@code UNPROVEN} or {@code FULL}.
+     * @throws InterruptedException The comparison was interrupted.
+     */
+    private static int[] moveValues(int[] moves) throws InterruptedException {
+        long[] bits = bitboards(moves);
+        Player mover = moves.length % 2 == 0 ? Player.HUMAN : Player.MACHINE;
+        int[] values = new int[COLS];
+        for (int col = 0; col < COLS; col++) {
+            long drop = Bitboards.dropBit(bits[0] | bits[1], col);
+            if (drop == 0) {
+                values[col] = FULL;
+                continue;
+            } else if (Bitboards.hasWon(bits[0] | drop)) {
+                values[col] = WIN;
+                continue;
+            }
+            int[] child = Arrays.copyOf(moves, moves.length + 1);
+            child[moves.length] = col;
+            GameState board = GameState.fromMoves(Player.HUMAN, child);
+            if (board.isGameOver()) {
+                values[col] = DRAW;
+            } else if (prove(board, mover) == ProofResult.Outcome.WIN) {
+                values[col] = WIN;
+            } else {
+                ProofResult.Outcome loss
+                        = prove(board, Player.oppositePlayer(mover));
+                values[col] = loss == ProofResult.Outcome.WIN ? LOSS
+                        : loss == ProofResult.Outcome.NO_WIN ? DRAW : UNPROVEN;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Proves or disproves a forced win.
+     *
+     * @param board    the position.
+     * @param attacker the player, whose win is to be proven.
+     * @return the outcome.
+     * @throws InterruptedException The comparison was interrupted.
+     */
+    private static ProofResult.Outcome prove(GameState board, Player attacker)
+            throws InterruptedException {
+        return new ProofNumberSearch(PROOF_MEMORY).prove(board, attacker)
+                .outcome();
+    }
+
+    /**
+     * Plays a game between both engines.
+     *
+     * @param engines the engines.
+     * @param first   the index of the engine making the first move after
+     *                the opening.
+     * @param opening the columns of the first moves.
+     * @param level   the level of both engines.
+     * @return the result for the first engine.
+     * @throws InterruptedException The comparison was interrupted.
+     */
+    private static int play(Engine[] engines, int first, int[] opening,
+                            int level) throws InterruptedException {
+        long[] bits = bitboards(opening);
+        long mover = bits[0];
+        long opponent = bits[1];
+        int turn = first;
+        while (Long.bitCount(mover | opponent) < Long.bitCount(
+                Bitboards.columnMask(0)) * COLS) {
+            int col = engines[turn].bestMove(
+                    new Position(mover, opponent, level),
+                    SearchLimits.DEFAULT, null);
+            long moved = mover | Bitboards.dropBit(mover | opponent, col);
+            if (Bitboards.hasWon(moved)) {
+                return turn == 0 ? WIN : LOSS;
+            }
+            mover = opponent;
+            opponent = moved;
+            turn = 1 - turn;
+        }
+        return DRAW;
+    }
+
+    /**
+     * Creates random positions, whose game is not over and in which the
+     * player to move has no immediate win.
+     *
+     * @param random    the source of randomness.
+     * @param count     the number of positions.
+     * @param minTokens the minimum number of tokens.
+     * @param maxTokens the maximum number of tokens.
+     * @return the positions, each given by the columns of its moves.
+     */
+    private static List<int[]> randomPositions(Random random, int count,
+                                               int minTokens,
+                                               int maxTokens) {
+        List<int[]> positions = new ArrayList<>(count);
+        while (positions.size() < count) {
+            int tokens = minTokens
+                    + random.nextInt(maxTokens - minTokens + 1);
+            int[] moves = new int[tokens];
+            long mover = 0;
+            long opponent = 0;
+            boolean valid = true;
+            for (int i = 0; i < tokens && valid; i++) {
+                moves[i] = random.nextInt(COLS);
+                long drop = Bitboards.dropBit(mover | opponent, moves[i]);
+                long moved = mover | drop;
+                valid = drop != 0 && !Bitboards.hasWon(moved);
+                mover = opponent;
+                opponent = moved;
+            }
+            for (int col = 0; col < COLS && valid; col++) {
+                long drop = Bitboards.dropBit(mover | opponent, col);
+                valid = drop == 0 || !Bitboards.hasWon(mover | drop);
+            }
+            if (valid) {
+                positions.add(moves);
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Makes the given moves on an empty board.
+     *
+     * @param moves the columns of the moves.
+     * @return the tokens of the player to move and of the other player.
+     */
+    private static long[] bitboards(int[] moves) {
+        long mover = 0;
+        long opponent = 0;
+        for (int col : moves) {
+            long moved = mover | Bitboards.dropBit(mover | opponent, col);
+            mover = opponent;
+            opponent = moved;
+        }
+        return new long[]{mover, opponent};
+    }
+}
@@ -0,0 +1,191 @@
+package connectfour.bench;
+
+import connectfour.model.Player;
+import connectfour.model.utility.Bitboards;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static connectfour.model.Board.COLS;
+import static connectfour.model.Board.CONNECT;
+import static connectfour.model.Board.ROWS;
+
+/**
+ * Compares counting the groups with {@link Bitboards} against the
+ * {@link LegacyGroupCounter}.
+ * <p>
+ * Both implementations count the groups of the same random positions. The
+ * benchmark fails if they disagree on any position, then reports the time
+ * per position of each implementation.
+ */
+public final class GroupCountingBenchmark {
+
+    /**
+     * The number of random positions.
+     */
+    private static final int POSITIONS = 10_000;
+
+    /**
+     * The number of measured rounds over all positions.
+     */
+    private static final int ROUNDS = 50;
+
+    /**
+     * Private constructor to ensure non-instantiability.
+     */
+    private GroupCountingBenchmark() {
+        throw new AssertionError("Utility Class!");
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args the program arguments, which are ignored.
+     */
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        Player[][][] boards = new Player[POSITIONS][][];
+        long[][] bitboards = new long[POSITIONS][];
+        for (int i = 0; i < POSITIONS; i++) {
+            boards[i] = randomBoard(random, random.nextInt(ROWS * COLS + 1));
+            bitboards[i] = toBitboards(boards[i]);
+        }
+
+        for (int i = 0; i < POSITIONS; i++) {
+            int[] expected = new LegacyGroupCounter(boards[i]).countGroups();
+            int[] actual = countWithBitboards(bitboards[i]);
+            if (!Arrays.equals(expected, actual)) {
+                throw new AssertionError("Group counts differ for position "
+                        + i + ": " + Arrays.toString(expected) + " != "
+                        + Arrays.toString(actual));
+            }
+        }
+        System.out.println("Both implementations agree on " + POSITIONS
+                + " positions.");
+
+        // warm up both implementations before measuring
+        measureLegacy(boards, ROUNDS);
+        measureBitboards(bitboards, ROUNDS);
+        double legacy = measureLegacy(boards, ROUNDS);
+        double bitboard = measureBitboards(bitboards, ROUNDS);
+        System.out.printf("Traversal: %8.1f ns per position%n", legacy);
+        System.out.printf("Bitboards: %8.1f ns per position%n", bitboard);
+        System.out.printf("Speedup:   %8.1fx%n", legacy / bitboard);
+    }
+
+    /**
+     * Measures the {@link LegacyGroupCounter}.
+     *
+     * @param boards the positions.
+     * @param rounds the number of rounds over all positions.
+     * @return the average time per position in nanoseconds.
+     */
+    private static double measureLegacy(Player[][][] boards, int rounds) {
+        LegacyGroupCounter[] counters = new LegacyGroupCounter[boards.length];
+        for (int i = 0; i < boards.length; i++) {
+            counters[i] = new LegacyGroupCounter(boards[i]);
+        }
+        long checksum = 0;
+        long start = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            for (LegacyGroupCounter counter : counters) {
+                checksum += counter.countGroups()[CONNECT - 2];
+            }
+        }
+        long time = System.nanoTime() - start;
+        consume(checksum);
+        return (double) time / rounds / boards.length;
+    }
+
+    /**
+     * Measures the group counting of {@link Bitboards}.
+     *
+     * @param bitboards the positions.
+     * @param rounds    the number of rounds over all positions.
+     * @return the average time per position in nanoseconds.
+     */
+    private static double measureBitboards(long[][] bitboards, int rounds) {
+        long checksum = 0;
+        long start = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            for (long[] bits : bitboards) {
+                checksum += countWithBitboards(bits)[CONNECT - 2];
+            }
+        }
+        long time = System.nanoTime() - start;
+        consume(checksum);
+        return (double) time / rounds / bitboards.length;
+    }
+
+    /**
+     * Counts the groups of both players with {@link Bitboards}.
+     *
+     * @param bits the bitboards of the human and the machine.
+     * @return the counts of the human followed by the counts of the machine.
+     */
+    private static int[] countWithBitboards(long[] bits) {
+        int[] humanGroups = new int[CONNECT - 1];
+        int[] machineGroups = new int[CONNECT - 1];
+        Bitboards.countGroups(bits[0], humanGroups);
+        Bitboards.countGroups(bits[1], machineGroups);
+        int[] result = Arrays.copyOf(humanGroups, 2 * (CONNECT - 1));
+        System.arraycopy(machineGroups, 0, result, CONNECT - 1,
+                CONNECT - 1);
+        return result;
+    }
+
+    /**
+     * Creates a board by dropping tokens of alternating players into random
+     * columns.
+     *
+     * @param random the source of randomness.
+     * @param tokens the number of tokens to drop.
+     * @return the board, where (0,0) is the top left corner.
+     */
+    private static Player[][] randomBoard(Random random, int tokens) {
+        Player[][] board = new Player[ROWS][COLS];
+        Arrays.stream(board).forEach(row -> Arrays.fill(row, Player.TIE));
+        int[] heights = new int[COLS];
+        Player player = Player.HUMAN;
+        for (int i = 0; i < tokens; i++) {
+            int col;
+            do {
+                col = random.nextInt(COLS);
+            } while (heights[col] == ROWS);
+            board[ROWS - 1 - heights[col]++][col] = player;
+            player = Player.oppositePlayer(player);
+        }
+        return board;
+    }
+
+    /**
+     * Converts a board into the bitboards of both players.
+     *
+     * @param board the board, where (0,0) is the top left corner.
+     * @return the bitboards of the human and the machine.
+     */
+    private static long[] toBitboards(Player[][] board) {
+        long[] bits = new long[2];
+        for (int row = 0; row < ROWS; row++) {
+            for (int col = 0; col < COLS; col++) {
+                if (board[row][col] == Player.HUMAN) {
+                    bits[0] |= 1L << Bitboards.bit(row, col);
+                } else if (board[row][col] == Player.MACHINE) {
+                    bits[1] |= 1L << Bitboards.bit(row, col);
+                }
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Prevents the compiler from eliminating the measured work.
+     *
+     * @param checksum the result of the measured work.
+     */
+    private static void consume(long checksum) {
+        if (checksum == Long.MIN_VALUE) {
+            System.out.println(checksum);
+        }
+    }
+}
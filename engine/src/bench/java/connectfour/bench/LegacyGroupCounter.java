@@ -0,0 +1,163 @@
+package connectfour.bench;
+
+import connectfour.model.Player;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static connectfour.model.Board.COLS;
+import static connectfour.model.Board.CONNECT;
+import static connectfour.model.Board.ROWS;
+
+/**
+ * The traversal of the board, which counted the groups of both players
+ * before {@link connectfour.model.utility.Bitboards} was introduced. It walks
+ * every line of the board step by step from a set of start coordinates.
+ * <p>
+ * Kept as reference for {@link GroupCountingBenchmark}.
+ */
+final class LegacyGroupCounter {
+
+    /**
+     * Contains the starting coordinates used to calculate the groups, as
+     * pairs of row and column.
+     */
+    private static final int[][] START_COORDINATES
+            = calculateAllStartCoordinates();
+
+    /**
+     * Direction vectors representing different directions to traverse the
+     * board when calculating groups, as pairs of row and column increments.
+     */
+    private static final int[][] DIRECTION_VECTORS = {
+            {1, 0}, // vertical
+            {0, 1}, // horizontal
+            {-1, 1}, // left down to right up
+            {1, 1} // left up to right down
+    };
+
+    /**
+     * The board, whose groups are counted.
+     */
+    private final Player[][] board;
+
+    /**
+     * The counts of groups of both players.
+     */
+    private final int[] humanGroups = new int[CONNECT - 1];
+    private final int[] machineGroups = new int[CONNECT - 1];
+
+    /**
+     * Constructs a new LegacyGroupCounter for the given board.
+     *
+     * @param board the board, where (0,0) is the top left corner.
+     */
+    LegacyGroupCounter(Player[][] board) {
+        this.board = board;
+    }
+
+    /**
+     * Counts the groups of both players.
+     *
+     * @return the counts of the human followed by the counts of the machine.
+     */
+    int[] countGroups() {
+        Arrays.fill(humanGroups, 0);
+        Arrays.fill(machineGroups, 0);
+
+        int diagCount = ROWS + COLS - 1;
+        for (int i = 0; i < START_COORDINATES.length; i++) {
+            if (i <= diagCount) {
+                calcGroupsInLine(START_COORDINATES[i], DIRECTION_VECTORS[2]);
+            }
+            if (i >= COLS - 1 && i <= diagCount) {
+                calcGroupsInLine(START_COORDINATES[i], DIRECTION_VECTORS[1]);
+            }
+            if (i >= COLS - 1) {
+                calcGroupsInLine(START_COORDINATES[i], DIRECTION_VECTORS[3]);
+            }
+            if (i >= diagCount - 1) {
+                calcGroupsInLine(START_COORDINATES[i], DIRECTION_VECTORS[0]);
+            }
+        }
+
+        int[] result = Arrays.copyOf(humanGroups, 2 * (CONNECT - 1));
+        System.arraycopy(machineGroups, 0, result, CONNECT - 1,
+                CONNECT - 1);
+        return result;
+    }
+
+    /**
+     * Calculates the groups of both players in a given line.
+     *
+     * @param start the start coordinate.
+     * @param incr  the direction vector.
+     */
+    private void calcGroupsInLine(int[] start, int[] incr) {
+        int count = 0;
+        int row = start[0];
+        int col = start[1];
+        Player prevPlayer = board[row][col];
+
+        while (row <= ROWS - 1 && row >= 0 && col <= COLS - 1 && col >= 0) {
+            if (board[row][col] == Player.TIE) {
+                increaseGroupCount(count, prevPlayer);
+                count = 1;
+            } else if (board[row][col] == prevPlayer) {
+                count++;
+            } else {
+                increaseGroupCount(count, prevPlayer);
+                count = 1;
+            }
+
+            if (count >= CONNECT) {
+                increaseGroupCount(count, prevPlayer);
+                count = 0;
+            }
+
+            prevPlayer = board[row][col];
+            row += incr[0];
+            col += incr[1];
+        }
+        increaseGroupCount(count, prevPlayer);
+    }
+
+    /**
+     * Increases the count of groups of the given size by one.
+     *
+     * @param count  the size of the group.
+     * @param player the player whose group it is.
+     */
+    private void increaseGroupCount(int count, Player player) {
+        if (count == 0 || count == 1) {
+            return;
+        }
+        int index = Math.min(CONNECT - 2, count - 2);
+        if (player == Player.HUMAN) {
+            humanGroups[index]++;
+        } else if (player == Player.MACHINE) {
+            machineGroups[index]++;
+        }
+    }
+
+    /**
+     * Calculates the starting coordinates needed to count the groups.
+     *
+     * @return array containing all starting coordinates.
+     */
+    private static int[][] calculateAllStartCoordinates() {
+        int diagCount = ROWS + COLS - 1;
+        List<int[]> startCoordinates = new ArrayList<>();
+
+        for (int diag = 0; diag < diagCount; diag++) {
+            int row = Math.max(ROWS - 1 - diag, 0);
+            int col = Math.max(diag - ROWS + 1, 0);
+            startCoordinates.add(new int[]{row, col});
+        }
+        for (int i = 1; i < COLS; i++) {
+            startCoordinates.add(0, new int[]{ROWS - 1, i});
+        }
+        return startCoordinates.toArray(int[][]::new);
+    }
+}
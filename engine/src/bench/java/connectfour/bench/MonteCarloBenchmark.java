@@ -0,0 +1,111 @@
+package connectfour.bench;
+
+import connectfour.engine.MonteCarloSearch;
+import connectfour.model.SearchLimits;
+import connectfour.model.utility.Bitboards;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Measures how the playouts of the {@link MonteCarloSearch} scale with the
+ * number of threads under a fixed time budget.
+ * <p>
+ * Every position is searched for {@link MonteCarloBenchmark#BUDGET} with 1,
+ * 2, 4, ... threads, up to the number of available processors, which is
+ * the most a search is granted. The benchmark reports the median number of
+ * playouts per second and the speed-up over a single thread.
+ */
+public final class MonteCarloBenchmark {
+
+    /**
+     * The time of every search.
+     */
+    private static final Duration BUDGET = Duration.ofMillis(500);
+
+    /**
+     * The positions, each given by the columns of its moves, starting from
+     * 0.
+     */
+    private static final int[][] POSITIONS = {
+            {},
+            {3, 3, 2, 4},
+            {3, 3, 4, 2, 2, 4, 1, 5, 3, 3, 0, 6},
+    };
+
+    /**
+     * The number of measured searches per position and number of threads.
+     */
+    private static final int RUNS = 5;
+
+    /**
+     * Private constructor to ensure non-instantiability.
+     */
+    private MonteCarloBenchmark() {
+        throw new AssertionError("Utility Class!");
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args ignored.
+     * @throws InterruptedException The benchmark was interrupted.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int processors = Runtime.getRuntime().availableProcessors();
+        System.out.println(processors + " available processors, "
+                + BUDGET.toMillis() + " ms per search");
+        System.out.printf("%-10s %8s %16s %10s %12s%n", "position",
+                "threads", "playouts/s", "speed-up", "tree nodes");
+        SearchLimits limits = SearchLimits.DEFAULT.withTimeout(BUDGET);
+        for (int[] moves : POSITIONS) {
+            long[] bits = position(moves);
+            // the first searches compile the playouts
+            for (int i = 0; i < 3; i++) {
+                new MonteCarloSearch(limits, 1, processors)
+                        .search(bits[0], bits[1], null);
+            }
+
+            double single = 0;
+            for (int threads = 1; threads <= processors; threads *= 2) {
+                double[] rates = new double[RUNS];
+                int[] nodes = new int[RUNS];
+                for (int run = 0; run < RUNS; run++) {
+                    MonteCarloSearch search
+                            = new MonteCarloSearch(limits, 1, threads);
+                    long start = System.nanoTime();
+                    search.search(bits[0], bits[1], null);
+                    rates[run] = search.getPlayouts() * 1e9
+                            / (System.nanoTime() - start);
+                    nodes[run] = search.getNodes();
+                }
+                Arrays.sort(rates);
+                Arrays.sort(nodes);
+                double rate = rates[RUNS / 2];
+                if (threads == 1) {
+                    single = rate;
+                }
+                System.out.printf("%-10s %8d %16.0f %10.2f %12d%n",
+                        moves.length + " moves", threads, rate,
+                        rate / single, nodes[RUNS / 2]);
+            }
+        }
+    }
+
+    /**
+     * Makes the given moves on an empty board.
+     *
+     * @param moves the columns of the moves.
+     * @return the tokens of the player to move and of the other player.
+     */
+    private static long[] position(int[] moves) {
+        long mover = 0;
+        long opponent = 0;
+        for (int col : moves) {
+            long moved = mover | Bitboards.dropBit(mover | opponent, col);
+            mover = opponent;
+            opponent = moved;
+        }
+        return new long[]{mover, opponent};
+    }
+}
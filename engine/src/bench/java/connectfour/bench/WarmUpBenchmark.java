@@ -0,0 +1,134 @@
+package connectfour.bench;
+
+import connectfour.engine.EngineService;
+import connectfour.model.Board;
+import connectfour.model.GameState;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Measures the latency of the first machine moves with and without the
+ * warm-up of the {@link EngineService}.
+ * <p>
+ * Every measurement runs in a new virtual machine, which starts the
+ * warm-up or not, waits for the time the window needs to be shown and the
+ * human needs for the first move, and then lets the shared service answer
+ * the human's first and second move. The benchmark reports the median
+ * latencies of both moves.
+ */
+public final class WarmUpBenchmark {
+
+    /**
+     * The time between the start and the first move of the human.
+     */
+    private static final Duration THINK_TIME = Duration.ofSeconds(1);
+
+    /**
+     * The columns of the human's moves.
+     */
+    private static final int[] HUMAN_MOVES = {3, 2};
+
+    /**
+     * The number of virtual machines started per configuration.
+     */
+    private static final int RUNS = 9;
+
+    /**
+     * Private constructor to ensure non-instantiability.
+     */
+    private WarmUpBenchmark() {
+        throw new AssertionError("Utility Class!");
+    }
+
+    /**
+     * Runs the benchmark, or one measurement with the arguments
+     * {@code --measure warmUpMillis}.
+     *
+     * @param args the program arguments.
+     * @throws Exception If a virtual machine cannot be started or fails.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length == 2 && args[0].equals("--measure")) {
+            measure(Long.parseLong(args[1]));
+            return;
+        }
+
+        System.out.printf("%-10s %14s %14s%n", "warm-up",
+                "first move ms", "second move ms");
+        long[] warmUps = {0, EngineService.DEFAULT_WARM_UP.toMillis()};
+        for (long warmUp : warmUps) {
+            long[][] latencies = new long[HUMAN_MOVES.length][RUNS];
+            for (int run = 0; run < RUNS; run++) {
+                long[] measured = launch(warmUp);
+                for (int move = 0; move < latencies.length; move++) {
+                    latencies[move][run] = measured[move];
+                }
+            }
+            for (long[] latency : latencies) {
+                Arrays.sort(latency);
+            }
+            System.out.printf("%-10s %14.1f %14.1f%n", warmUp + " ms",
+                    latencies[0][RUNS / 2] / 1e6,
+                    latencies[1][RUNS / 2] / 1e6);
+        }
+    }
+
+    /**
+     * Runs one measurement in a new virtual machine.
+     *
+     * @param warmUp the duration of the warm-up in milliseconds.
+     * @return the latencies of the machine moves in nanoseconds.
+     * @throws Exception If the virtual machine cannot be started or fails.
+     */
+    private static long[] launch(long warmUp) throws Exception {
+        Process process = new ProcessBuilder(List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java")
+                        .toString(),
+                "-cp", System.getProperty("java.class.path"),
+                WarmUpBenchmark.class.getName(), "--measure",
+                Long.toString(warmUp)))
+                .redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        String line;
+        try (BufferedReader out = new BufferedReader(new InputStreamReader(
+                process.getInputStream(), StandardCharsets.UTF_8))) {
+            line = out.readLine();
+        }
+        if (process.waitFor() != 0 || line == null) {
+            throw new IllegalStateException("The measurement failed!");
+        }
+        return Arrays.stream(line.split(" ")).mapToLong(Long::parseLong)
+                .toArray();
+    }
+
+    /**
+     * Measures the latencies of the machine moves in this virtual machine
+     * and prints them in nanoseconds on one line.
+     *
+     * @param warmUp the duration of the warm-up in milliseconds.
+     * @throws Exception If a search fails.
+     */
+    private static void measure(long warmUp) throws Exception {
+        EngineService engine = EngineService.shared();
+        if (warmUp > 0) {
+            engine.warmUp(Duration.ofMillis(warmUp));
+        }
+        Thread.sleep(THINK_TIME.toMillis());
+
+        Board position = new GameState();
+        StringBuilder latencies = new StringBuilder();
+        for (int col : HUMAN_MOVES) {
+            position = position.move(col);
+            long start = System.nanoTime();
+            position = engine.submit(position).get();
+            latencies.append(latencies.length() == 0 ? "" : " ")
+                    .append(System.nanoTime() - start);
+        }
+        System.out.println(latencies);
+    }
+}
@@ -0,0 +1,191 @@
+package connectfour.engine;
+
+import connectfour.model.Board;
+import connectfour.model.GameState;
+import connectfour.model.Player;
+import connectfour.model.SearchIteration;
+import connectfour.model.SearchLimits;
+import connectfour.model.utility.Bitboards;
+
+import java.util.Random;
+
+/**
+ * Measures the speed of the search on this machine, which maps the
+ * difficulty levels onto budgets, see {@link DifficultyProfile}.
+ * <p>
+ * The speed can be configured by the system property
+ * {@link Calibration#RATE_PROPERTY} to skip the measurement.
+ */
+public final class Calibration {
+
+    /**
+     * The system property containing the number of nodes this machine
+     * searches per second.
+     */
+    public static final String RATE_PROPERTY = "connectfour.engine.rate";
+
+    /**
+     * The depth of the measured searches.
+     */
+    private static final int DEPTH = 6;
+
+    /**
+     * The number of measured positions.
+     */
+    private static final int POSITIONS = 8;
+
+    /**
+     * The number of random moves played to reach a measured position.
+     */
+    private static final int MOVES = 6;
+
+    /**
+     * Private constructor to ensure non-instantiability.
+     */
+    private Calibration() {
+        throw new AssertionError("Utility Class!");
+    }
+
+    /**
+     * Gets the speed of the search, either configured by
+     * {@link Calibration#RATE_PROPERTY} or measured.
+     *
+     * @return the number of nodes searched per second.
+     * @throws InterruptedException The measurement was interrupted.
+     */
+    public static long nodesPerSecond() throws InterruptedException {
+        Long configured = Long.getLong(RATE_PROPERTY);
+        if (configured != null && configured > 0) {
+            return configured;
+        }
+        return measureNodesPerSecond();
+    }
+
+    /**
+     * Measures the speed of the search by searching a few positions, after
+     * searching them once to warm up the JIT compiler. The positions are
+     * searched by a {@link MinimaxEngine} directly, whatever the engine of
+     * new games is, and without looking them up in the endgame database.
+     *
+     * @return the number of nodes searched per second.
+     * @throws InterruptedException  The measurement was interrupted.
+     * @throws IllegalStateException The search reported no nodes.
+     */
+    public static long measureNodesPerSecond() throws InterruptedException {
+        Position[] positions = new Position[POSITIONS];
+        Random random = new Random(POSITIONS);
+        for (int i = 0; i < POSITIONS; i++) {
+            positions[i] = toPosition(randomPosition(random));
+        }
+
+        search(positions);
+        long[] measured = search(positions);
+        if (measured[0] == 0) {
+            throw new IllegalStateException(
+                    "The search reported no nodes to measure!");
+        }
+        return measured[0] * 1_000_000_000L / Math.max(1, measured[1]);
+    }
+
+    /**
+     * Creates the profiles of all levels for this machine.
+     *
+     * @param nodesPerSecond the number of nodes searched per second.
+     * @return the profile of each level, starting with level 1.
+     */
+    public static DifficultyProfile[] profiles(long nodesPerSecond) {
+        DifficultyProfile[] profiles
+                = new DifficultyProfile[GameState.MAX_LEVEL];
+        for (int level = 1; level <= GameState.MAX_LEVEL; level++) {
+            profiles[level - 1] = DifficultyProfile.of(level, nodesPerSecond);
+        }
+        return profiles;
+    }
+
+    /**
+     * Gets the profiles of all levels for the speed configured by
+     * {@link Calibration#RATE_PROPERTY}, without measuring it.
+     *
+     * @return the profile of each level, starting with level 1, or
+     * {@code null} if no positive speed is configured.
+     */
+    public static DifficultyProfile[] configuredProfiles() {
+        Long configured = Long.getLong(RATE_PROPERTY);
+        return configured != null && configured > 0
+                ? profiles(configured) : null;
+    }
+
+    /**
+     * Searches all positions to the {@link Calibration#DEPTH}.
+     *
+     * @param positions the positions to search.
+     * @return the number of nodes and the time in nanoseconds.
+     * @throws InterruptedException The search was interrupted.
+     */
+    private static long[] search(Position[] positions)
+            throws InterruptedException {
+        MinimaxEngine engine = new MinimaxEngine();
+        long[] total = new long[2];
+        for (Position position : positions) {
+            long[] last = new long[2];
+            engine.search(position, SearchLimits.ofDepth(DEPTH),
+                    (SearchIteration iteration) -> {
+                        total[0] += iteration.nodes();
+                        last[1] = iteration.elapsedNanos();
+                    });
+            total[1] += last[1];
+        }
+        return total;
+    }
+
+    /**
+     * Converts a board, on which the machine is to move, into the position
+     * searched by an engine.
+     *
+     * @param board the board.
+     * @return the position of the machine.
+     */
+    private static Position toPosition(Board board) {
+        long machine = 0;
+        long human = 0;
+        for (int row = 0; row < Board.ROWS; row++) {
+            for (int col = 0; col < Board.COLS; col++) {
+                Player slot = board.getSlot(row, col);
+                if (slot == Player.MACHINE) {
+                    machine |= 1L << Bitboards.bit(row, col);
+                } else if (slot == Player.HUMAN) {
+                    human |= 1L << Bitboards.bit(row, col);
+                }
+            }
+        }
+        return new Position(machine, human, board.getLevel());
+    }
+
+    /**
+     * Plays random moves of the human, each answered by the machine, from
+     * the empty board, until it is the machine's turn in a running game.
+     *
+     * @param random the source of randomness.
+     * @return the position, with the engine of new games.
+     * @throws InterruptedException The search was interrupted.
+     */
+    static Board randomPosition(Random random)
+            throws InterruptedException {
+        Board position = new GameState();
+        Engine engine = position.getEngine();
+        // the replies are cheap and reproducible, whatever the engine is
+        position.setEngine(new MinimaxEngine());
+        for (int moves = 0; moves <= MOVES; moves++) {
+            Board next = position.move(random.nextInt(Board.COLS));
+            if (next != null && moves < MOVES && !next.isGameOver()) {
+                next = next.machineMove(SearchLimits.ofDepth(1), null);
+            }
+            if (next == null || next.isGameOver()) {
+                return randomPosition(random);
+            }
+            position = next;
+        }
+        position.setEngine(engine);
+        return position;
+    }
+}
@@ -0,0 +1,114 @@
+package connectfour.engine;
+
+import connectfour.model.Board;
+import connectfour.model.GameState;
+import connectfour.model.SearchLimits;
+
+import java.time.Duration;
+
+/**
+ * The budget of a search for a machine move at a difficulty level.
+ * <p>
+ * A plain level searches the game tree up to a fixed depth, whose cost
+ * varies by orders of magnitude between positions and machines. A profile
+ * instead limits the wall time, the number of nodes and the memory of the
+ * search, which deepens iteratively as far as the budget allows. The number
+ * of nodes is derived from the speed of this machine, see
+ * {@link Calibration}, so the strength of a level is reproducible on a
+ * machine and its response time is predictable on any machine.
+ *
+ * @param level  the difficulty level, from 1 to {@link GameState#MAX_LEVEL}.
+ * @param time   the time a search may take at most.
+ * @param nodes  the number of nodes a search may create.
+ * @param memory the memory in bytes a game tree may occupy.
+ */
+public record DifficultyProfile(int level, Duration time, long nodes,
+                                long memory) {
+
+    /**
+     * The target response time of each level in microseconds. On a machine
+     * searching two million nodes per second, they roughly match the depth
+     * of the level.
+     */
+    private static final long[] TIME_MICROS
+            = {10, 50, 300, 2_000, 15_000, 100_000, 700_000};
+
+    /**
+     * The factor between the time limit and the target response time. The
+     * number of nodes determines how deep a search gets, the time limit only
+     * stops searches, which are slowed down by the JIT compiler, the garbage
+     * collector or other processes.
+     */
+    private static final int TIME_MARGIN = 3;
+
+    /**
+     * The minimum time limit, since the clock is too coarse and the
+     * pauses of the JVM too long for shorter limits.
+     */
+    private static final Duration MIN_TIME = Duration.ofMillis(50);
+
+    /**
+     * The memory of each level in megabytes.
+     */
+    private static final long[] MEMORY_MEGABYTES
+            = {16, 16, 32, 64, 128, 256, 512};
+
+    /**
+     * The share of the maximum heap size a game tree may occupy at most.
+     */
+    private static final int HEAP_SHARE = 4;
+
+    /**
+     * Validates the given values.
+     *
+     * @throws IllegalArgumentException If the level is invalid or any of
+     *                                  the limits is not positive.
+     */
+    public DifficultyProfile {
+        if (level < 1 || level > GameState.MAX_LEVEL) {
+            throw new IllegalArgumentException(
+                    "The level must be between 1 and " + GameState.MAX_LEVEL
+                            + "!");
+        } else if (time.isNegative() || time.isZero() || nodes < 1
+                || memory < 1) {
+            throw new IllegalArgumentException(
+                    "The limits must be positive!");
+        }
+    }
+
+    /**
+     * Creates the profile of a level for a machine of the given speed.
+     *
+     * @param level          the difficulty level.
+     * @param nodesPerSecond the number of nodes this machine searches per
+     *                       second, see {@link Calibration}.
+     * @return the profile.
+     * @throws IllegalArgumentException If the level is invalid.
+     */
+    public static DifficultyProfile of(int level, long nodesPerSecond) {
+        if (level < 1 || level > GameState.MAX_LEVEL) {
+            throw new IllegalArgumentException(
+                    "The level must be between 1 and " + GameState.MAX_LEVEL
+                            + "!");
+        }
+        long micros = TIME_MICROS[level - 1];
+        long nodes = Math.max(1, nodesPerSecond * micros / 1_000_000);
+        Duration time = Duration.ofNanos(micros * 1000 * TIME_MARGIN);
+        if (time.compareTo(MIN_TIME) < 0) {
+            time = MIN_TIME;
+        }
+        long memory = Math.min(MEMORY_MEGABYTES[level - 1] << 20,
+                Runtime.getRuntime().maxMemory() / HEAP_SHARE);
+        return new DifficultyProfile(level, time, nodes, memory);
+    }
+
+    /**
+     * Converts this profile into the limits of a search. The depth is only
+     * bounded by the size of the board.
+     *
+     * @return the limits.
+     */
+    public SearchLimits toLimits() {
+        return new SearchLimits(Board.ROWS * Board.COLS, time, nodes, memory);
+    }
+}
@@ -0,0 +1,48 @@
+package connectfour.engine;
+
+import connectfour.model.SearchLimits;
+import connectfour.model.SearchListener;
+
+/**
+ * An algorithm calculating machine moves, which a game delegates to, see
+ * {@link connectfour.model.Board#setEngine(Engine)}.
+ * <p>
+ * Engines are services, which are found by the {@link java.util.ServiceLoader}
+ * and selected by their name, see {@link Engines}. An implementation needs a
+ * public constructor without arguments and is declared with
+ * {@code provides connectfour.engine.Engine with ...} in its module, or in
+ * {@code META-INF/services/connectfour.engine.Engine} on the class path.
+ * <p>
+ * Engines must be stateless or thread-safe, since the worker threads of the
+ * {@link EngineService} use the same instance for many games at once.
+ */
+public interface Engine {
+
+    /**
+     * Gets the name, which selects the engine in the configuration and the
+     * commands of the front ends.
+     *
+     * @return the name, in lower case and without spaces.
+     */
+    String name();
+
+    /**
+     * Searches the best move of the player to move.
+     * <p>
+     * The search should respect the limits, see {@link SearchLimits}, and
+     * report its progress to the listener, which receives the scores from
+     * the view of the player to move. It has to stop with an
+     * {@link InterruptedException} once the executing thread is
+     * interrupted.
+     *
+     * @param position the position, whose game is not over.
+     * @param limits   the limits of the search.
+     * @param listener receives the progress of the search, may be
+     *                 {@code null}.
+     * @return the column of the move, starting from 0, which must not be
+     * full.
+     * @throws InterruptedException The executing thread was interrupted.
+     */
+    int bestMove(Position position, SearchLimits limits,
+                 SearchListener listener) throws InterruptedException;
+}
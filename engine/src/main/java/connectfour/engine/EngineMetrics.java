@@ -0,0 +1,37 @@
+package connectfour.engine;
+
+/**
+ * Snapshot of the load of an {@link EngineService}.
+ *
+ * @param queued    the number of searches waiting for a free worker.
+ * @param running   the number of searches currently running.
+ * @param completed the number of searches completed so far.
+ * @param rejected  the number of searches rejected, because the queue was
+ *                  full.
+ * @param degraded  the number of searches started with a lower level than
+ *                  requested, because of the load.
+ * @param timedOut  the number of searches, which exceeded their deadline and
+ *                  were answered by a fallback search.
+ * @param droppedProofs the number of proofs of forced wins alongside
+ *                      searches, which were dropped, because the queue of
+ *                      proofs was full.
+ */
+public record EngineMetrics(int queued, int running, long completed,
+                            long rejected, long degraded, long timedOut,
+                            long droppedProofs) {
+
+    /**
+     * Returns a string representation of the metrics in the following format:
+     * <p>queued q running r completed c rejected r degraded d timedout t
+     * droppedproofs p</p>
+     *
+     * @return the string representation of the metrics.
+     */
+    @Override
+    public String toString() {
+        return "queued " + queued + " running " + running
+                + " completed " + completed + " rejected " + rejected
+                + " degraded " + degraded + " timedout " + timedOut
+                + " droppedproofs " + droppedProofs;
+    }
+}
@@ -0,0 +1,912 @@
+package connectfour.engine;
+
+import connectfour.model.Board;
+import connectfour.model.Player;
+import connectfour.model.SearchLimits;
+import connectfour.model.SearchListener;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * Calculates machine moves on a bounded pool of worker threads.
+ * <p>
+ * The service is shared by all front ends, see
+ * {@link EngineService#shared()}. At most {@code workers} searches run at the
+ * same time and at most {@code queueCapacity} further searches wait for a
+ * free worker. Submitting a search while the queue is full fails with a
+ * {@link RejectedExecutionException}.
+ * <p>
+ * The service degrades gracefully under load instead of letting the latency
+ * of every game grow:
+ * <ul>
+ *     <li>For every {@code workers} searches waiting in the queue, a search
+ *          is started one level lower than requested, and with a budget of
+ *          time and nodes {@link Board#COLS} times smaller. One level less
+ *          makes a search roughly {@link Board#COLS} times cheaper, which
+ *          keeps the time to drain the queue bounded.</li>
+ *     <li>Every search has a deadline. A search, which is still waiting or
+ *          running when its deadline has passed, is answered by a search of
+ *          level 1 instead.</li>
+ * </ul>
+ * The current load is available through {@link EngineService#getMetrics()}.
+ * <p>
+ * Front ends may start a warm-up with {@link EngineService#warmUp(Duration)}
+ * while they are being shown, so that the first machine move does not run
+ * in the interpreter. The warm-up stops as soon as a search is submitted.
+ * <p>
+ * Proofs of forced wins, see
+ * {@link EngineService#proveAsync(Board, Player, long)}, run one at a time
+ * on a separate thread of the lowest priority, so that they never delay
+ * machine moves. Once at most {@link EngineService#PROOF_SLOTS} slots are
+ * empty, every machine search starts a proof of a forced win of the machine
+ * alongside. If the proof succeeds before the search completes, the search
+ * is stopped and the winning column of the proof is played, since the
+ * search may not see the win within its depth. At most one proof per worker
+ * waits for the proving thread; further proofs alongside searches are
+ * dropped and counted in the metrics.
+ * <p>
+ * A running search is cancelled by calling {@link Future#cancel(boolean)}
+ * with {@code true}, which interrupts the worker thread.
+ */
+public class EngineService {
+
+    /**
+     * The system property containing the number of worker threads of the
+     * shared service. Defaults to the number of available processors.
+     */
+    public static final String WORKERS_PROPERTY = "connectfour.engine.workers";
+
+    /**
+     * The system property containing the queue capacity of the shared
+     * service. Defaults to {@link EngineService#DEFAULT_QUEUE_CAPACITY}.
+     */
+    public static final String QUEUE_PROPERTY = "connectfour.engine.queue";
+
+    /**
+     * The system property containing the default deadline of the shared
+     * service in milliseconds. Defaults to
+     * {@link EngineService#DEFAULT_DEADLINE}.
+     */
+    public static final String DEADLINE_PROPERTY
+            = "connectfour.engine.deadline";
+
+    /**
+     * The system property containing the duration of the warm-up of the
+     * front ends in milliseconds, 0 to disable it. Defaults to
+     * {@link EngineService#DEFAULT_WARM_UP}.
+     */
+    public static final String WARM_UP_PROPERTY = "connectfour.engine.warmup";
+
+    /**
+     * The default number of searches waiting for a free worker.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 256;
+
+    /**
+     * The default time a search may take, including the time waiting in the
+     * queue.
+     */
+    public static final Duration DEFAULT_DEADLINE = Duration.ofSeconds(10);
+
+    /**
+     * The default duration of the warm-up of the front ends.
+     */
+    public static final Duration DEFAULT_WARM_UP = Duration.ofSeconds(2);
+
+    /**
+     * The level of the fallback search answering searches, which exceeded
+     * their deadline.
+     */
+    private static final int FALLBACK_LEVEL = 1;
+
+    /**
+     * The number of empty slots, from which on a proof of a forced win of
+     * the machine runs alongside each machine search.
+     */
+    public static final int PROOF_SLOTS = 20;
+
+    /**
+     * The memory of a proof alongside a machine search in bytes, which
+     * bounds it to a fraction of a second.
+     */
+    private static final long PROOF_MEMORY = 16L << 20;
+
+    /**
+     * The pool of worker threads.
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Timer interrupting searches, which exceeded their deadline.
+     */
+    private final ScheduledExecutorService watchdog;
+
+    /**
+     * The deadline of searches submitted without an explicit one.
+     */
+    private final Duration defaultDeadline;
+
+    /**
+     * Counters of the searches for the {@link EngineMetrics}.
+     */
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder degraded = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder droppedProofs = new LongAdder();
+
+    /**
+     * The thread running the warm-up, or {@code null} if none was started.
+     */
+    private volatile Thread warmUpThread;
+
+    /**
+     * The thread running the proofs, whose queue holds one proof per
+     * worker, or {@code null} if none was requested yet.
+     */
+    private ThreadPoolExecutor prover;
+
+    /**
+     * Constructs a new EngineService.
+     *
+     * @param workers         the number of worker threads.
+     * @param queueCapacity   the number of searches waiting for a free
+     *                        worker.
+     * @param defaultDeadline the deadline of searches submitted without an
+     *                        explicit one.
+     * @throws IllegalArgumentException If any of the values is not positive.
+     */
+    public EngineService(int workers, int queueCapacity,
+                         Duration defaultDeadline) {
+        if (workers < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException(
+                    "Workers and queue capacity must be positive!");
+        } else if (defaultDeadline.isNegative() || defaultDeadline.isZero()) {
+            throw new IllegalArgumentException(
+                    "The deadline must be positive!");
+        }
+        this.defaultDeadline = defaultDeadline;
+        AtomicInteger count = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable,
+                            "engine-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1,
+                runnable -> {
+                    Thread thread = new Thread(runnable, "engine-watchdog");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        timer.setRemoveOnCancelPolicy(true);
+        watchdog = timer;
+    }
+
+    /**
+     * Constructs a new EngineService with the
+     * {@link EngineService#DEFAULT_DEADLINE}.
+     *
+     * @param workers       the number of worker threads.
+     * @param queueCapacity the number of searches waiting for a free worker.
+     * @throws IllegalArgumentException If any of the values is not positive.
+     */
+    public EngineService(int workers, int queueCapacity) {
+        this(workers, queueCapacity, DEFAULT_DEADLINE);
+    }
+
+    /**
+     * Gets the service shared by all front ends, which is configured by the
+     * system properties {@link EngineService#WORKERS_PROPERTY},
+     * {@link EngineService#QUEUE_PROPERTY} and
+     * {@link EngineService#DEADLINE_PROPERTY}.
+     *
+     * @return the shared service.
+     */
+    public static EngineService shared() {
+        return SharedInstance.INSTANCE;
+    }
+
+    /**
+     * Submits the calculation of a machine move with the default deadline.
+     *
+     * @param board the board on which the machine has to move.
+     * @return a future holding the board with the move executed.
+     * @throws RejectedExecutionException The queue is full or the service is
+     *                                    shut down.
+     */
+    public Future<Board> submit(Board board) {
+        return submit(board, defaultDeadline, null);
+    }
+
+    /**
+     * Submits the calculation of a machine move with the default deadline
+     * and calls the given action once it has completed.
+     *
+     * @param board    the board on which the machine has to move.
+     * @param whenDone the action to call on completion, may be {@code null}.
+     * @return a future holding the board with the move executed.
+     * @throws RejectedExecutionException The queue is full or the service is
+     *                                    shut down.
+     * @see EngineService#submit(Board, Duration, BiConsumer)
+     */
+    public Future<Board> submit(Board board,
+                                BiConsumer<? super Board,
+                                        ? super Throwable> whenDone) {
+        return submit(board, defaultDeadline, whenDone);
+    }
+
+    /**
+     * Submits the calculation of a machine move with the default deadline,
+     * which reports its progress to the given listener, and calls the given
+     * action once it has completed.
+     *
+     * @param board    the board on which the machine has to move.
+     * @param listener receives the progress of the search, may be
+     *                 {@code null}.
+     * @param whenDone the action to call on completion, may be {@code null}.
+     * @return a future holding the board with the move executed.
+     * @throws RejectedExecutionException The queue is full or the service is
+     *                                    shut down.
+     * @see EngineService#submit(Board, Duration, SearchListener, BiConsumer)
+     */
+    public Future<Board> submit(Board board, SearchListener listener,
+                                BiConsumer<? super Board,
+                                        ? super Throwable> whenDone) {
+        return submit(board, defaultDeadline, listener, whenDone);
+    }
+
+    /**
+     * Submits the calculation of a machine move and calls the given action
+     * once it has completed.
+     *
+     * @param board    the board on which the machine has to move.
+     * @param deadline the time the search may take, including the time
+     *                 waiting in the queue.
+     * @param whenDone the action to call on completion, may be {@code null}.
+     * @return a future holding the board with the move executed.
+     * @throws RejectedExecutionException The queue is full or the service is
+     *                                    shut down.
+     * @see EngineService#submit(Board, Duration, SearchListener, BiConsumer)
+     */
+    public Future<Board> submit(Board board, Duration deadline,
+                                BiConsumer<? super Board,
+                                        ? super Throwable> whenDone) {
+        return submit(board, deadline, null, whenDone);
+    }
+
+    /**
+     * Submits the calculation of a machine move, which reports its progress
+     * to the given listener, and calls the given action once it has
+     * completed.
+     * <p>
+     * The listener is called by the worker thread after every iteration of
+     * the search, see {@link Board#machineMove(SearchLimits, SearchListener)}.
+     * The fallback
+     * search of an expired deadline reports no progress.
+     * <p>
+     * The action receives either the resulting board or the exception, which
+     * is a {@link CancellationException} if the search was cancelled. It is
+     * called by the worker thread, or by the cancelling thread in case of
+     * cancellation.
+     *
+     * @param board    the board on which the machine has to move.
+     * @param deadline the time the search may take, including the time
+     *                 waiting in the queue.
+     * @param listener receives the progress of the search, may be
+     *                 {@code null}.
+     * @param whenDone the action to call on completion, may be {@code null}.
+     * @return a future holding the board with the move executed.
+     * @throws RejectedExecutionException The queue is full or the service is
+     *                                    shut down.
+     */
+    public Future<Board> submit(Board board, Duration deadline,
+                                SearchListener listener,
+                                BiConsumer<? super Board,
+                                        ? super Throwable> whenDone) {
+        return submit(board, SearchLimits.DEFAULT, deadline, listener,
+                whenDone);
+    }
+
+    /**
+     * Submits the calculation of a machine move within the given limits.
+     *
+     * @param board    the board on which the machine has to move.
+     * @param limits   the limits of the search.
+     * @param deadline the time the search may take, including the time
+     *                 waiting in the queue.
+     * @param listener receives the progress of the search, may be
+     *                 {@code null}.
+     * @param whenDone the action to call on completion, may be {@code null}.
+     * @return a future holding the board with the move executed.
+     * @throws RejectedExecutionException The queue is full or the service is
+     *                                    shut down.
+     */
+    private Future<Board> submit(Board board, SearchLimits limits,
+                                 Duration deadline, SearchListener listener,
+                                 BiConsumer<? super Board,
+                                         ? super Throwable> whenDone) {
+        stopWarmUp();
+        SearchTask task = new SearchTask(new Search(board, limits, listener),
+                whenDone);
+        // scheduled first, so a search finishing at once finds its timer
+        task.deadlineTimer = watchdog.schedule(task::deadlineExceeded,
+                deadline.toNanos(), TimeUnit.NANOSECONDS);
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            task.deadlineTimer.cancel(false);
+            rejected.increment();
+            throw e;
+        }
+        return task;
+    }
+
+    /**
+     * Submits the calculation of a machine move with the given limits, which
+     * reports its progress to the given listener.
+     * <p>
+     * The search is bounded by the limits, see
+     * {@link Board#machineMove(SearchLimits, SearchListener)}. The deadline of
+     * a search with a timeout is the default deadline plus the timeout, since
+     * the search stops itself after the timeout. The returned future is completed on the given executor,
+     * or by the worker thread if there is none. Cancelling the future cancels
+     * the search. If the queue is full, the future fails with a
+     * {@link RejectedExecutionException}.
+     *
+     * @param board    the board on which the machine has to move.
+     * @param limits   the limits of the search.
+     * @param listener receives the progress of the search, may be
+     *                 {@code null}.
+     * @param executor the executor completing the future, may be
+     *                 {@code null}.
+     * @return a future holding the board with the move executed.
+     */
+    public CompletableFuture<Board> submitAsync(Board board,
+                                                SearchLimits limits,
+                                                SearchListener listener,
+                                                Executor executor) {
+        Duration deadline = limits.timeout() == null
+                ? defaultDeadline : defaultDeadline.plus(limits.timeout());
+
+        SearchFuture<Board> future = new SearchFuture<>();
+        try {
+            future.task = submit(board, limits, deadline, listener,
+                    (result, error) -> future.completeOn(executor, result,
+                            error));
+            if (future.isCancelled()) {
+                // cancelled before the task was known to the future
+                future.task.cancel(true);
+            }
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Submits a proof-number search for a forced win of the given player,
+     * see {@link ProofNumberSearch}. Proofs have no deadline, they end once
+     * the tree exceeds the given memory. Cancelling the future interrupts
+     * the proof. If {@link EngineService#getWorkers()} proofs are already
+     * waiting or the service is shut down, the future fails with a
+     * {@link RejectedExecutionException}.
+     *
+     * @param board    the position.
+     * @param attacker the player, whose win is to be proven.
+     * @param memory   the memory the tree may occupy at most in bytes.
+     * @return a future holding the result of the proof, which is completed
+     *         by the proving thread.
+     * @throws IllegalArgumentException If the memory does not hold a single
+     *                                  position.
+     */
+    public CompletableFuture<ProofResult> proveAsync(Board board,
+                                                     Player attacker,
+                                                     long memory) {
+        ProofNumberSearch search = new ProofNumberSearch(memory);
+        stopWarmUp();
+        SearchFuture<ProofResult> future = new SearchFuture<>();
+        try {
+            ThreadPoolExecutor proofs = prover();
+            // cancelled proofs would take up the queue until their turn
+            proofs.purge();
+            future.task = proofs.submit(() -> {
+                try {
+                    future.complete(search.prove(board, attacker));
+                } catch (InterruptedException e) {
+                    future.cancel(false);
+                } catch (RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            });
+            if (future.isCancelled()) {
+                // cancelled before the task was known to the future
+                future.task.cancel(true);
+            }
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Gets the thread running the proofs and creates it on first use.
+     *
+     * @return the executor of the proofs.
+     * @throws RejectedExecutionException The service is shut down.
+     */
+    private synchronized ThreadPoolExecutor prover() {
+        if (executor.isShutdown()) {
+            throw new RejectedExecutionException("The service is shut down!");
+        } else if (prover == null) {
+            prover = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(getWorkers()), runnable -> {
+                        Thread thread = new Thread(runnable, "engine-prover");
+                        thread.setDaemon(true);
+                        thread.setPriority(Thread.MIN_PRIORITY);
+                        return thread;
+                    });
+        }
+        return prover;
+    }
+
+    /**
+     * Starts searching random positions on a daemon thread of the lowest
+     * priority for at most the given duration, so that the JIT compiler
+     * has compiled the search once the first machine move is requested.
+     * The warm-up is interrupted as soon as a search is submitted or the
+     * service is shut down. Does nothing if a warm-up was already started.
+     *
+     * @param duration the time the warm-up may take at most.
+     */
+    public synchronized void warmUp(Duration duration) {
+        if (warmUpThread != null || executor.isShutdown()) {
+            return;
+        }
+        Thread thread = new Thread(new WarmUp(duration), "engine-warmup");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        warmUpThread = thread;
+        thread.start();
+    }
+
+    /**
+     * Interrupts the warm-up, if it is running.
+     */
+    private void stopWarmUp() {
+        Thread thread = warmUpThread;
+        if (thread != null && thread.isAlive()) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * @return the number of worker threads.
+     */
+    public int getWorkers() {
+        return executor.getMaximumPoolSize();
+    }
+
+    /**
+     * @return a snapshot of the current load.
+     */
+    public EngineMetrics getMetrics() {
+        return new EngineMetrics(executor.getQueue().size(),
+                executor.getActiveCount(), completed.sum(), rejected.sum(),
+                degraded.sum(), timedOut.sum(), droppedProofs.sum());
+    }
+
+    /**
+     * Stops accepting searches and cancels all running ones.
+     */
+    public void shutdownNow() {
+        stopWarmUp();
+        synchronized (this) {
+            executor.shutdownNow();
+            if (prover != null) {
+                prover.shutdownNow();
+            }
+        }
+        watchdog.shutdownNow();
+    }
+
+    /**
+     * Calculates the limits a search is started with under the current load.
+     * Every level of reduction lowers the depth by one and divides the
+     * budget of time and nodes by {@link Board#COLS}.
+     *
+     * @param limits the requested limits.
+     * @param level  the level of the board.
+     * @return the limits to use, which are the requested ones if the load is
+     * low.
+     */
+    private SearchLimits admittedLimits(SearchLimits limits, int level) {
+        int reduction = executor.getQueue().size() / getWorkers();
+        int depth = limits.depth() > 0 ? limits.depth() : level;
+        if (reduction == 0 || depth <= FALLBACK_LEVEL) {
+            return limits;
+        }
+        long factor = (long) Math.pow(Board.COLS, Math.min(reduction, 10));
+        return new SearchLimits(Math.max(FALLBACK_LEVEL, depth - reduction),
+                limits.timeout() == null
+                        ? null : limits.timeout().dividedBy(factor),
+                limits.nodes() == 0 ? 0 : Math.max(1, limits.nodes() / factor),
+                limits.memory());
+    }
+
+    /**
+     * Calculates a machine move, respecting the load of the service and the
+     * deadline of the search.
+     */
+    private class Search implements Callable<Board> {
+
+        /**
+         * The board on which the machine has to move.
+         */
+        private final Board board;
+
+        /**
+         * The requested limits of the search.
+         */
+        private final SearchLimits limits;
+
+        /**
+         * Receives the progress of the search, may be {@code null}.
+         */
+        private final SearchListener listener;
+
+        /**
+         * The thread running the search, or {@code null} if it is not
+         * running.
+         */
+        private Thread runner;
+
+        /**
+         * Flag indicating if the deadline has passed.
+         */
+        private boolean expired = false;
+
+        /**
+         * The proof of a forced win of the machine, which succeeded while
+         * the search was running, or {@code null}.
+         */
+        private ProofResult proven;
+
+        /**
+         * Constructs a new Search.
+         *
+         * @param board    the board on which the machine has to move.
+         * @param limits   the requested limits of the search.
+         * @param listener receives the progress of the search, may be
+         *                 {@code null}.
+         */
+        Search(Board board, SearchLimits limits, SearchListener listener) {
+            this.board = board;
+            this.limits = limits;
+            this.listener = listener;
+        }
+
+        /**
+         * Searches the machine move with the admitted limits, or the
+         * fallback level, once the deadline has passed.
+         *
+         * @return the board with the move executed.
+         * @throws InterruptedException The search was cancelled.
+         */
+        @Override
+        public Board call() throws InterruptedException {
+            synchronized (this) {
+                if (expired) {
+                    return fallback();
+                }
+                runner = Thread.currentThread();
+            }
+
+            SearchLimits admitted = admittedLimits(limits, board.getLevel());
+            if (admitted != limits) {
+                degraded.increment();
+            }
+
+            CompletableFuture<ProofResult> proof = proveAlongside();
+            try {
+                Board result;
+                try {
+                    result = board.machineMove(admitted, listener);
+                } catch (InterruptedException e) {
+                    synchronized (this) {
+                        runner = null;
+                        if (proven != null) {
+                            Thread.interrupted();
+                            return play(proven.col());
+                        } else if (!expired) {
+                            throw e;
+                        }
+                    }
+                    return fallback();
+                }
+                synchronized (this) {
+                    runner = null;
+                }
+                // a proof or the deadline may have interrupted this thread
+                // after the search returned
+                Thread.interrupted();
+                ProofResult win = proof == null ? null : proof.getNow(null);
+                return win != null && win.outcome() == ProofResult.Outcome.WIN
+                        ? play(win.col()) : result;
+            } finally {
+                synchronized (this) {
+                    runner = null;
+                }
+                if (proof != null) {
+                    proof.cancel(true);
+                }
+            }
+        }
+
+        /**
+         * Starts a proof of a forced win of the machine, if at most
+         * {@link EngineService#PROOF_SLOTS} slots are empty. The proof is
+         * dropped and counted, if the queue of proofs is full.
+         *
+         * @return the future of the proof, or {@code null} if none was
+         * started.
+         */
+        private CompletableFuture<ProofResult> proveAlongside() {
+            int empty = Board.ROWS * Board.COLS;
+            for (int row = 0; row < Board.ROWS; row++) {
+                for (int col = 0; col < Board.COLS; col++) {
+                    Player slot = board.getSlot(row, col);
+                    if (slot == Player.HUMAN || slot == Player.MACHINE) {
+                        empty--;
+                    }
+                }
+            }
+            if (empty > PROOF_SLOTS || board.isGameOver()) {
+                return null;
+            }
+            CompletableFuture<ProofResult> proof
+                    = proveAsync(board, Player.MACHINE, PROOF_MEMORY);
+            if (proof.isCompletedExceptionally()) {
+                // the queue of proofs is full, the search runs alone
+                droppedProofs.increment();
+                return null;
+            }
+            proof.thenAccept(this::proofCompleted);
+            return proof;
+        }
+
+        /**
+         * Called by the proving thread once the proof alongside the search
+         * is complete. Stops the running search, if the proof succeeded.
+         *
+         * @param result the result of the proof.
+         */
+        private synchronized void proofCompleted(ProofResult result) {
+            if (result.outcome() == ProofResult.Outcome.WIN) {
+                proven = result;
+                if (runner != null) {
+                    runner.interrupt();
+                }
+            }
+        }
+
+        /**
+         * Plays the winning column of a proof.
+         *
+         * @param col the column.
+         * @return the board with the move executed.
+         * @throws InterruptedException Cannot happen, the move is known.
+         */
+        private Board play(int col) throws InterruptedException {
+            Board forced = board.clone();
+            forced.setEngine(new ProvenMove(col));
+            Board result = forced.machineMove(SearchLimits.DEFAULT, null);
+            result.setEngine(board.getEngine());
+            return result;
+        }
+
+        /**
+         * Searches the machine move with the fallback level.
+         *
+         * @return the board with the move executed.
+         * @throws InterruptedException The search was cancelled.
+         */
+        private Board fallback() throws InterruptedException {
+            timedOut.increment();
+            return board.machineMove(SearchLimits.ofDepth(FALLBACK_LEVEL),
+                    null);
+        }
+
+        /**
+         * Called by the {@link EngineService#watchdog} once the deadline has
+         * passed. Interrupts the running search, so that it continues with
+         * the fallback.
+         */
+        synchronized void deadlineExceeded() {
+            expired = true;
+            if (runner != null) {
+                runner.interrupt();
+            }
+        }
+    }
+
+    /**
+     * The {@link Engine} playing the winning column of a proof.
+     *
+     * @param col the column.
+     */
+    private record ProvenMove(int col) implements Engine {
+
+        @Override
+        public String name() {
+            return "proof";
+        }
+
+        @Override
+        public int bestMove(Position position, SearchLimits limits,
+                            SearchListener listener) {
+            return col;
+        }
+    }
+
+    /**
+     * Runs a {@link Search} and notifies an optional action on completion.
+     */
+    private class SearchTask extends FutureTask<Board> {
+
+        /**
+         * The search run by this task.
+         */
+        private final Search search;
+
+        /**
+         * The action to call on completion, may be {@code null}.
+         */
+        private final BiConsumer<? super Board, ? super Throwable> whenDone;
+
+        /**
+         * Timer calling {@link SearchTask#deadlineExceeded()}.
+         */
+        private volatile ScheduledFuture<?> deadlineTimer;
+
+        /**
+         * Constructs a new SearchTask.
+         *
+         * @param search   the search to run.
+         * @param whenDone the action to call on completion, may be
+         *                 {@code null}.
+         */
+        SearchTask(Search search,
+                   BiConsumer<? super Board, ? super Throwable> whenDone) {
+            super(search);
+            this.search = search;
+            this.whenDone = whenDone;
+        }
+
+        /**
+         * Called by the {@link EngineService#watchdog} once the deadline has
+         * passed.
+         */
+        void deadlineExceeded() {
+            if (!isDone()) {
+                search.deadlineExceeded();
+            }
+        }
+
+        @Override
+        protected void done() {
+            ScheduledFuture<?> timer = deadlineTimer;
+            if (timer != null) {
+                timer.cancel(false);
+            }
+            if (!isCancelled()) {
+                completed.increment();
+            }
+            if (whenDone == null) {
+                return;
+            }
+            try {
+                whenDone.accept(get(), null);
+            } catch (ExecutionException e) {
+                whenDone.accept(null, e.getCause());
+            } catch (CancellationException e) {
+                whenDone.accept(null, e);
+            } catch (InterruptedException e) {
+                // cannot happen, the task is already done
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Future of a search submitted by
+     * {@link EngineService#submitAsync(Board, SearchLimits, SearchListener,
+     * Executor)} or {@link EngineService#proveAsync(Board, Player, long)},
+     * which cancels the search when it is cancelled itself.
+     *
+     * @param <T> the type of the result of the search.
+     */
+    private static final class SearchFuture<T> extends CompletableFuture<T> {
+
+        /**
+         * The task running the search, or {@code null} if it was rejected.
+         */
+        private volatile Future<?> task;
+
+        /**
+         * Completes this future with the outcome of the search.
+         *
+         * @param executor the executor completing this future, may be
+         *                 {@code null}.
+         * @param result   the result of the search, or {@code null}.
+         * @param error    the reason of the failure, or {@code null}.
+         */
+        void completeOn(Executor executor, T result, Throwable error) {
+            if (isDone()) {
+                return;
+            }
+            Runnable completion = () -> {
+                if (error == null) {
+                    complete(result);
+                } else {
+                    completeExceptionally(error);
+                }
+            };
+            if (executor == null) {
+                completion.run();
+                return;
+            }
+            try {
+                executor.execute(completion);
+            } catch (RejectedExecutionException e) {
+                completeExceptionally(e);
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            Future<?> running = task;
+            if (cancelled && running != null) {
+                running.cancel(true);
+            }
+            return cancelled;
+        }
+    }
+
+    /**
+     * Holder of the lazily created shared service.
+     */
+    private static final class SharedInstance {
+
+        /**
+         * The shared service.
+         */
+        private static final EngineService INSTANCE = new EngineService(
+                Integer.getInteger(WORKERS_PROPERTY,
+                        Runtime.getRuntime().availableProcessors()),
+                Integer.getInteger(QUEUE_PROPERTY, DEFAULT_QUEUE_CAPACITY),
+                Duration.ofMillis(Long.getLong(DEADLINE_PROPERTY,
+                        DEFAULT_DEADLINE.toMillis())));
+    }
+}
@@ -0,0 +1,210 @@
+package connectfour.engine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Finds the {@link Engine}s and {@link Evaluator}s with the
+ * {@link ServiceLoader} and selects them by name.
+ * <p>
+ * The services are loaded once, on first use. The {@link MinimaxEngine}
+ * and the {@link GroupEvaluator} are always available. A service, which
+ * cannot be loaded, is reported once and skipped, like one whose name is
+ * already taken.
+ */
+public final class Engines {
+
+    /**
+     * The system property containing the name of the engine of new games.
+     * Defaults to {@link MinimaxEngine#NAME}.
+     */
+    public static final String ENGINE_PROPERTY = "connectfour.engine.default";
+
+    /**
+     * The system property containing the name of the evaluator of the
+     * {@link MinimaxEngine}. Defaults to {@link GroupEvaluator#NAME}.
+     */
+    public static final String EVALUATOR_PROPERTY
+            = "connectfour.engine.evaluator";
+
+    /**
+     * Private constructor to ensure non-instantiability.
+     */
+    private Engines() {
+        throw new AssertionError("Utility Class!");
+    }
+
+    /**
+     * @return the names of all engines, the reference engine first.
+     */
+    public static List<String> names() {
+        return List.copyOf(EngineHolder.ENGINES.keySet());
+    }
+
+    /**
+     * Gets the engine with the given name.
+     *
+     * @param name the name, see {@link Engine#name()}.
+     * @return the engine.
+     * @throws IllegalArgumentException There is no engine with the name.
+     */
+    public static Engine byName(String name) {
+        Engine engine = EngineHolder.ENGINES.get(name);
+        if (engine == null) {
+            throw new IllegalArgumentException("Unknown engine: " + name);
+        }
+        return engine;
+    }
+
+    /**
+     * Gets the engine of new games, which is configured by the
+     * {@link Engines#ENGINE_PROPERTY}. An unknown name is reported once and
+     * replaced by the {@link MinimaxEngine}.
+     *
+     * @return the engine.
+     */
+    public static Engine defaultEngine() {
+        return EngineHolder.DEFAULT;
+    }
+
+    /**
+     * @return the names of all evaluators, the reference evaluator first.
+     */
+    public static List<String> evaluatorNames() {
+        return List.copyOf(EvaluatorHolder.EVALUATORS.keySet());
+    }
+
+    /**
+     * Gets the evaluator with the given name.
+     *
+     * @param name the name, see {@link Evaluator#name()}.
+     * @return the evaluator.
+     * @throws IllegalArgumentException There is no evaluator with the name.
+     */
+    public static Evaluator evaluator(String name) {
+        Evaluator evaluator = EvaluatorHolder.EVALUATORS.get(name);
+        if (evaluator == null) {
+            throw new IllegalArgumentException("Unknown evaluator: " + name);
+        }
+        return evaluator;
+    }
+
+    /**
+     * Gets the evaluator of the {@link MinimaxEngine}, which is configured
+     * by the {@link Engines#EVALUATOR_PROPERTY}. An unknown name is reported
+     * once and replaced by the {@link GroupEvaluator}.
+     *
+     * @return the evaluator.
+     */
+    public static Evaluator defaultEvaluator() {
+        return EvaluatorHolder.DEFAULT;
+    }
+
+    /**
+     * Loads the providers of a service.
+     *
+     * @param service   the service.
+     * @param name      provides the name of a provider.
+     * @param reference creates the reference provider, if it was not found.
+     * @param <S>       the type of the service.
+     * @return the providers by name, the reference provider first.
+     */
+    private static <S> Map<String, S> load(Class<S> service,
+                                           Function<S, String> name,
+                                           Supplier<S> reference) {
+        List<S> providers = new ArrayList<>();
+        Iterator<S> iterator = ServiceLoader.load(service).iterator();
+        while (true) {
+            try {
+                if (!iterator.hasNext()) {
+                    break;
+                }
+                providers.add(iterator.next());
+            } catch (ServiceConfigurationError e) {
+                System.err.println("Cannot load a provider of "
+                        + service.getSimpleName() + ": " + e.getMessage());
+            }
+        }
+
+        // the loaded reference provider is preferred to a new instance
+        S first = reference.get();
+        String firstName = name.apply(first);
+        Map<String, S> byName = new LinkedHashMap<>();
+        byName.put(firstName, providers.stream()
+                .filter(provider -> name.apply(provider).equals(firstName))
+                .findFirst().orElse(first));
+        for (S provider : providers) {
+            byName.putIfAbsent(name.apply(provider), provider);
+        }
+        return Collections.unmodifiableMap(byName);
+    }
+
+    /**
+     * Gets the provider configured by a system property.
+     *
+     * @param providers the providers by name, the reference provider first.
+     * @param property  the system property.
+     * @param <S>       the type of the service.
+     * @return the configured provider, or the reference provider if the
+     * property is not set or names no provider.
+     */
+    private static <S> S configured(Map<String, S> providers,
+                                    String property) {
+        S reference = providers.values().iterator().next();
+        String name = System.getProperty(property);
+        if (name == null) {
+            return reference;
+        } else if (!providers.containsKey(name)) {
+            System.err.println("Ignoring " + property + "=" + name
+                    + ", which is none of " + providers.keySet() + ".");
+            return reference;
+        }
+        return providers.get(name);
+    }
+
+    /**
+     * Holder of the lazily loaded engines.
+     */
+    private static final class EngineHolder {
+
+        /**
+         * The engines by name.
+         */
+        private static final Map<String, Engine> ENGINES = load(Engine.class,
+                Engine::name, MinimaxEngine::new);
+
+        /**
+         * The engine of new games.
+         */
+        private static final Engine DEFAULT
+                = configured(ENGINES, ENGINE_PROPERTY);
+    }
+
+    /**
+     * Holder of the lazily loaded evaluators, which is separate from the
+     * engines, since the {@link MinimaxEngine} needs the evaluator while
+     * the engines are loaded.
+     */
+    private static final class EvaluatorHolder {
+
+        /**
+         * The evaluators by name.
+         */
+        private static final Map<String, Evaluator> EVALUATORS = load(
+                Evaluator.class, Evaluator::name, GroupEvaluator::new);
+
+        /**
+         * The evaluator of the minimax engine.
+         */
+        private static final Evaluator DEFAULT
+                = configured(EVALUATORS, EVALUATOR_PROPERTY);
+    }
+}
@@ -0,0 +1,44 @@
+package connectfour.engine;
+
+/**
+ * Rates positions for the {@link MinimaxEngine}.
+ * <p>
+ * Evaluators are services like the {@link Engine}s and selected by the
+ * name, see {@link Engines#evaluator(String)}. They must be stateless or
+ * thread-safe.
+ */
+public interface Evaluator {
+
+    /**
+     * Gets the name, which selects the evaluator in the configuration.
+     *
+     * @return the name, in lower case and without spaces.
+     */
+    String name();
+
+    /**
+     * Rates a position, which may be won by either player, since the game
+     * tree is not cut off at the end of the game.
+     *
+     * @param player   the tokens of the player, for whom the move is
+     *                 searched.
+     * @param opponent the tokens of the other player.
+     * @return the score, the higher the better for the player.
+     */
+    int evaluate(long player, long opponent);
+
+    /**
+     * Rates a batch of positions, all children of the same node. The default
+     * implementation rates one position after the other.
+     *
+     * @param positions the tokens of the player and of the other player of
+     *                  each position, one after the other.
+     * @param count     the number of positions.
+     * @param scores    receives the score of each position.
+     */
+    default void evaluate(long[] positions, int count, int[] scores) {
+        for (int i = 0; i < count; i++) {
+            scores[i] = evaluate(positions[2 * i], positions[2 * i + 1]);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package connectfour.engine;
+
+import connectfour.model.utility.Bitboards;
+
+import java.util.Arrays;
+
+import static connectfour.model.Board.CONNECT;
+import static connectfour.model.Board.COLS;
+
+/**
+ * The original evaluation formula of the machine for boards of standard
+ * size, the reference {@link Evaluator}.
+ * <p>
+ * The score rewards the groups of the player, see
+ * {@link Bitboards#countGroups(long, int[])}, and punishes those of the
+ * other player, where a group of {@code CONNECT} tokens of the other player
+ * weighs a hundred times more than one of the player. Tokens in the central
+ * columns count more than tokens at the edges.
+ */
+public final class GroupEvaluator implements Evaluator {
+
+    /**
+     * The name of this evaluator.
+     */
+    public static final String NAME = "groups";
+
+    /**
+     * The weight of a token in each column.
+     */
+    private static final int[] COLUMN_WEIGHTS = {0, 1, 2, 3, 2, 1, 0};
+
+    /**
+     * Constructs a new GroupEvaluator.
+     */
+    public GroupEvaluator() {
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public int evaluate(long player, long opponent) {
+        int[] score = new int[1];
+        evaluate(new long[]{player, opponent}, 1, score);
+        return score[0];
+    }
+
+    /**
+     * Counts the groups of the whole batch at once, see
+     * {@link Bitboards#countGroups(long[], int, int[])}.
+     *
+     * @param positions the tokens of the player and of the other player of
+     *                  each position, one after the other.
+     * @param count     the number of positions.
+     * @param scores    receives the score of each position.
+     */
+    @Override
+    public void evaluate(long[] positions, int count, int[] scores) {
+        long[] bits = positions;
+        if (bits.length < Bitboards.batchLength(2 * count)) {
+            bits = Arrays.copyOf(bits, Bitboards.batchLength(2 * count));
+        }
+        int[] groups = new int[2 * count * (CONNECT - 1)];
+        Bitboards.countGroups(bits, 2 * count, groups);
+        for (int i = 0; i < count; i++) {
+            scores[i] = score(positions[2 * i], positions[2 * i + 1], groups,
+                    2 * i * (CONNECT - 1));
+        }
+    }
+
+    /**
+     * Calculates the score of a position from its groups.
+     *
+     * @param player   the tokens of the player.
+     * @param opponent the tokens of the other player.
+     * @param groups   the counts of groups of the player followed by those
+     *                 of the other player.
+     * @param offset   the index of the first count of the position.
+     * @return the score.
+     */
+    private static int score(long player, long opponent, int[] groups,
+                             int offset) {
+        int other = offset + CONNECT - 1;
+        int score = 50 + groups[offset] + 4 * groups[offset + 1]
+                + 5000 * groups[offset + 2] - groups[other]
+                - 4 * groups[other + 1] - 500000 * groups[other + 2];
+        for (int col = 0; col < COLS; col++) {
+            long mask = Bitboards.columnMask(col);
+            score += COLUMN_WEIGHTS[col] * (Long.bitCount(player & mask)
+                    - Long.bitCount(opponent & mask));
+        }
+        return score;
+    }
+}
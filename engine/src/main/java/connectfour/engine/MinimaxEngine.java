@@ -0,0 +1,253 @@
+package connectfour.engine;
+
+import connectfour.model.Node;
+import connectfour.model.SearchIteration;
+import connectfour.model.SearchLimits;
+import connectfour.model.SearchListener;
+import connectfour.model.utility.Bitboards;
+
+import java.util.Objects;
+
+import static connectfour.model.Board.COLS;
+
+/**
+ * The reference {@link Engine}, which creates the game tree containing all
+ * moves up to the level of the game and picks the move with the best
+ * minimax evaluation.
+ * <p>
+ * Every position of the tree is rated by an {@link Evaluator}, and the
+ * evaluation of an inner position is its own score plus the best evaluation
+ * of its children for the player to move, see {@link Node}. The tree is not
+ * cut off at the end of the game.
+ * <p>
+ * Without a listener and a budget a single game tree up to the depth is
+ * created. Otherwise a game tree is created for every depth from 1 up to
+ * the depth, each evaluated like a search with that level, as long as the
+ * budget allows. The move of the last tree is played, thus the result is
+ * the same in both cases, if the budget suffices. Since every tree is about
+ * {@link connectfour.model.Board#COLS} times smaller than the next one, the
+ * additional trees make the search only slightly slower.
+ */
+public final class MinimaxEngine implements Engine {
+
+    /**
+     * The name of this engine.
+     */
+    public static final String NAME = "minimax";
+
+    /**
+     * Rates the positions of the game tree.
+     */
+    private final Evaluator evaluator;
+
+    /**
+     * Constructs a new MinimaxEngine with the configured evaluator, see
+     * {@link Engines#defaultEvaluator()}.
+     */
+    public MinimaxEngine() {
+        this(Engines.defaultEvaluator());
+    }
+
+    /**
+     * Constructs a new MinimaxEngine.
+     *
+     * @param evaluator rates the positions of the game tree.
+     */
+    public MinimaxEngine(Evaluator evaluator) {
+        this.evaluator = Objects.requireNonNull(evaluator);
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    /**
+     * @return the evaluator rating the positions of the game tree.
+     */
+    public Evaluator getEvaluator() {
+        return evaluator;
+    }
+
+    @Override
+    public int bestMove(Position position, SearchLimits limits,
+                        SearchListener listener) throws InterruptedException {
+        Node root = search(position, limits, listener);
+        return root == null ? -1 : root.getIndexOfBestChild();
+    }
+
+    /**
+     * Searches the game tree of the given position within the given limits.
+     * The depth is the depth of the limits or the level of the position, but
+     * at most the number of empty slots. The search is recorded as
+     * {@link SearchEvent}.
+     *
+     * @param position the position.
+     * @param limits   the limits of the search.
+     * @param listener receives the progress of the search, may be
+     *                 {@code null}.
+     * @return the evaluated root of the deepest completed game tree, or
+     * {@code null} if the budget did not suffice for any tree.
+     * @throws InterruptedException The executing thread was interrupted.
+     */
+    public Node search(Position position, SearchLimits limits,
+                       SearchListener listener) throws InterruptedException {
+        int depth = Math.min(position.emptySlots(),
+                limits.depth() > 0 ? limits.depth() : position.level());
+        SearchBudget budget = new SearchBudget(limits);
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        Node root = null;
+        try {
+            if (listener == null && !limits.hasBudget()) {
+                root = searchIteration(position, depth, budget);
+                root.evaluate();
+            } else {
+                root = deepen(position, depth, budget, listener);
+            }
+            return root;
+        } finally {
+            if (event.shouldCommit()) {
+                event.positionKey = Bitboards.key(position.opponent(),
+                        position.mover());
+                event.depth = depth;
+                event.completedDepth = budget.getCompletedDepth();
+                event.nodes = budget.getNodes();
+                event.bestCol = root == null ? -1 : root.getIndexOfBestChild();
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Searches iteratively deeper game trees up to the given depth, as long
+     * as the budget allows.
+     *
+     * @param position the position.
+     * @param maxDepth the maximum depth.
+     * @param budget   the budget of the search.
+     * @param listener receives the progress of the search, may be
+     *                 {@code null}.
+     * @return the evaluated root of the deepest completed iteration, or
+     * {@code null} if none completed.
+     * @throws InterruptedException The executing thread was interrupted.
+     */
+    private Node deepen(Position position, int maxDepth, SearchBudget budget,
+                        SearchListener listener) throws InterruptedException {
+        Node deepest = null;
+        for (int depth = 1; depth <= maxDepth && budget.allowsIteration();
+             depth++) {
+            Node root = searchIteration(position, depth, budget);
+            if (root == null) {
+                break;
+            }
+            root.evaluate();
+            deepest = root;
+            if (listener != null) {
+                listener.iterationCompleted(new SearchIteration(depth,
+                        root.getIndexOfBestChild(),
+                        root.getChildEvaluations(), budget.getTreeNodes(),
+                        budget.elapsedNanos()));
+            }
+        }
+        return deepest;
+    }
+
+    /**
+     * Creates the game tree containing all possible moves up to the given
+     * depth. The iteration is recorded as {@link SearchIterationEvent}.
+     *
+     * @param position the position.
+     * @param depth    the depth of the game tree.
+     * @param budget   the budget of the search.
+     * @return the root of the game tree, or {@code null} if the budget was
+     * exhausted.
+     * @throws InterruptedException The executing thread was interrupted.
+     */
+    private Node searchIteration(Position position, int depth,
+                                 SearchBudget budget)
+            throws InterruptedException {
+        SearchIterationEvent event = new SearchIterationEvent();
+        event.begin();
+        budget.startIteration();
+        boolean completed = false;
+        try {
+            Node root = new Node(depth, 0, COLS);
+            if (!buildSubtree(position.mover(), position.opponent(), true,
+                    root, depth - 1, budget)) {
+                return null;
+            }
+            budget.completeIteration(depth);
+            completed = true;
+            return root;
+        } finally {
+            if (event.shouldCommit()) {
+                event.positionKey = Bitboards.key(position.opponent(),
+                        position.mover());
+                event.depth = depth;
+                event.nodes = budget.getTreeNodes();
+                event.completed = completed;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Recursively builds the subtree of a given {@link Node} up to a given
+     * depth. Each inner node has a maximum number of
+     * {@link connectfour.model.Board#COLS} children, one for every possible
+     * move. All children are rated in one batch, see
+     * {@link Evaluator#evaluate(long[], int, int[])}.
+     *
+     * @param player       the tokens of the player, for whom the move is
+     *                     searched.
+     * @param opponent     the tokens of the other player.
+     * @param playerToMove if the player is to move in the parent position.
+     * @param parent       the parent node.
+     * @param depth        the depth of the subtree.
+     * @param budget       the budget of the search.
+     * @return false if the budget was exhausted, true otherwise.
+     * @throws InterruptedException The executing thread was interrupted.
+     */
+    private boolean buildSubtree(long player, long opponent,
+                                 boolean playerToMove, Node parent, int depth,
+                                 SearchBudget budget)
+            throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        } else if (depth < 0) {
+            return true;
+        }
+
+        long tokens = player | opponent;
+        long[] children = new long[Bitboards.batchLength(2 * COLS)];
+        int[] cols = new int[COLS];
+        int count = 0;
+        for (int col = 0; col < COLS; col++) {
+            long drop = Bitboards.dropBit(tokens, col);
+            if (drop != 0) {
+                cols[count] = col;
+                children[2 * count] = playerToMove ? player | drop : player;
+                children[2 * count + 1]
+                        = playerToMove ? opponent : opponent | drop;
+                count++;
+            }
+        }
+        int[] scores = new int[count];
+        evaluator.evaluate(children, count, scores);
+
+        for (int i = 0; i < count; i++) {
+            if (!budget.addNode()) {
+                return false;
+            }
+            Node child = new Node(depth, scores[i], COLS);
+            parent.setChild(child, cols[i]);
+
+            if (!buildSubtree(children[2 * i], children[2 * i + 1],
+                    !playerToMove, child, depth - 1, budget)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
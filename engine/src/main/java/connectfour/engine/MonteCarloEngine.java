@@ -0,0 +1,35 @@
+package connectfour.engine;
+
+import connectfour.model.SearchLimits;
+import connectfour.model.SearchListener;
+
+/**
+ * The {@link Engine} running a {@link MonteCarloSearch} for every move, with
+ * the number of threads of the
+ * {@link MonteCarloSearch#THREADS_PROPERTY}.
+ */
+public final class MonteCarloEngine implements Engine {
+
+    /**
+     * The name of this engine.
+     */
+    public static final String NAME = "mcts";
+
+    /**
+     * Constructs a new MonteCarloEngine.
+     */
+    public MonteCarloEngine() {
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public int bestMove(Position position, SearchLimits limits,
+                        SearchListener listener) throws InterruptedException {
+        return new MonteCarloSearch(limits, position.level())
+                .search(position.mover(), position.opponent(), listener);
+    }
+}
@@ -0,0 +1,665 @@
+package connectfour.engine;
+
+import connectfour.model.SearchIteration;
+import connectfour.model.SearchLimits;
+import connectfour.model.SearchListener;
+import connectfour.model.utility.Bitboards;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static connectfour.model.Board.COLS;
+import static connectfour.model.Board.ROWS;
+
+/**
+ * Searches the machine move with a parallel Monte Carlo tree search, which
+ * selects the moves of the tree by UCT (upper confidence bounds applied to
+ * trees).
+ * <p>
+ * Each playout descends the tree to a leaf, always following the move with
+ * the best sum of its average result and an exploration bonus, which
+ * shrinks the more often the move was tried. A leaf visited a second time
+ * is expanded. From the leaf a lightly guided random game is played to the
+ * end: a player takes an immediate win and blocks an immediate win of the
+ * other player, otherwise it drops into a random column. The result is
+ * added to every position on the path. The machine plays the move tried
+ * most often.
+ * <p>
+ * The calling thread and up to {@code threads - 1} helper threads run
+ * playouts on the same tree without locks. All searches together get at most
+ * one helper thread less than there are processors, so that concurrent
+ * searches, e.g. of the workers of an {@link EngineService}, share the cores
+ * instead of oversubscribing them; a search, for which no helper is free,
+ * runs on the calling thread alone. The statistics of a position, the number of
+ * visits and the sum of the results, are packed into a single {@code long},
+ * which is updated by atomic additions. A visit is added while descending,
+ * before the result is known, which makes the position look lost to the
+ * other threads for the moment (a virtual loss), so that they spread over
+ * different lines. A leaf is expanded by a compare-and-set of its children,
+ * which loses at most the work of a concurrent expansion. Since no thread
+ * ever waits for another one, the number of playouts within a time budget
+ * grows with the number of cores.
+ * <p>
+ * The search is bounded by the {@link SearchLimits}: by the timeout, else by
+ * the nodes, which count playouts, else by a time of
+ * {@link MonteCarloSearch#TIME_PER_LEVEL} doubled with every level above 1.
+ * A depth of the limits takes the place of the level, like it does for the
+ * {@link MinimaxEngine}, so that a search degraded to a lower depth by an
+ * {@link EngineService} gets a shorter time. The memory limits the size of
+ * the tree; once it is reached, playouts start from the existing leaves.
+ */
+public final class MonteCarloSearch {
+
+    /**
+     * The system property containing the number of threads of a search.
+     * Defaults to the number of available processors.
+     */
+    public static final String THREADS_PROPERTY
+            = "connectfour.engine.mcts.threads";
+
+    /**
+     * The time of a search at level 1 without a budget, which doubles with
+     * every level.
+     */
+    public static final Duration TIME_PER_LEVEL = Duration.ofMillis(25);
+
+    /**
+     * The estimated size of a position in the tree in bytes, including its
+     * share of the array of its parent's children.
+     */
+    public static final int BYTES_PER_NODE = 64;
+
+    /**
+     * The weight of the exploration bonus, the square root of 2 for results
+     * between 0 and 1.
+     */
+    private static final double EXPLORATION = Math.sqrt(2);
+
+    /**
+     * The results of a playout for the player, who made the move into the
+     * position, in half points.
+     */
+    private static final int LOSS = 0;
+    private static final int DRAW = 1;
+    private static final int WIN = 2;
+
+    /**
+     * The result of a position, whose game is not over.
+     */
+    private static final int OPEN = -1;
+
+    /**
+     * The number of playouts a thread runs between two checks of the clock.
+     */
+    private static final int CHECK_INTERVAL = 64;
+
+    /**
+     * The interval between two reports to the listener in nanoseconds.
+     */
+    private static final long REPORT_INTERVAL = 100_000_000L;
+
+    /**
+     * The maximum number of playouts, which keeps the sum of the results
+     * within its 32 bits.
+     */
+    private static final long MAX_PLAYOUTS = 1L << 30;
+
+    /**
+     * The time the search may take in nanoseconds, or 0 if it is limited by
+     * playouts.
+     */
+    private final long timeNanos;
+
+    /**
+     * The number of playouts the search may run.
+     */
+    private final long maxPlayouts;
+
+    /**
+     * The maximum number of positions in the tree.
+     */
+    private final long maxNodes;
+
+    /**
+     * The number of threads running playouts.
+     */
+    private final int threads;
+
+    /**
+     * The number of positions in the tree.
+     */
+    private final AtomicInteger nodes = new AtomicInteger();
+
+    /**
+     * The root of the tree, or {@code null} before the search.
+     */
+    private Node root;
+
+    /**
+     * Flag telling the threads to stop.
+     */
+    private volatile boolean stopped;
+
+    /**
+     * Constructs a new MonteCarloSearch with the number of threads of the
+     * {@link MonteCarloSearch#THREADS_PROPERTY}.
+     *
+     * @param limits the limits of the search.
+     * @param level  the level of the board, which determines the time if
+     *               the limits have no budget of time or nodes.
+     */
+    public MonteCarloSearch(SearchLimits limits, int level) {
+        this(limits, level, Integer.getInteger(THREADS_PROPERTY,
+                Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Constructs a new MonteCarloSearch.
+     *
+     * @param limits  the limits of the search.
+     * @param level   the level of the board, which determines the time if
+     *                the limits have no budget of time or nodes and no
+     *                depth.
+     * @param threads the number of threads running playouts, including the
+     *                calling one, of which at most the number of free helper
+     *                threads are granted.
+     * @throws IllegalArgumentException If the level or the number of threads
+     *                                  is not positive.
+     */
+    public MonteCarloSearch(SearchLimits limits, int level, int threads) {
+        if (level < 1 || threads < 1) {
+            throw new IllegalArgumentException(
+                    "Level and threads must be positive!");
+        }
+        if (limits.timeout() != null) {
+            timeNanos = limits.timeout().toNanos();
+        } else if (limits.nodes() > 0) {
+            timeNanos = 0;
+        } else {
+            int budgetLevel = limits.depth() > 0 ? limits.depth() : level;
+            timeNanos = TIME_PER_LEVEL.toNanos()
+                    << Math.min(budgetLevel - 1, 20);
+        }
+        maxPlayouts = limits.nodes() > 0
+                ? Math.min(limits.nodes(), MAX_PLAYOUTS) : MAX_PLAYOUTS;
+        maxNodes = limits.memory() > 0
+                ? Math.max(1, limits.memory() / BYTES_PER_NODE)
+                : Integer.MAX_VALUE;
+        this.threads = threads;
+    }
+
+    /**
+     * Searches the best move of the player to move. A search can only be run
+     * once.
+     *
+     * @param mover    the tokens of the player to move, see
+     *                 {@link Bitboards}.
+     * @param opponent the tokens of the other player.
+     * @param listener receives the progress of the search every 100 ms, may
+     *                 be {@code null}.
+     * @return the column of the best move, starting from 0.
+     * @throws IllegalStateException The game is over, or the search was
+     *                               already run.
+     * @throws InterruptedException  The executing thread was interrupted.
+     */
+    public int search(long mover, long opponent, SearchListener listener)
+            throws InterruptedException {
+        if (root != null) {
+            throw new IllegalStateException("The search was already run!");
+        }
+        long start = System.nanoTime();
+        root = new Node(mover, opponent);
+        nodes.set(1);
+        if (root.result != OPEN) {
+            throw new IllegalStateException("The game is over!");
+        }
+        int win = winningMove(mover, opponent);
+        if (win >= 0) {
+            return win;
+        }
+        expand(root);
+
+        int granted = Helpers.acquire(threads - 1);
+        List<Future<?>> helpers = new ArrayList<>(granted);
+        try {
+            try {
+                for (int i = 0; i < granted; i++) {
+                    helpers.add(Helpers.POOL.submit(this::runHelper));
+                }
+                runPlayouts(start, listener);
+            } finally {
+                stopped = true;
+            }
+            for (Future<?> helper : helpers) {
+                try {
+                    helper.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+        } finally {
+            Helpers.PERMITS.release(granted);
+        }
+        return mostVisited();
+    }
+
+    /**
+     * @return the number of playouts of the search.
+     */
+    public long getPlayouts() {
+        return root == null ? 0 : root.visits();
+    }
+
+    /**
+     * @return the number of positions in the tree.
+     */
+    public int getNodes() {
+        return nodes.get();
+    }
+
+    /**
+     * Runs playouts on the calling thread, until the budget is exhausted,
+     * and reports the progress.
+     *
+     * @param start    the start of the search by {@link System#nanoTime()}.
+     * @param listener receives the progress, may be {@code null}.
+     * @throws InterruptedException The executing thread was interrupted.
+     */
+    private void runPlayouts(long start, SearchListener listener)
+            throws InterruptedException {
+        long nextReport = start + REPORT_INTERVAL;
+        while (true) {
+            for (int i = 0; i < CHECK_INTERVAL; i++) {
+                playout();
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            long now = System.nanoTime();
+            if (root.visits() >= maxPlayouts
+                    || timeNanos > 0 && now - start >= timeNanos) {
+                return;
+            }
+            if (listener != null && now >= nextReport) {
+                nextReport = now + REPORT_INTERVAL;
+                listener.iterationCompleted(new SearchIteration(
+                        principalDepth(), mostVisited(), scores(),
+                        nodes.get(), now - start));
+            }
+        }
+    }
+
+    /**
+     * Runs playouts on a helper thread, until the search is stopped.
+     */
+    private void runHelper() {
+        while (!stopped) {
+            for (int i = 0; i < CHECK_INTERVAL && !stopped; i++) {
+                playout();
+            }
+        }
+    }
+
+    /**
+     * Runs one playout: descends the tree, expands the leaf if it was
+     * visited before, plays a random game from it and adds the result to
+     * the path.
+     */
+    private void playout() {
+        Node[] path = new Node[ROWS * COLS + 1];
+        int length = 0;
+        Node node = root;
+        node.addVisit();
+        path[length++] = node;
+        while (node.result == OPEN) {
+            Node[] children = node.children;
+            if (children == null) {
+                if (node.visits() < 2 || nodes.get() >= maxNodes) {
+                    break;
+                }
+                children = expand(node);
+            }
+            node = select(children, node.visits());
+            node.addVisit();
+            path[length++] = node;
+        }
+
+        int result = node.result != OPEN
+                ? node.result : randomGame(node.mover, node.opponent);
+        for (int i = length - 1; i >= 0; i--) {
+            path[i].addResult(result);
+            result = WIN - result;
+        }
+    }
+
+    /**
+     * Creates the positions after every move of the given position, unless
+     * another thread has already done so.
+     *
+     * @param node the position.
+     * @return the children of the position.
+     */
+    private Node[] expand(Node node) {
+        Node[] created = new Node[COLS];
+        int count = 0;
+        long tokens = node.mover | node.opponent;
+        for (int col = 0; col < COLS; col++) {
+            long drop = Bitboards.dropBit(tokens, col);
+            if (drop != 0) {
+                created[col] = new Node(node.opponent, node.mover | drop);
+                count++;
+            }
+        }
+        Node[] existing = node.setChildren(created);
+        if (existing != null) {
+            return existing;
+        }
+        nodes.addAndGet(count);
+        return created;
+    }
+
+    /**
+     * Selects the child with the best upper confidence bound. Children not
+     * visited yet come first.
+     *
+     * @param children the children, {@code null} for full columns.
+     * @param visits   the visits of the parent.
+     * @return the selected child.
+     */
+    private static Node select(Node[] children, long visits) {
+        double logVisits = Math.log(visits);
+        Node best = null;
+        double bestBound = Double.NEGATIVE_INFINITY;
+        for (Node child : children) {
+            if (child == null) {
+                continue;
+            }
+            long stats = child.stats;
+            long childVisits = stats >>> 32;
+            if (childVisits == 0) {
+                return child;
+            }
+            double bound = (stats & 0xFFFFFFFFL) / (2.0 * childVisits)
+                    + EXPLORATION * Math.sqrt(logVisits / childVisits);
+            if (bound > bestBound) {
+                bestBound = bound;
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Plays a random game to the end, in which both players take immediate
+     * wins and block immediate wins of the other player.
+     *
+     * @param mover    the tokens of the player to move.
+     * @param opponent the tokens of the other player.
+     * @return the result for the other player, who made the last move.
+     */
+    private static int randomGame(long mover, long opponent) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int[] moves = new int[COLS];
+        // the result for the other player, if the player to move wins
+        int result = LOSS;
+        while (true) {
+            long tokens = mover | opponent;
+            int count = 0;
+            long forced = 0;
+            for (int col = 0; col < COLS; col++) {
+                long drop = Bitboards.dropBit(tokens, col);
+                if (drop == 0) {
+                    continue;
+                }
+                if (Bitboards.hasWon(mover | drop)) {
+                    return result;
+                } else if (forced == 0 && Bitboards.hasWon(opponent | drop)) {
+                    forced = drop;
+                }
+                moves[count++] = col;
+            }
+            if (count == 0) {
+                return DRAW;
+            }
+            long drop = forced != 0 ? forced
+                    : Bitboards.dropBit(tokens, moves[random.nextInt(count)]);
+            long moved = mover | drop;
+            mover = opponent;
+            opponent = moved;
+            result = WIN - result;
+        }
+    }
+
+    /**
+     * Finds a move, which wins immediately.
+     *
+     * @param mover    the tokens of the player to move.
+     * @param opponent the tokens of the other player.
+     * @return the column of the move, or -1 if there is none.
+     */
+    private static int winningMove(long mover, long opponent) {
+        long tokens = mover | opponent;
+        for (int col = 0; col < COLS; col++) {
+            long drop = Bitboards.dropBit(tokens, col);
+            if (drop != 0 && Bitboards.hasWon(mover | drop)) {
+                return col;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the column of the child of the root visited most often, the
+     * better result breaking ties.
+     */
+    private int mostVisited() {
+        int best = -1;
+        long bestStats = 0;
+        for (int col = 0; col < COLS; col++) {
+            Node child = root.children[col];
+            // the visits in the upper bits take precedence
+            if (child != null && (best < 0
+                    || Long.compareUnsigned(child.stats, bestStats) > 0)) {
+                best = col;
+                bestStats = child.stats;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return the average result of each move of the root between -500 for
+     * a certain loss and 500 for a certain win, or
+     * {@link SearchIteration#NO_SCORE} for full columns.
+     */
+    private int[] scores() {
+        int[] scores = new int[COLS];
+        for (int col = 0; col < COLS; col++) {
+            Node child = root.children[col];
+            long stats = child == null ? 0 : child.stats;
+            long visits = stats >>> 32;
+            scores[col] = child == null ? SearchIteration.NO_SCORE
+                    : visits == 0 ? 0
+                    : (int) ((stats & 0xFFFFFFFFL) * 500 / visits) - 500;
+        }
+        return scores;
+    }
+
+    /**
+     * @return the length of the line of the moves visited most often, at
+     * least 1.
+     */
+    private int principalDepth() {
+        int depth = 0;
+        Node node = root;
+        while (node != null && node.children != null) {
+            Node next = null;
+            for (Node child : node.children) {
+                if (child != null
+                        && (next == null || child.visits() > next.visits())) {
+                    next = child;
+                }
+            }
+            node = next;
+            depth++;
+        }
+        return Math.max(1, depth);
+    }
+
+    /**
+     * A position of the tree.
+     */
+    private static final class Node {
+
+        /**
+         * Handles for the atomic updates of the fields.
+         */
+        private static final VarHandle STATS;
+        private static final VarHandle CHILDREN;
+
+        static {
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                STATS = lookup.findVarHandle(Node.class, "stats", long.class);
+                CHILDREN = lookup.findVarHandle(Node.class, "children",
+                        Node[].class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        /**
+         * The tokens of the player to move and of the other player.
+         */
+        private final long mover;
+        private final long opponent;
+
+        /**
+         * The result for the player, who made the move into this position,
+         * if the game is over, otherwise {@link MonteCarloSearch#OPEN}.
+         */
+        private final int result;
+
+        /**
+         * The number of visits in the upper 32 bits, and the sum of the
+         * results for the player, who made the move into this position, in
+         * half points in the lower 32 bits.
+         */
+        private volatile long stats;
+
+        /**
+         * The positions after each move, {@code null} for full columns, or
+         * {@code null} if this position was not expanded yet.
+         */
+        private volatile Node[] children;
+
+        /**
+         * Constructs a new position.
+         *
+         * @param mover    the tokens of the player to move.
+         * @param opponent the tokens of the other player.
+         */
+        Node(long mover, long opponent) {
+            this.mover = mover;
+            this.opponent = opponent;
+            if (Bitboards.hasWon(opponent)) {
+                result = WIN;
+            } else if (Long.bitCount(mover | opponent) == ROWS * COLS) {
+                result = DRAW;
+            } else {
+                result = OPEN;
+            }
+        }
+
+        /**
+         * @return the number of visits.
+         */
+        long visits() {
+            return stats >>> 32;
+        }
+
+        /**
+         * Adds a visit without a result.
+         */
+        void addVisit() {
+            STATS.getAndAdd(this, 1L << 32);
+        }
+
+        /**
+         * Adds the result of a visit.
+         *
+         * @param result the result for the player, who made the move into
+         *               this position, in half points.
+         */
+        void addResult(int result) {
+            STATS.getAndAdd(this, (long) result);
+        }
+
+        /**
+         * Sets the children of this position, unless another thread has
+         * already set them.
+         *
+         * @param created the children.
+         * @return the children set before, or {@code null} if the given
+         * ones were set.
+         */
+        Node[] setChildren(Node[] created) {
+            return (Node[]) CHILDREN.compareAndExchange(this, null, created);
+        }
+    }
+
+    /**
+     * Holder of the lazily created pool of helper threads, which is shared
+     * by all searches.
+     */
+    private static final class Helpers {
+
+        /**
+         * The helper threads, which are free for searches. Together with the
+         * calling threads, the helpers occupy at most all processors.
+         */
+        private static final Semaphore PERMITS = new Semaphore(Math.max(0,
+                Runtime.getRuntime().availableProcessors() - 1));
+
+        /**
+         * The pool of daemon threads, which holds at most as many running
+         * threads as there are {@link Helpers#PERMITS}.
+         */
+        private static final ExecutorService POOL;
+
+        static {
+            AtomicInteger count = new AtomicInteger();
+            POOL = Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable,
+                        "engine-mcts-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        /**
+         * Takes as many of the requested helper threads as are free.
+         *
+         * @param requested the number of helper threads requested.
+         * @return the number of helper threads granted, which have to be
+         * released once the search is over.
+         */
+        static int acquire(int requested) {
+            int granted = requested;
+            while (granted > 0 && !PERMITS.tryAcquire(granted)) {
+                granted--;
+            }
+            return granted;
+        }
+    }
+}
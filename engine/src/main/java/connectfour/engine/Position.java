@@ -0,0 +1,53 @@
+package connectfour.engine;
+
+import connectfour.model.utility.Bitboards;
+
+import static connectfour.model.Board.COLS;
+import static connectfour.model.Board.ROWS;
+
+/**
+ * A position searched by an {@link Engine}, given by the bitboards of both
+ * players as described in {@link Bitboards}.
+ *
+ * @param mover    the tokens of the player to move, for whom the best move
+ *                 is searched.
+ * @param opponent the tokens of the other player.
+ * @param level    the level of the game, which engines map to their
+ *                 budget, from 1 to
+ *                 {@link connectfour.model.GameState#MAX_LEVEL}.
+ */
+public record Position(long mover, long opponent, int level) {
+
+    /**
+     * Validates the given values.
+     *
+     * @throws IllegalArgumentException If a slot holds tokens of both players
+     *                                  or the level is not positive.
+     */
+    public Position {
+        if ((mover & opponent) != 0) {
+            throw new IllegalArgumentException(
+                    "A slot cannot hold two tokens!");
+        } else if (level < 1) {
+            throw new IllegalArgumentException("The level must be positive!");
+        }
+    }
+
+    /**
+     * @return the number of empty slots.
+     */
+    public int emptySlots() {
+        return ROWS * COLS - Long.bitCount(mover | opponent);
+    }
+
+    /**
+     * Checks if the player to move can drop a token into the given column.
+     *
+     * @param col the column, starting from 0.
+     * @return true if the column is not full.
+     */
+    public boolean isLegal(int col) {
+        return col >= 0 && col < COLS
+                && Bitboards.dropBit(mover | opponent, col) != 0;
+    }
+}
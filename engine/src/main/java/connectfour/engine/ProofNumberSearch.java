@@ -0,0 +1,366 @@
+package connectfour.engine;
+
+import connectfour.model.Board;
+import connectfour.model.Player;
+import connectfour.model.exceptions.IllegalMoveException;
+import connectfour.model.utility.Bitboards;
+
+import static connectfour.model.Board.COLS;
+import static connectfour.model.Board.ROWS;
+
+/**
+ * Proves or disproves that a player has a forced win with a proof-number
+ * search.
+ * <p>
+ * The search grows a game tree, whose positions carry a proof number, the
+ * number of positions still to be won to prove the win, and a disproof
+ * number, the number of positions still to be defended to disprove it. It
+ * always expands the most-proving position, i.e. the cheapest position
+ * whose solution changes the numbers of the root. Unlike the full-width
+ * search of {@link connectfour.model.GameState}, it therefore follows
+ * forcing lines to any depth and ignores moves once a refutation is known.
+ * <p>
+ * The positions are kept in memory until the search ends, so the search
+ * stops with {@link ProofResult.Outcome#UNKNOWN} once the tree exceeds its
+ * memory limit. A draw counts as a disproof.
+ */
+public final class ProofNumberSearch {
+
+    /**
+     * The estimated size of a position in the tree in bytes, including its
+     * share of the array of its parent's children.
+     */
+    public static final int BYTES_PER_NODE = 64;
+
+    /**
+     * The proof or disproof number of a solved position.
+     */
+    private static final int INFINITY = Integer.MAX_VALUE;
+
+    /**
+     * The maximum number of positions in the tree.
+     */
+    private final long maxNodes;
+
+    /**
+     * The number of positions in the tree.
+     */
+    private long nodes;
+
+    /**
+     * Constructs a new ProofNumberSearch.
+     *
+     * @param memory the memory the tree may occupy at most in bytes.
+     * @throws IllegalArgumentException If the memory is not positive.
+     */
+    public ProofNumberSearch(long memory) {
+        if (memory < BYTES_PER_NODE) {
+            throw new IllegalArgumentException(
+                    "The memory must hold at least one node!");
+        }
+        maxNodes = memory / BYTES_PER_NODE;
+    }
+
+    /**
+     * Searches for a forced win of the given player.
+     *
+     * @param board    the position.
+     * @param attacker the player, whose win is to be proven.
+     * @return the result of the search.
+     * @throws IllegalMoveException     The game is already over.
+     * @throws IllegalArgumentException The attacker is neither the human nor
+     *                                  the machine.
+     * @throws InterruptedException     The executing thread was interrupted.
+     */
+    public ProofResult prove(Board board, Player attacker)
+            throws InterruptedException {
+        if (attacker != Player.HUMAN && attacker != Player.MACHINE) {
+            throw new IllegalArgumentException("Invalid attacker!");
+        } else if (board.isGameOver()) {
+            throw new IllegalMoveException("The game is over!");
+        }
+        long start = System.nanoTime();
+        long attackerBits = 0;
+        long defenderBits = 0;
+        for (int row = 0; row < ROWS; row++) {
+            for (int col = 0; col < COLS; col++) {
+                Player slot = board.getSlot(row, col);
+                if (slot == attacker) {
+                    attackerBits |= 1L << Bitboards.bit(row, col);
+                } else if (slot == Player.oppositePlayer(attacker)) {
+                    defenderBits |= 1L << Bitboards.bit(row, col);
+                }
+            }
+        }
+
+        boolean attackerToMove = board.getPlayerToMove() == null
+                || board.getPlayerToMove() == attacker;
+        nodes = 1;
+        Node root = attackerToMove
+                ? new Node(null, attackerBits, defenderBits, true)
+                : new Node(null, defenderBits, attackerBits, false);
+        while (root.proof != 0 && root.disproof != 0 && nodes < maxNodes) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            Node mostProving = root.selectMostProving();
+            mostProving.expand();
+            mostProving.updateAncestors();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        if (root.proof == 0) {
+            int col = -1;
+            if (root.or) {
+                if (root.children == null) {
+                    // won with the next move, which is found among the
+                    // children
+                    root.expand();
+                }
+                for (int i = 0; i < COLS && col < 0; i++) {
+                    if (root.children[i] != null
+                            && root.children[i].proof == 0) {
+                        col = i;
+                    }
+                }
+            }
+            return new ProofResult(ProofResult.Outcome.WIN, col,
+                    root.proofSize(), nodes, elapsed);
+        } else if (root.disproof == 0) {
+            return new ProofResult(ProofResult.Outcome.NO_WIN, -1,
+                    root.disproofSize(), nodes, elapsed);
+        } else {
+            return new ProofResult(ProofResult.Outcome.UNKNOWN, -1, 0, nodes,
+                    elapsed);
+        }
+    }
+
+    /**
+     * Adds two proof or disproof numbers, where the sum of solved positions
+     * stays infinite.
+     *
+     * @param a the first number.
+     * @param b the second number.
+     * @return the sum, at most {@link ProofNumberSearch#INFINITY}.
+     */
+    private static int add(int a, int b) {
+        return (int) Math.min(INFINITY, (long) a + b);
+    }
+
+    /**
+     * A position of the tree.
+     */
+    private final class Node {
+
+        /**
+         * The parent position, or {@code null} for the root.
+         */
+        private final Node parent;
+
+        /**
+         * The tokens of the player to move and of the other player.
+         */
+        private final long mover;
+        private final long opponent;
+
+        /**
+         * Flag indicating if the attacker is to move, i.e. one proven child
+         * proves this position. Otherwise every child has to be proven.
+         */
+        private final boolean or;
+
+        /**
+         * The proof and disproof numbers.
+         */
+        private int proof;
+        private int disproof;
+
+        /**
+         * The positions after each move, or {@code null} if this position
+         * was not expanded yet.
+         */
+        private Node[] children;
+
+        /**
+         * Constructs a new position and sets its numbers.
+         *
+         * @param parent   the parent position, or {@code null}.
+         * @param mover    the tokens of the player to move.
+         * @param opponent the tokens of the other player.
+         * @param or       if the attacker is to move.
+         */
+        Node(Node parent, long mover, long opponent, boolean or) {
+            this.parent = parent;
+            this.mover = mover;
+            this.opponent = opponent;
+            this.or = or;
+            evaluate();
+        }
+
+        /**
+         * Sets the numbers of this unexpanded position. Lost, drawn and
+         * immediately won positions are solved, the numbers of all others
+         * are the number of moves for the player who needs all of them.
+         */
+        private void evaluate() {
+            long tokens = mover | opponent;
+            boolean solved = true;
+            boolean attackerWins;
+            if (Bitboards.hasWon(opponent)) {
+                attackerWins = !or;
+            } else if (Long.bitCount(tokens) == ROWS * COLS) {
+                attackerWins = false;
+            } else if (hasWinningMove()) {
+                attackerWins = or;
+            } else {
+                solved = false;
+                attackerWins = false;
+            }
+
+            if (solved) {
+                proof = attackerWins ? 0 : INFINITY;
+                disproof = attackerWins ? INFINITY : 0;
+            } else {
+                int moves = 0;
+                for (int col = 0; col < COLS; col++) {
+                    if (Bitboards.dropBit(tokens, col) != 0) {
+                        moves++;
+                    }
+                }
+                proof = or ? 1 : moves;
+                disproof = or ? moves : 1;
+            }
+        }
+
+        /**
+         * @return true if the player to move can win with the next move.
+         */
+        private boolean hasWinningMove() {
+            long tokens = mover | opponent;
+            for (int col = 0; col < COLS; col++) {
+                long drop = Bitboards.dropBit(tokens, col);
+                if (drop != 0 && Bitboards.hasWon(mover | drop)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Finds the most-proving position below this one, by following the
+         * child with the smallest proof number where the attacker is to move
+         * and with the smallest disproof number otherwise.
+         *
+         * @return the unexpanded most-proving position.
+         */
+        Node selectMostProving() {
+            Node node = this;
+            while (node.children != null) {
+                Node next = null;
+                for (Node child : node.children) {
+                    if (child != null && (node.or
+                            ? child.proof == node.proof
+                            : child.disproof == node.disproof)) {
+                        next = child;
+                        break;
+                    }
+                }
+                node = next;
+            }
+            return node;
+        }
+
+        /**
+         * Creates the positions after every move.
+         */
+        void expand() {
+            children = new Node[COLS];
+            long tokens = mover | opponent;
+            for (int col = 0; col < COLS; col++) {
+                long drop = Bitboards.dropBit(tokens, col);
+                if (drop != 0) {
+                    children[col] = new Node(this, opponent, mover | drop,
+                            !or);
+                    nodes++;
+                }
+            }
+        }
+
+        /**
+         * Recalculates the numbers of this position and its ancestors from
+         * their children, until they do not change anymore.
+         */
+        void updateAncestors() {
+            Node node = this;
+            while (node != null) {
+                int oldProof = node.proof;
+                int oldDisproof = node.disproof;
+                node.update();
+                if (node != this && node.proof == oldProof
+                        && node.disproof == oldDisproof) {
+                    break;
+                }
+                node = node.parent;
+            }
+        }
+
+        /**
+         * Calculates the numbers of this expanded position from its
+         * children. Where the attacker is to move, the proof number is the
+         * smallest one of the children and the disproof number their sum,
+         * otherwise it is the other way round.
+         */
+        private void update() {
+            int min = INFINITY;
+            int sum = 0;
+            for (Node child : children) {
+                if (child != null) {
+                    min = Math.min(min, or ? child.proof : child.disproof);
+                    sum = add(sum, or ? child.disproof : child.proof);
+                }
+            }
+            proof = or ? min : sum;
+            disproof = or ? sum : min;
+        }
+
+        /**
+         * @return the number of positions of the proof tree of this proven
+         * position.
+         */
+        long proofSize() {
+            long size = 1;
+            if (children == null) {
+                return size;
+            }
+            for (Node child : children) {
+                if (child != null && child.proof == 0) {
+                    size += child.proofSize();
+                    if (or) {
+                        break;
+                    }
+                }
+            }
+            return size;
+        }
+
+        /**
+         * @return the number of positions of the disproof tree of this
+         * disproven position.
+         */
+        long disproofSize() {
+            long size = 1;
+            if (children == null) {
+                return size;
+            }
+            for (Node child : children) {
+                if (child != null && child.disproof == 0) {
+                    size += child.disproofSize();
+                    if (!or) {
+                        break;
+                    }
+                }
+            }
+            return size;
+        }
+    }
+}
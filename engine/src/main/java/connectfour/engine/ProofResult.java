@@ -0,0 +1,39 @@
+package connectfour.engine;
+
+/**
+ * The result of a {@link ProofNumberSearch}.
+ *
+ * @param outcome      whether the player has a forced win.
+ * @param col          the column of the winning move, starting from 0, or -1
+ *                     if the win was not proven or the other player is to
+ *                     move.
+ * @param proofSize    the number of positions of the proof or disproof
+ *                     tree, which is all a verifier would have to search, or
+ *                     0 if the outcome is unknown.
+ * @param nodes        the number of positions searched.
+ * @param elapsedNanos the time of the search in nanoseconds.
+ */
+public record ProofResult(Outcome outcome, int col, long proofSize,
+                          long nodes, long elapsedNanos) {
+
+    /**
+     * The outcome of a proof.
+     */
+    public enum Outcome {
+
+        /**
+         * The player wins against every defence.
+         */
+        WIN,
+
+        /**
+         * The other player can at least draw against every attack.
+         */
+        NO_WIN,
+
+        /**
+         * The memory limit was reached before the proof was complete.
+         */
+        UNKNOWN
+    }
+}
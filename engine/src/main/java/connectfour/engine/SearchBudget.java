@@ -0,0 +1,169 @@
+package connectfour.engine;
+
+import connectfour.model.Board;
+import connectfour.model.SearchLimits;
+
+/**
+ * Keeps track of the time, nodes and memory used by a search with
+ * {@link SearchLimits}.
+ * <p>
+ * The budget is only enforced after the first iteration, which always
+ * completes. Before an iteration is started, its cost is predicted from the
+ * previous iteration by the growth of the game tree between the last two
+ * iterations.
+ */
+final class SearchBudget {
+
+    /**
+     * The number of nodes between two checks of the time, since reading the
+     * clock is more expensive than creating a node.
+     */
+    private static final int CLOCK_INTERVAL = 256;
+
+    /**
+     * The limits, where unlimited values are {@link Long#MAX_VALUE}.
+     */
+    private final long maxNodes;
+    private final long maxTreeNodes;
+    private final long maxNanos;
+
+    /**
+     * The start of the search in nanoseconds.
+     */
+    private final long start = System.nanoTime();
+
+    /**
+     * The number of nodes created by the search in total.
+     */
+    private long nodes = 0;
+
+    /**
+     * The number of nodes of the game tree of the current iteration.
+     */
+    private long treeNodes = 0;
+
+    /**
+     * The number of nodes and the time of the last completed iteration.
+     */
+    private long lastTreeNodes = 0;
+    private long lastNanos = 0;
+
+    /**
+     * The depth of the last completed iteration, or 0 if none completed.
+     */
+    private int completedDepth = 0;
+
+    /**
+     * The factor the game tree grew by between the last two iterations.
+     */
+    private double growth = Board.COLS;
+
+    /**
+     * The start of the current iteration in nanoseconds.
+     */
+    private long iterationStart = start;
+
+    /**
+     * Flag indicating if the budget is enforced in the current iteration.
+     */
+    private boolean enforced = false;
+
+    /**
+     * Constructs a new SearchBudget.
+     *
+     * @param limits the limits of the search.
+     */
+    SearchBudget(SearchLimits limits) {
+        maxNodes = limits.nodes() > 0 ? limits.nodes() : Long.MAX_VALUE;
+        maxTreeNodes = limits.memory() > 0
+                ? Math.max(1, limits.memory() / SearchLimits.BYTES_PER_NODE)
+                : Long.MAX_VALUE;
+        maxNanos = limits.timeout() != null
+                ? limits.timeout().toNanos() : Long.MAX_VALUE;
+    }
+
+    /**
+     * Checks if the next iteration is predicted to complete within the
+     * budget.
+     *
+     * @return true if the next iteration should be started.
+     */
+    boolean allowsIteration() {
+        if (lastTreeNodes == 0) {
+            return true;
+        }
+        double predictedNodes = lastTreeNodes * growth;
+        double predictedNanos = lastNanos * growth;
+        return nodes + predictedNodes <= maxNodes
+                && predictedNodes <= maxTreeNodes
+                && elapsedNanos() + predictedNanos <= maxNanos;
+    }
+
+    /**
+     * Starts a new iteration.
+     */
+    void startIteration() {
+        enforced = lastTreeNodes > 0;
+        treeNodes = 0;
+        iterationStart = System.nanoTime();
+    }
+
+    /**
+     * Completes the current iteration.
+     * @param depth the depth of the iteration.
+     */
+    void completeIteration(int depth) {
+        completedDepth = depth;
+        if (lastTreeNodes > 0) {
+            growth = Math.max(1, (double) treeNodes / lastTreeNodes);
+        }
+        lastTreeNodes = treeNodes;
+        lastNanos = System.nanoTime() - iterationStart;
+    }
+
+    /**
+     * Counts a new node of the game tree.
+     *
+     * @return false if the budget is exhausted, true otherwise.
+     */
+    boolean addNode() {
+        nodes++;
+        treeNodes++;
+        if (!enforced) {
+            return true;
+        } else if (nodes > maxNodes || treeNodes > maxTreeNodes) {
+            return false;
+        }
+        return treeNodes % CLOCK_INTERVAL != 0
+                || elapsedNanos() <= maxNanos;
+    }
+
+    /**
+     * @return the number of nodes created by the search in total.
+     */
+    long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return the depth of the last completed iteration, or 0 if none
+     * completed.
+     */
+    int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    /**
+     * @return the number of nodes of the game tree of the current iteration.
+     */
+    long getTreeNodes() {
+        return treeNodes;
+    }
+
+    /**
+     * @return the time since the start of the search in nanoseconds.
+     */
+    long elapsedNanos() {
+        return System.nanoTime() - start;
+    }
+}
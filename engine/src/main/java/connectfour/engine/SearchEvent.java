@@ -0,0 +1,54 @@
+package connectfour.engine;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event of a search of the engine, either for a machine move
+ * or for an analysis. The duration of the event is the time of the search.
+ * <p>
+ * The fields are only set if the event is committed, so a disabled event
+ * costs nearly nothing.
+ */
+@Name("connectfour.Search")
+@Label("Search")
+@Category({"Connect Four", "Engine"})
+@Description("A search of the engine for the best move of a position.")
+@StackTrace(false)
+final class SearchEvent extends Event {
+
+    /**
+     * The key of the searched position, see
+     * {@link connectfour.model.utility.Bitboards#key(long, long)}.
+     */
+    @Label("Position Key")
+    long positionKey;
+
+    /**
+     * The depth the search was started with.
+     */
+    @Label("Depth")
+    int depth;
+
+    /**
+     * The depth of the deepest completed iteration, or 0 if none completed.
+     */
+    @Label("Completed Depth")
+    int completedDepth;
+
+    /**
+     * The number of nodes created by all iterations.
+     */
+    @Label("Nodes")
+    long nodes;
+
+    /**
+     * The column of the best move, starting from 0, or -1 if none was found.
+     */
+    @Label("Best Column")
+    int bestCol;
+}
@@ -0,0 +1,50 @@
+package connectfour.engine;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event of a single iteration of a search, i.e. building
+ * and evaluating the game tree up to one depth. The duration of the event
+ * is the time of the iteration.
+ * <p>
+ * The fields are only set if the event is committed, so a disabled event
+ * costs nearly nothing.
+ */
+@Name("connectfour.SearchIteration")
+@Label("Search Iteration")
+@Category({"Connect Four", "Engine"})
+@Description("An iteration of a search up to one depth.")
+@StackTrace(false)
+final class SearchIterationEvent extends Event {
+
+    /**
+     * The key of the searched position, see
+     * {@link connectfour.model.utility.Bitboards#key(long, long)}.
+     */
+    @Label("Position Key")
+    long positionKey;
+
+    /**
+     * The depth of the game tree.
+     */
+    @Label("Depth")
+    int depth;
+
+    /**
+     * The number of nodes of the game tree.
+     */
+    @Label("Nodes")
+    long nodes;
+
+    /**
+     * Flag indicating if the iteration completed, or was stopped by the
+     * budget of the search.
+     */
+    @Label("Completed")
+    boolean completed;
+}
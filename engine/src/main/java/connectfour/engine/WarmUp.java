@@ -0,0 +1,53 @@
+package connectfour.engine;
+
+import connectfour.model.Board;
+import connectfour.model.SearchLimits;
+
+import java.time.Duration;
+import java.util.Random;
+
+/**
+ * Searches random positions for a while, so that the JIT compiler has
+ * compiled the search before the first machine move is requested.
+ * <p>
+ * The positions are searched at their level, alternately with and without
+ * a listener, like the front ends do. The warm-up ends once its duration
+ * has passed or its thread is interrupted, which
+ * {@link EngineService} does as soon as a search is submitted.
+ */
+final class WarmUp implements Runnable {
+
+    /**
+     * The time the warm-up may take at most.
+     */
+    private final Duration duration;
+
+    /**
+     * Constructs a new WarmUp.
+     *
+     * @param duration the time the warm-up may take at most.
+     */
+    WarmUp(Duration duration) {
+        this.duration = duration;
+    }
+
+    /**
+     * Searches random positions until the duration has passed or the thread
+     * is interrupted.
+     */
+    @Override
+    public void run() {
+        long end = System.nanoTime() + duration.toNanos();
+        Random random = new Random(duration.toNanos());
+        try {
+            for (int i = 0; System.nanoTime() < end
+                    && !Thread.currentThread().isInterrupted(); i++) {
+                Board position = Calibration.randomPosition(random);
+                position.machineMove(SearchLimits.DEFAULT,
+                        i % 2 == 0 ? null : iteration -> { });
+            }
+        } catch (InterruptedException e) {
+            // a search was submitted, which needs the processor now
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package connectfour.model;
+
+/**
+ * A move found by the analysis of a position, see
+ * {@link Board#analyse(int, SearchLimits)}.
+ * <p>
+ * The principal variation is the sequence of moves both players make, if
+ * each one plays the best move found by the search, starting with this move.
+ *
+ * @param col       the column of the move, starting from 0.
+ * @param score     the score of the move for the player to move, the higher
+ *                  the better.
+ * @param variation the columns of the principal variation, starting with
+ *                  {@code col}.
+ */
+public record AnalysedMove(int col, int score, int[] variation) {
+
+    /**
+     * Constructs a new AnalysedMove.
+     *
+     * @throws IllegalArgumentException If the variation does not start with
+     *                                  the move.
+     */
+    public AnalysedMove {
+        if (variation.length == 0 || variation[0] != col) {
+            throw new IllegalArgumentException(
+                    "The variation must start with the move!");
+        }
+        variation = variation.clone();
+    }
+
+    /**
+     * @return a copy of the columns of the principal variation.
+     */
+    @Override
+    public int[] variation() {
+        return variation.clone();
+    }
+}
@@ -1,8 +1,13 @@
 package connectfour.model;
 
+import connectfour.engine.Engine;
+import connectfour.engine.Engines;
 import connectfour.model.exceptions.IllegalMoveException;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * The Connect Four game originally published by Milton Bradley (MB) in 1974.
@@ -64,6 +69,67 @@ public interface Board extends Cloneable {
      */
     Board machineMove() throws InterruptedException;
 
+    /**
+     * Executes a machine move like {@link #machineMove()} within the given
+     * limits and reports the progress of the search to the given listener.
+     * The search deepens iteratively if a listener is given or the limits
+     * have a budget. The listener is called after each depth with the scores
+     * of all columns.
+     *
+     * @param limits   The limits of the search.
+     * @param listener Receives the progress of the search, may be
+     *                 {@code null}.
+     * @return A new board with the move executed.
+     * @throws IllegalMoveException The game is already over, or it is not
+     *                              the machine's turn.
+     * @throws InterruptedException {@link Thread#interrupt()} was called on the
+     *         executing thread. Thus, the execution stops prematurely.
+     */
+    Board machineMove(SearchLimits limits, SearchListener listener)
+            throws InterruptedException;
+
+    /**
+     * Analyses the moves of the player to move by a single search within the
+     * given limits, without changing this instance. Used for hints and to
+     * compare engines.
+     * @param count  The maximum number of moves.
+     * @param limits The limits of the search.
+     * @return The best moves, best first, each with its score and principal
+     * variation. Moves of equal score are ordered by column. The list is
+     * empty if the limits did not suffice to complete a search.
+     * @throws IllegalMoveException     The game is already over.
+     * @throws IllegalArgumentException The count is not positive.
+     * @throws InterruptedException {@link Thread#interrupt()} was called on the
+     *         executing thread. Thus, the execution stops prematurely.
+     */
+    List<AnalysedMove> analyse(int count, SearchLimits limits)
+            throws InterruptedException;
+
+    /**
+     * Executes a machine move asynchronously on the shared engine. This method
+     * does not change the state of this instance. The returned future is
+     * completed with a new board with the move executed.
+     * <p>
+     * Cancelling the future stops the search.
+     *
+     * @param limits The limits of the search.
+     * @return A future completed by the engine's worker thread.
+     */
+    CompletableFuture<Board> machineMoveAsync(SearchLimits limits);
+
+    /**
+     * Executes a machine move asynchronously on the shared engine like
+     * {@link #machineMoveAsync(SearchLimits)}, but completes the returned
+     * future on the given executor. Thus, actions depending on the future run
+     * on that executor, unless the future is cancelled.
+     *
+     * @param limits   The limits of the search.
+     * @param executor The executor completing the future.
+     * @return A future completed by the given executor.
+     */
+    CompletableFuture<Board> machineMoveAsync(SearchLimits limits,
+                                              Executor executor);
+
     /**
      * Sets the skill level of the machine.
      *
@@ -71,6 +137,29 @@ public interface Board extends Cloneable {
      */
     void setLevel(int level);
 
+    /**
+     * Gets the skill level of the machine.
+     *
+     * @return The skill as number.
+     */
+    int getLevel();
+
+    /**
+     * Sets the engine calculating the machine moves. Boards created by moves
+     * on this board keep it.
+     *
+     * @param engine The engine, see {@link Engines}.
+     */
+    void setEngine(Engine engine);
+
+    /**
+     * Gets the engine calculating the machine moves.
+     *
+     * @return The engine, {@link Engines#defaultEngine()} unless set
+     * otherwise.
+     */
+    Engine getEngine();
+
     /**
      * Checks if game is over. Either one player has won or there is a tie and
      * all slots are filled with tiles.
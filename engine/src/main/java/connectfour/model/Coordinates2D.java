@@ -0,0 +1,133 @@
+package connectfour.model;
+
+/**
+ * Two-dimensional coordinate.
+ * <p>
+ * The coordinates of the slots of a board are canonical instances, which
+ * are obtained by {@link Coordinates2D#of(int, int)} without allocating. This
+ * covers both rows 0 to {@link Board#ROWS} and columns 0 to
+ * {@link Board#COLS}, so the coordinates starting from 0 and the converted
+ * ones starting from 1 are cached. Alternatively, a slot can be identified
+ * by its packed cell index, see {@link Coordinates2D#index(int, int)}.
+ *
+ * @param row the row
+ * @param col the col
+ */
+public record Coordinates2D(int row, int col)
+        implements Comparable<Coordinates2D> {
+
+    /**
+     * The number of cells of a board, which is the upper bound of the cell
+     * indices.
+     */
+    public static final int CELLS = Board.ROWS * Board.COLS;
+
+    /**
+     * The canonical instances of rows 0 to {@code ROWS} and columns 0 to
+     * {@code COLS}, stored row by row.
+     */
+    private static final Coordinates2D[] CACHE = createCache();
+
+    /**
+     * Gets the coordinate with the given row and column. Returns the
+     * canonical instance, if the coordinate is cached.
+     *
+     * @param row the row
+     * @param col the col
+     * @return the coordinate.
+     */
+    public static Coordinates2D of(int row, int col) {
+        if (row >= 0 && row <= Board.ROWS && col >= 0 && col <= Board.COLS) {
+            return CACHE[row * (Board.COLS + 1) + col];
+        }
+        return new Coordinates2D(row, col);
+    }
+
+    /**
+     * Gets the coordinate of the slot with the given cell index.
+     *
+     * @param index the cell index, see {@link Coordinates2D#index(int, int)}.
+     * @return the canonical coordinate.
+     * @throws IllegalArgumentException If the index is not on the board.
+     */
+    public static Coordinates2D ofIndex(int index) {
+        if (index < 0 || index >= CELLS) {
+            throw new IllegalArgumentException("Index out of bounds");
+        }
+        return of(index / Board.COLS, index % Board.COLS);
+    }
+
+    /**
+     * Packs the row and the column of a slot into a cell index from 0 to
+     * {@link Coordinates2D#CELLS} - 1, row by row starting at the top left
+     * corner.
+     *
+     * @param row the row, starting from 0.
+     * @param col the col, starting from 0.
+     * @return the cell index.
+     */
+    public static int index(int row, int col) {
+        return row * Board.COLS + col;
+    }
+
+    /**
+     * @return the cell index of this coordinate, see
+     * {@link Coordinates2D#index(int, int)}.
+     */
+    public int index() {
+        return index(row, col);
+    }
+
+    /**
+     * Returns a string representation of this coordinate in the
+     * following format:
+     * <p>(row,col)</p>
+     *
+     * @return the string representation of this coordinate.
+     */
+    @Override
+    public String toString() {
+        return "(" + row + ", " + col + ")";
+    }
+
+    /**
+     * Compares this coordinate with the given one.
+     * First compares the row then the col properties.
+     *
+     * @param o the coordinate to be compared
+     * @return a negative integer, zero, or a positive integer as this object
+     * is less than, equal to, or greater than the specified object.
+     */
+    @Override
+    public int compareTo(Coordinates2D o) {
+        if (this.row < o.row) {
+            return -1;
+        } else if (this.row > o.row) {
+            return 1;
+        }
+
+        if (this.col < o.col) {
+            return -1;
+        } else if (this.col > o.col) {
+            return 1;
+        }
+        return 0;
+    }
+
+    /**
+     * Creates the canonical instances.
+     *
+     * @return the instances, row by row.
+     */
+    private static Coordinates2D[] createCache() {
+        Coordinates2D[] cache
+                = new Coordinates2D[(Board.ROWS + 1) * (Board.COLS + 1)];
+        for (int row = 0; row <= Board.ROWS; row++) {
+            for (int col = 0; col <= Board.COLS; col++) {
+                cache[row * (Board.COLS + 1) + col]
+                        = new Coordinates2D(row, col);
+            }
+        }
+        return cache;
+    }
+}
@@ -0,0 +1,151 @@
+package connectfour.model;
+
+import connectfour.model.utility.ConnectFourUtility;
+
+/**
+ * The moves of a game in progress, which can be taken back and made again.
+ * <p>
+ * Instead of keeping every board of the game, only the columns of the moves
+ * are stored. A single working copy of the board is updated by making and
+ * unmaking moves, so taking back or repeating a move takes constant time.
+ * The boards handed out are copies of the working copy, which are treated as
+ * immutable like all other boards.
+ * <p>
+ * Adding a move after taking back moves discards the moves, which could be
+ * made again.
+ */
+public class GameHistory {
+
+    /**
+     * The columns of all moves, starting from 0. The first
+     * {@link GameHistory#size} moves are made, the following ones up to
+     * {@link GameHistory#end} can be made again.
+     */
+    private final byte[] moves = new byte[Board.ROWS * Board.COLS];
+
+    /**
+     * The number of moves made.
+     */
+    private int size = 0;
+
+    /**
+     * The number of moves made or taken back.
+     */
+    private int end = 0;
+
+    /**
+     * The working copy of the board, with the first
+     * {@link GameHistory#size} moves made.
+     */
+    private GameState position = new GameState();
+
+    /**
+     * Constructs an empty GameHistory.
+     */
+    public GameHistory() {
+    }
+
+    /**
+     * Discards all moves and starts a new game.
+     *
+     * @param level the level of the new game.
+     */
+    public void start(int level) {
+        position = new GameState();
+        position.setLevel(level);
+        size = 0;
+        end = 0;
+    }
+
+    /**
+     * Adds the move leading from the current board to the given one. All
+     * moves taken back before are discarded.
+     *
+     * @param board the board with the move made.
+     * @throws IllegalArgumentException The board does not differ from the
+     *                                  current board by exactly one move.
+     */
+    public void add(Board board) {
+        int col = ConnectFourUtility.findMove(position, board);
+        Player player = board.getSlot(
+                ConnectFourUtility.topRow(board, col), col);
+        position.makeMove(col, player);
+        position.setLevel(board.getLevel());
+        position.setEngine(board.getEngine());
+        moves[size++] = (byte) col;
+        end = size;
+    }
+
+    /**
+     * Takes back the last move made.
+     *
+     * @return the board before the move.
+     * @throws IllegalStateException There is no move to take back.
+     */
+    public Board undo() {
+        if (!canUndo()) {
+            throw new IllegalStateException("There is no move to undo!");
+        }
+        size--;
+        position.unmakeMove(moves[size], size > 0 ? moves[size - 1] : -1);
+        return position.clone();
+    }
+
+    /**
+     * Makes the last move taken back again.
+     *
+     * @return the board after the move.
+     * @throws IllegalStateException There is no move to make again.
+     */
+    public Board redo() {
+        if (!canRedo()) {
+            throw new IllegalStateException("There is no move to redo!");
+        }
+        // taking back the move made its player the player to move
+        position.makeMove(moves[size], position.getPlayerToMove());
+        size++;
+        return position.clone();
+    }
+
+    /**
+     * @return true if there is a move to take back.
+     */
+    public boolean canUndo() {
+        return size > 0;
+    }
+
+    /**
+     * @return true if there is a move taken back, which can be made again.
+     */
+    public boolean canRedo() {
+        return size < end;
+    }
+
+    /**
+     * @return the number of moves made.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the column of a move made.
+     *
+     * @param index the index of the move, starting from 0.
+     * @return the column, starting from 0.
+     * @throws IndexOutOfBoundsException No move was made at the index.
+     */
+    public int getMove(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return moves[index];
+    }
+
+    /**
+     * @return a copy of the current board.
+     */
+    public Board current() {
+        return position.clone();
+    }
+}
@@ -0,0 +1,641 @@
+package connectfour.model;
+
+import connectfour.engine.Engine;
+import connectfour.engine.EngineService;
+import connectfour.engine.Engines;
+import connectfour.engine.MinimaxEngine;
+import connectfour.engine.Position;
+import connectfour.model.endgame.EndgameDatabase;
+import connectfour.model.exceptions.IllegalMoveException;
+import connectfour.model.utility.Bitboards;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.IntStream;
+
+/**
+ * Represents a state of a game of ConnectFour.
+ * <p>
+ * An instance of this Class is treated as immutable, therefore a new instance
+ * with the move executed is returned, when calling {@link GameState#move(int)}
+ * or {@link GameState#machineMove()}.
+ * <p>
+ * This class implements public methods to execute a human or machine move,
+ * to change the difficulty level, to get the player to move, to check if the
+ * game is over, to check if there is a winner, to get the witnesses of a win
+ * and the player token of a specific slot.
+ * <p>
+ * The top left corner of {@code board} is the coordinate (0,0).
+ */
+public class GameState implements Board {
+
+    /**
+     * The maximum difficulty setting for the machine.
+     */
+    public static final int MAX_LEVEL = 7;
+
+    /**
+     * 2D-Array representing the board with a slot either being Human, Machine
+     * or Tie.
+     */
+    private Player[][] board = new Player[ROWS][COLS];
+
+    /**
+     * Bitboards of the tokens of each player, as described in
+     * {@link Bitboards}.
+     */
+    private long humanBits = 0;
+    private long machineBits = 0;
+
+    /**
+     * The bit position of the last inserted token, or -1 if the board is
+     * empty.
+     */
+    private int lastBit = -1;
+
+    /**
+     * The current difficulty level and search depth for the game tree.
+     */
+    private int level = 4;
+
+    /**
+     * The engine calculating the machine moves.
+     */
+    private Engine engine = Engines.defaultEngine();
+
+    /**
+     * The player to move.
+     */
+    private Player playerToMove;
+
+    /**
+     * Arrays containing the count of connected groups either player has
+     * respectively, where the count of n sized groups is saved at index n - 2.
+     */
+    private int[] humanGroups = new int[CONNECT - 1];
+    private int[] machineGroups = new int[CONNECT - 1];
+
+
+    /**
+     * Constructs an empty GameState, without any tokens set.
+     */
+    public GameState() {
+        Arrays.stream(board).forEach(row -> Arrays.fill(row, Player.TIE));
+    }
+
+    /**
+     * Constructs the GameState reached by dropping tokens into the given
+     * columns, alternating between the players starting with the given one.
+     *
+     * @param firstPlayer the player dropping the first token.
+     * @param cols        the columns of the moves, starting from 0.
+     * @return the game state, where the player following the last move is
+     * to move.
+     * @throws IllegalArgumentException If the first player is neither the
+     *                                  human nor the machine, or a column is
+     *                                  not found on the grid.
+     * @throws IllegalMoveException     A column is full or the game is over
+     *                                  before the last move.
+     */
+    public static GameState fromMoves(Player firstPlayer, int... cols) {
+        if (firstPlayer != Player.HUMAN && firstPlayer != Player.MACHINE) {
+            throw new IllegalArgumentException("Invalid first player!");
+        }
+        GameState state = new GameState();
+        Player player = firstPlayer;
+        for (int col : cols) {
+            if (state.isGameOver()) {
+                throw new IllegalMoveException("The game is over!");
+            } else if (col < 0 || col > COLS - 1) {
+                throw new IllegalArgumentException("Column out of bounds!");
+            } else if (!state.insertToken(col, player)) {
+                throw new IllegalMoveException("The column is full!");
+            }
+            player = Player.oppositePlayer(player);
+        }
+        state.playerToMove = player;
+        return state;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param col The column where to put the token of the human.
+     * @return A new board with the move executed. If the move is not valid,
+     * i.e. {@code col} was full before, then {@code null} will be
+     * returned.
+     * @throws IllegalMoveException     The game is already over, or it is not
+     *                                  the human's turn.
+     * @throws IllegalArgumentException The provided column {@code col} is
+     *                                  invalid, i.e. not found on the grid.
+     */
+    public Board move(int col) {
+        if (playerToMove == null) {
+            playerToMove = Player.HUMAN;
+        }
+
+        if (isGameOver()) {
+            throw new IllegalMoveException("The game is over!");
+        } else if (playerToMove != Player.HUMAN) {
+            throw new IllegalMoveException("Its not your turn!");
+        } else if (col < 0 || col > COLS - 1) {
+            throw new IllegalArgumentException("Column out of bounds!");
+        } else {
+            GameState newBoard = (GameState) clone();
+            newBoard.playerToMove = Player.MACHINE;
+
+            if (!newBoard.insertToken(col, Player.HUMAN)) {
+                newBoard = null;
+            }
+            return newBoard;
+        }
+    }
+
+    /**
+     * Executes a machine move. This method does not change the state of this
+     * instance, which is treated here as immutable. Instead, a new board/game
+     * is returned, which is a copy of {@code this} with the move executed.
+     * <p>
+     * The best move is calculated by the engine of this instance, by
+     * default by creating a game tree containing all possible moves up to a
+     * depth of {@link GameState#level}. Then the minmax algorithm is used to
+     * determine the best move the machine can make. This will be the move
+     * the machine executes.
+     *
+     * @return A new board with the move executed or {@code null},
+     * when there was an error inserting the token
+     * @throws IllegalMoveException The game is already over, or it is not
+     *                              the machine's turn.
+     */
+    public Board machineMove() throws InterruptedException {
+        return machineMove(SearchLimits.DEFAULT, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The move is searched by the engine of this instance, see
+     * {@link GameState#setEngine(Engine)}, with the level of this instance.
+     * <p>
+     * Positions found in the configured {@link EndgameDatabase} are
+     * answered with the perfect move from the database instead, at every
+     * level and without reporting any progress.
+     *
+     * @param limits   The limits of the search.
+     * @param listener Receives the progress of the search, may be
+     *                 {@code null}.
+     * @return A new board with the move executed.
+     * @throws IllegalMoveException The game is already over, or it is not
+     *                              the machine's turn, or the engine chose
+     *                              a full column.
+     */
+    public Board machineMove(SearchLimits limits, SearchListener listener)
+            throws InterruptedException {
+        if (playerToMove == null) {
+            playerToMove = Player.MACHINE;
+        }
+        if (isGameOver()) {
+            throw new IllegalMoveException("The game is over!");
+        } else if (playerToMove != Player.MACHINE) {
+            throw new IllegalMoveException("It's not the machine's turn");
+        }
+
+        int col = endgameMove();
+        if (col < 0) {
+            col = engine.bestMove(new Position(machineBits, humanBits, level),
+                    limits, listener);
+        }
+
+        GameState newBoard = (GameState) clone();
+        newBoard.playerToMove = Player.HUMAN;
+        if (!newBoard.insertToken(col, Player.MACHINE)) {
+            throw new IllegalMoveException();
+        }
+        return newBoard;
+    }
+
+    /**
+     * Looks up the best move of the machine in the configured
+     * {@link EndgameDatabase}, if this position has few enough empty slots.
+     *
+     * @return the column of the move, or -1 if there is no database or the
+     * position is not in it.
+     */
+    private int endgameMove() {
+        EndgameDatabase database = EndgameDatabase.configured();
+        int emptySlots = ROWS * COLS - Long.bitCount(humanBits | machineBits);
+        if (database == null || emptySlots > database.getMaxEmpty()) {
+            return -1;
+        }
+        return database.bestMove(machineBits, humanBits);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param limits The limits of the search.
+     * @return A future completed by the engine's worker thread.
+     */
+    public CompletableFuture<Board> machineMoveAsync(SearchLimits limits) {
+        return machineMoveAsync(limits, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param limits   The limits of the search.
+     * @param executor The executor completing the future.
+     * @return A future completed by the given executor.
+     */
+    public CompletableFuture<Board> machineMoveAsync(SearchLimits limits,
+                                                     Executor executor) {
+        return EngineService.shared().submitAsync(this, limits, null,
+                executor);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The moves are ranked by the evaluation of the game tree of a
+     * {@link MinimaxEngine}, the engine of this instance if it is one, or
+     * one with the configured evaluator otherwise. The moves of the human
+     * are searched like the machine would search them in its place. An
+     * empty board without a player to move is analysed for the human.
+     *
+     * @param count  The maximum number of moves.
+     * @param limits The limits of the search.
+     * @return The best moves, best first.
+     * @throws IllegalMoveException     The game is already over.
+     * @throws IllegalArgumentException The count is not positive.
+     */
+    public List<AnalysedMove> analyse(int count, SearchLimits limits)
+            throws InterruptedException {
+        if (count < 1) {
+            throw new IllegalArgumentException(
+                    "At least one move must be analysed!");
+        } else if (isGameOver()) {
+            throw new IllegalMoveException("The game is over!");
+        }
+
+        Position position = playerToMove == Player.MACHINE
+                ? new Position(machineBits, humanBits, level)
+                : new Position(humanBits, machineBits, level);
+        MinimaxEngine minimax = engine instanceof MinimaxEngine reference
+                ? reference : new MinimaxEngine();
+        Node root = minimax.search(position, limits, null);
+        if (root == null) {
+            return List.of();
+        }
+
+        int[] evaluations = root.getChildEvaluations();
+        List<AnalysedMove> moves = new ArrayList<>(count);
+        IntStream.range(0, COLS)
+                .filter(col -> evaluations[col] != Integer.MIN_VALUE)
+                .boxed()
+                // the sort is stable, so equal moves stay leftmost first
+                .sorted(Comparator.comparingInt(col -> -evaluations[col]))
+                .limit(count)
+                .forEach(col -> moves.add(new AnalysedMove(col,
+                        evaluations[col], root.getPrincipalVariation(col))));
+        return Collections.unmodifiableList(moves);
+    }
+
+    /**
+     * Inserts a token of the given player into the given column.
+     * Immediately counts the groups,
+     * because this instance is being treated as immutable,
+     * therefore after inserting a token no changes to the groups can occur.
+     *
+     * @param col    the column, the token gets inserted into starting from 0.
+     * @param player the player whose token gets inserted.
+     * @return true if the operation was successful, false otherwise.
+     */
+    private boolean insertToken(int col, Player player) {
+        if (placeToken(col, player)) {
+            countGroups();
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Inserts a token of the given player into the given column, without
+     * counting the groups, which the caller has to do before the groups are
+     * used.
+     *
+     * @param col    the column, the token gets inserted into starting from 0.
+     * @param player the player whose token gets inserted.
+     * @return true if the operation was successful, false otherwise.
+     */
+    private boolean placeToken(int col, Player player) {
+        if (col < 0 || col > COLS - 1) {
+            return false;
+        }
+
+        int row = ROWS - 1;
+        while (board[row][col] != Player.TIE && row > 0) {
+            row--;
+        }
+
+        if (board[row][col] == Player.TIE) {
+            board[row][col] = player;
+            lastBit = Bitboards.bit(row, col);
+            if (player == Player.HUMAN) {
+                humanBits |= 1L << lastBit;
+            } else {
+                machineBits |= 1L << lastBit;
+            }
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Drops a token of the given player into the given column of this
+     * instance, which is changed in place. Used by {@link GameHistory} to
+     * replay moves on its own working copy.
+     *
+     * @param col    the column, starting from 0.
+     * @param player the player making the move.
+     * @throws IllegalMoveException The column is full.
+     */
+    void makeMove(int col, Player player) {
+        if (!insertToken(col, player)) {
+            throw new IllegalMoveException("The column is full!");
+        }
+        playerToMove = Player.oppositePlayer(player);
+    }
+
+    /**
+     * Removes the top token of the given column of this instance, which is
+     * changed in place. The player of the removed token is to move again.
+     * Used by {@link GameHistory} to take back moves.
+     *
+     * @param col         the column of the move to take back, starting from
+     *                    0.
+     * @param previousCol the column of the move before, or -1 if it was the
+     *                    first move.
+     * @throws IllegalMoveException The column is empty.
+     */
+    void unmakeMove(int col, int previousCol) {
+        int row = 0;
+        while (row < ROWS && board[row][col] == Player.TIE) {
+            row++;
+        }
+        if (row == ROWS) {
+            throw new IllegalMoveException("The column is empty!");
+        }
+
+        long mask = ~(1L << Bitboards.bit(row, col));
+        humanBits &= mask;
+        machineBits &= mask;
+        playerToMove = board[row][col];
+        board[row][col] = Player.TIE;
+        if (previousCol < 0) {
+            lastBit = -1;
+        } else {
+            int previousRow = 0;
+            while (board[previousRow][previousCol] == Player.TIE) {
+                previousRow++;
+            }
+            lastBit = Bitboards.bit(previousRow, previousCol);
+        }
+        countGroups();
+    }
+
+    /**
+     * Counts the groups of both players in every line of the board, by
+     * calling {@link Bitboards#countGroups(long, int[])} with the bitboard of
+     * each player.
+     */
+    private void countGroups() {
+        Arrays.fill(humanGroups, 0);
+        Arrays.fill(machineGroups, 0);
+        Bitboards.countGroups(humanBits, humanGroups);
+        Bitboards.countGroups(machineBits, machineGroups);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return A clone.
+     */
+    public Board clone() {
+        GameState copy = null;
+        try {
+            copy = (GameState) super.clone();
+        } catch (CloneNotSupportedException e) {
+            e.printStackTrace();
+        }
+
+        Player[][] boardCopy = new Player[board.length][];
+        for (int i = 0; i < board.length; i++) {
+            boardCopy[i] = Arrays.copyOf(board[i], board[i].length);
+        }
+
+        assert copy != null;
+        copy.board = boardCopy;
+        copy.level = level;
+        copy.playerToMove = playerToMove;
+        copy.humanGroups = Arrays.copyOf(humanGroups, humanGroups.length);
+        copy.machineGroups
+                = Arrays.copyOf(machineGroups, machineGroups.length);
+
+        return copy;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return The string representation of the current Connect Four board.
+     */
+    @Override
+    public String toString() {
+        StringBuilder strBuilder = new StringBuilder();
+        for (Player[] players : board) {
+            for (int i = 0; i < board[0].length; i++) {
+                strBuilder.append(players[i].toString()).append(" ");
+            }
+            // delete trailing whitespace
+            strBuilder.setLength(strBuilder.length() - 1);
+            strBuilder.append("\n");
+        }
+        strBuilder.setLength(strBuilder.length() - 1);
+        return strBuilder.toString();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void setLevel(int level) {
+        if (level < 1 || level > MAX_LEVEL) {
+            throw new IllegalArgumentException(
+                    "The level must be between 1 and " + MAX_LEVEL + "!");
+        } else {
+            this.level = level;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return The skill as number.
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws NullPointerException The engine is {@code null}.
+     */
+    public void setEngine(Engine engine) {
+        this.engine = Objects.requireNonNull(engine);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return The engine.
+     */
+    public Engine getEngine() {
+        return engine;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return The list of coordinates.
+     * @throws IllegalStateException There is no winner available.
+     */
+    public Collection<Coordinates2D> getWitness() {
+        Player player = getWinner();
+        if (player == null) {
+            throw new IllegalStateException("There is no winner available");
+        }
+        long bits = player == Player.HUMAN ? humanBits : machineBits;
+        long window = findWinningWindow(bits);
+        Set<Coordinates2D> witness = new TreeSet<>();
+        for (int bit = 0; bit < Long.SIZE; bit++) {
+            if ((window & (1L << bit)) != 0) {
+                witness.add(Bitboards.coordinates(bit));
+            }
+        }
+        return Collections.unmodifiableSet(witness);
+    }
+
+    /**
+     * Finds a window of {@code CONNECT} slots completely filled with tokens
+     * of a player. The windows covering the last inserted token are checked
+     * first, because it usually completed the group.
+     *
+     * @param bits the bitboard of the player.
+     * @return the bitmask of the window or 0 if there is none.
+     */
+    private long findWinningWindow(long bits) {
+        if (lastBit >= 0) {
+            for (int i = 0; i < Bitboards.windowCountAt(lastBit); i++) {
+                long window = Bitboards.windowAt(lastBit, i);
+                if ((bits & window) == window) {
+                    return window;
+                }
+            }
+        }
+        for (int i = 0; i < Bitboards.windowCount(); i++) {
+            long window = Bitboards.window(i);
+            if ((bits & window) == window) {
+                return window;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return The winner or {@code null} in case of a tie or if the game is
+     * not finished yet.
+     */
+    public Player getWinner() {
+        if (humanGroups[CONNECT - 2] != 0) {
+            return Player.HUMAN;
+        } else if (machineGroups[CONNECT - 2] != 0) {
+            return Player.MACHINE;
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param row The row of the slot in the game grid.
+     * @param col The column of the slot in the game grid.
+     * @return The slot's content.
+     * @throws IllegalArgumentException The coordinates are out of bounds.
+     */
+    public Player getSlot(int row, int col) {
+        if (!isInBounds(row, col)) {
+            throw new IllegalArgumentException("Parameters out of bounds");
+        }
+        return board[row][col];
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return The player who makes the initial move.
+     */
+    public Player getPlayerToMove() {
+        return playerToMove;
+    }
+
+    /**
+     * Checks if game is over. Either one player has won or there is a tie
+     * and all slots are filled with tokens.
+     *
+     * @return {@code true} if and only if the game is over.
+     */
+    public boolean isGameOver() {
+        return isAllSlotsFilled() || getWinner() != null;
+    }
+
+    /**
+     * Checks if a given coordinate is in bounds of the used board.
+     *
+     * @param row the row to check.
+     * @param col the col to check.
+     * @return true when the coordinates are in bounds, false otherwise.
+     */
+    private boolean isInBounds(int row, int col) {
+        return row <= ROWS - 1 && row >= 0
+                && col <= COLS - 1 && col >= 0;
+    }
+
+    /**
+     * Checks if there are empty slots left to be filled by a player.
+     *
+     * @return false if there are free slots, true if all slots are filled.
+     */
+    private boolean isAllSlotsFilled() {
+        for (int i = 0; i < board[0].length; i++) {
+            if (board[0][i] == Player.TIE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
\ No newline at end of file
@@ -1,5 +1,6 @@
 package connectfour.model;
 
+import java.util.Arrays;
 
 /**
  * Models a Node in a n-ary game tree.
@@ -65,6 +66,77 @@ public class Node {
         return this.getIndexOfMaxValue();
     }
 
+    /**
+     * Sets the evaluation of all nodes in the tree, like
+     * {@link Node#getIndexOfMaxChild()} does. Must be called only once per
+     * tree, since the evaluations of the inner nodes are accumulated.
+     */
+    public void evaluate() {
+        setEvaluations(true);
+    }
+
+    /**
+     * Gets the index of the leftmost child with the highest evaluation
+     * without evaluating the tree again. Should only be called after
+     * {@link Node#evaluate()}.
+     *
+     * @return the index of the leftmost child with the highest evaluation, or
+     * -1 if no child is set.
+     */
+    public int getIndexOfBestChild() {
+        return getIndexOfMaxValue();
+    }
+
+    /**
+     * Gets the principal variation starting with the move into a child,
+     * i.e. the moves both players make if each chooses the leftmost best
+     * move down to a leaf. Should only be called after
+     * {@link Node#evaluate()}.
+     *
+     * @param index the index of the child of the first move.
+     * @return the indices of the moves, starting with {@code index}.
+     * @throws IllegalArgumentException The child is not set.
+     */
+    public int[] getPrincipalVariation(int index) {
+        if (index < 0 || index >= children.length || children[index] == null) {
+            throw new IllegalArgumentException("Index out of bounds");
+        }
+        int[] variation = new int[height + 1];
+        int length = 0;
+        variation[length++] = index;
+        Node node = children[index];
+        // the opponent of the player at this node moves next
+        boolean max = false;
+        while (!node.isLeaf()) {
+            int next = max
+                    ? node.getIndexOfMaxValue() : node.getIndexOfMinValue();
+            if (next < 0) {
+                break;
+            }
+            variation[length++] = next;
+            node = node.children[next];
+            max = !max;
+        }
+        return Arrays.copyOf(variation, length);
+    }
+
+    /**
+     * Gets the evaluations of all children. Should only be called after
+     * {@link Node#getIndexOfMaxChild()}, which sets the evaluations of the
+     * inner nodes.
+     *
+     * @return the evaluation of each child, or {@link Integer#MIN_VALUE} if
+     * the child is not set.
+     */
+    public int[] getChildEvaluations() {
+        int[] evaluations = new int[children.length];
+        for (int i = 0; i < children.length; i++) {
+            evaluations[i] = children[i] == null
+                    ? Integer.MIN_VALUE : children[i].evaluation;
+        }
+        return evaluations;
+    }
+
     /**
      * Post order tree traversal starting at this node.
      * Updates the evaluation of all inner nodes in the subtree,
@@ -116,6 +188,24 @@ public class Node {
         return index;
     }
 
+    /**
+     * Returns the index of the minimum value between child nodes.
+     * If multiple values are equal returns the leftmost.
+     *
+     * @return the index of the minimum value between all child nodes.
+     */
+    private int getIndexOfMinValue() {
+        int minValue = getMinValueOfChildren();
+        int index = -1;
+        for (int i = 0; i < children.length; i++) {
+            if (children[i] != null && minValue == children[i].evaluation) {
+                index = i;
+                break;
+            }
+        }
+        return index;
+    }
+
     /**
      * Iterates over all child nodes and returns the maximum value.
      *
@@ -0,0 +1,59 @@
+package connectfour.model;
+
+/**
+ * The result of a completed iteration of the search for a machine move.
+ * <p>
+ * An iteration searches all moves up to a given depth. The higher the score
+ * of a column, the better is the move into that column for the machine.
+ *
+ * @param depth        the depth searched by the iteration, from 1 to the
+ *                     level of the board.
+ * @param bestCol      the best column found by the iteration, starting
+ *                     from 0.
+ * @param scores       the score of the move into each column, or
+ *                     {@link SearchIteration#NO_SCORE} if the column is
+ *                     full.
+ * @param nodes        the number of nodes of the game tree searched by the
+ *                     iteration.
+ * @param elapsedNanos the time since the search was started in nanoseconds.
+ */
+public record SearchIteration(int depth, int bestCol, int[] scores,
+                              long nodes, long elapsedNanos) {
+
+    /**
+     * The score of a column, which is full.
+     */
+    public static final int NO_SCORE = Integer.MIN_VALUE;
+
+    /**
+     * Constructs a new SearchIteration.
+     *
+     * @throws IllegalArgumentException If there is not one score per column.
+     */
+    public SearchIteration {
+        if (scores.length != Board.COLS) {
+            throw new IllegalArgumentException(
+                    "There must be one score per column!");
+        }
+        scores = scores.clone();
+    }
+
+    /**
+     * @return a copy of the score of the move into each column.
+     */
+    @Override
+    public int[] scores() {
+        return scores.clone();
+    }
+
+    /**
+     * Gets the score of the move into the given column.
+     *
+     * @param col the column, starting from 0.
+     * @return the score, or {@link SearchIteration#NO_SCORE} if the column
+     * is full.
+     */
+    public int score(int col) {
+        return scores[col];
+    }
+}
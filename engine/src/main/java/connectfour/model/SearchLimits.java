@@ -0,0 +1,101 @@
+package connectfour.model;
+
+import java.time.Duration;
+
+/**
+ * Limits of the search for a machine move, see
+ * {@link Board#machineMove(SearchLimits, SearchListener)}.
+ * <p>
+ * A search without a budget, i.e. without time, nodes and memory, searches
+ * the game tree up to the depth. A search with a budget deepens iteratively
+ * up to the depth, and plays the move of the deepest iteration, which
+ * completed within the budget. An iteration, which is predicted to exceed
+ * the budget, is not started at all. The first iteration always completes.
+ *
+ * @param depth   the maximum depth to search, which replaces the level of
+ *                the board, or 0 to search up to the level of the board.
+ * @param timeout the time the search may take, or {@code null} if the time
+ *                is unlimited.
+ * @param nodes   the number of nodes the search may create in total over
+ *                all iterations, or 0 if unlimited.
+ * @param memory  the memory in bytes a game tree may occupy, or 0 if
+ *                unlimited. Only one game tree is kept at a time.
+ */
+public record SearchLimits(int depth, Duration timeout, long nodes,
+                           long memory) {
+
+    /**
+     * The limits of a search up to the level of the board without a budget.
+     */
+    public static final SearchLimits DEFAULT = new SearchLimits(0, null, 0, 0);
+
+    /**
+     * The approximate size of a node of the game tree in bytes, which maps
+     * the memory budget onto a number of nodes.
+     */
+    public static final int BYTES_PER_NODE = 72;
+
+    /**
+     * Validates the given values.
+     *
+     * @throws IllegalArgumentException If any value is negative or the
+     *                                  timeout is not positive.
+     */
+    public SearchLimits {
+        if (depth < 0 || nodes < 0 || memory < 0) {
+            throw new IllegalArgumentException(
+                    "The limits must not be negative!");
+        } else if (timeout != null
+                && (timeout.isNegative() || timeout.isZero())) {
+            throw new IllegalArgumentException(
+                    "The timeout must be positive!");
+        }
+    }
+
+    /**
+     * Creates the limits of a search up to the given depth without a budget.
+     *
+     * @param depth the depth to search.
+     * @return the limits.
+     */
+    public static SearchLimits ofDepth(int depth) {
+        return new SearchLimits(depth, null, 0, 0);
+    }
+
+    /**
+     * Creates a copy of these limits with the given timeout.
+     *
+     * @param timeout the time the search may take.
+     * @return the limits.
+     */
+    public SearchLimits withTimeout(Duration timeout) {
+        return new SearchLimits(depth, timeout, nodes, memory);
+    }
+
+    /**
+     * Creates a copy of these limits with the given number of nodes.
+     *
+     * @param nodes the number of nodes the search may create.
+     * @return the limits.
+     */
+    public SearchLimits withNodes(long nodes) {
+        return new SearchLimits(depth, timeout, nodes, memory);
+    }
+
+    /**
+     * Creates a copy of these limits with the given memory.
+     *
+     * @param memory the memory in bytes a game tree may occupy.
+     * @return the limits.
+     */
+    public SearchLimits withMemory(long memory) {
+        return new SearchLimits(depth, timeout, nodes, memory);
+    }
+
+    /**
+     * @return true if any of time, nodes and memory is limited.
+     */
+    public boolean hasBudget() {
+        return timeout != null || nodes > 0 || memory > 0;
+    }
+}
@@ -0,0 +1,20 @@
+package connectfour.model;
+
+/**
+ * Receives the progress of the search for a machine move, see
+ * {@link Board#machineMove(SearchLimits, SearchListener)}.
+ * <p>
+ * The listener is called by the thread executing the search, after each
+ * completed iteration. It should return quickly, since the search continues
+ * only afterwards.
+ */
+@FunctionalInterface
+public interface SearchListener {
+
+    /**
+     * Called after an iteration of the search has completed.
+     *
+     * @param iteration the result of the iteration.
+     */
+    void iterationCompleted(SearchIteration iteration);
+}
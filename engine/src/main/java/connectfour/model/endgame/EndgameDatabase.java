@@ -0,0 +1,232 @@
+package connectfour.model.endgame;
+
+import connectfour.model.utility.Bitboards;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.OptionalInt;
+
+import static connectfour.model.Board.COLS;
+import static connectfour.model.Board.ROWS;
+
+/**
+ * Reads an endgame database written by {@link EndgameGenerator}, which holds
+ * the exact values of late positions.
+ * <p>
+ * The database is memory-mapped, so probing it does not read it onto the
+ * heap. A key is looked up by a binary search within its bucket of the
+ * index, see {@link EndgameFormat}. The methods of this class are
+ * thread-safe.
+ */
+public class EndgameDatabase implements Closeable {
+
+    /**
+     * The system property containing the path of the endgame database to
+     * use.
+     */
+    public static final String PATH_PROPERTY = "connectfour.endgame";
+
+    /**
+     * Channel to the database file, opened for reading.
+     */
+    private final FileChannel channel;
+
+    /**
+     * The header, the index and the keys.
+     */
+    private final ByteBuffer header;
+    private final LongBuffer keys;
+
+    /**
+     * The values, in the order of the keys.
+     */
+    private final ByteBuffer values;
+
+    /**
+     * The maximum number of empty slots of the positions.
+     */
+    private final int maxEmpty;
+
+    /**
+     * Opens the given database for reading.
+     *
+     * @param path the path of the database.
+     * @throws IOException If the file cannot be opened or is not an endgame
+     *                     database.
+     */
+    public EndgameDatabase(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            header = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    Math.min(size, EndgameFormat.HEADER_SIZE));
+            EndgameFormat.checkHeader(header);
+            long count = header.getLong(8);
+            if (count < 0 || count > Integer.MAX_VALUE / Long.BYTES
+                    || size != EndgameFormat.HEADER_SIZE + count * 9) {
+                throw new IOException("Corrupt endgame database!");
+            }
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY,
+                    EndgameFormat.HEADER_SIZE, count * 9);
+            keys = data.slice(0, (int) count * Long.BYTES).asLongBuffer();
+            values = data.slice((int) count * Long.BYTES, (int) count);
+            maxEmpty = header.get(6);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the database configured by the system property
+     * {@link EndgameDatabase#PATH_PROPERTY}, which is opened on the first
+     * call.
+     *
+     * @return the database or {@code null}, if no database is configured or
+     * it cannot be opened.
+     */
+    public static EndgameDatabase configured() {
+        return ConfiguredInstance.INSTANCE;
+    }
+
+    /**
+     * @return the maximum number of empty slots of the positions.
+     */
+    public int getMaxEmpty() {
+        return maxEmpty;
+    }
+
+    /**
+     * @return the number of positions.
+     */
+    public int size() {
+        return keys.limit();
+    }
+
+    /**
+     * Looks up the value of a position. Mirrored positions have the same
+     * value.
+     *
+     * @param mover    the bitboard of the player to move.
+     * @param opponent the bitboard of the other player.
+     * @return the value for the player to move, see {@link EndgameFormat},
+     * or nothing if the position is not in the database.
+     */
+    public OptionalInt probe(long mover, long opponent) {
+        long key = EndgameFormat.key(mover, opponent);
+        int bucket = EndgameFormat.bucket(key);
+        int low = header.getInt(16 + bucket * Integer.BYTES);
+        int high = header.getInt(16 + (bucket + 1) * Integer.BYTES) - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long found = keys.get(middle);
+            if (found < key) {
+                low = middle + 1;
+            } else if (found > key) {
+                high = middle - 1;
+            } else {
+                return OptionalInt.of(values.get(middle));
+            }
+        }
+        return OptionalInt.empty();
+    }
+
+    /**
+     * Finds the best move of a position, which wins as fast as possible,
+     * draws or loses as late as possible. Of equal moves the leftmost one is
+     * returned.
+     *
+     * @param mover    the bitboard of the player to move.
+     * @param opponent the bitboard of the other player.
+     * @return the column of the best move, or -1 if the game is over or
+     * the value of a move is not in the database.
+     */
+    public int bestMove(long mover, long opponent) {
+        long tokens = mover | opponent;
+        if (Bitboards.hasWon(mover) || Bitboards.hasWon(opponent)
+                || Long.bitCount(tokens) == ROWS * COLS) {
+            return -1;
+        }
+
+        // the positions after the other moves are not stored, if the
+        // position was solved as soon as a winning move was found
+        for (int col = 0; col < COLS; col++) {
+            long drop = Bitboards.dropBit(tokens, col);
+            if (drop != 0 && Bitboards.hasWon(mover | drop)) {
+                return col;
+            }
+        }
+
+        int bestCol = -1;
+        int bestRank = Integer.MIN_VALUE;
+        for (int col = 0; col < COLS; col++) {
+            long drop = Bitboards.dropBit(tokens, col);
+            if (drop == 0) {
+                continue;
+            }
+            int value;
+            if (Long.bitCount(tokens) + 1 == ROWS * COLS) {
+                value = 0;
+            } else {
+                OptionalInt child = probe(opponent, mover | drop);
+                if (child.isEmpty()) {
+                    return -1;
+                }
+                value = EndgameFormat.parentValue(child.getAsInt());
+            }
+            if (EndgameFormat.rank(value) > bestRank) {
+                bestRank = EndgameFormat.rank(value);
+                bestCol = col;
+            }
+        }
+        return bestCol;
+    }
+
+    /**
+     * Closes the database.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Holder of the lazily opened configured database.
+     */
+    private static final class ConfiguredInstance {
+
+        /**
+         * The configured database, or {@code null}.
+         */
+        private static final EndgameDatabase INSTANCE = open();
+
+        /**
+         * Opens the configured database. A database, which cannot be
+         * opened, is reported once and then ignored, since the search can
+         * answer every position without it.
+         *
+         * @return the database or {@code null}.
+         */
+        private static EndgameDatabase open() {
+            String path = System.getProperty(PATH_PROPERTY);
+            if (path == null || path.isBlank()) {
+                return null;
+            }
+            try {
+                return new EndgameDatabase(Path.of(path));
+            } catch (IOException e) {
+                System.err.println("Cannot open the endgame database "
+                        + path + ": " + e.getMessage());
+                return null;
+            }
+        }
+    }
+}
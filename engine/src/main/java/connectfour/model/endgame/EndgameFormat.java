@@ -0,0 +1,161 @@
+package connectfour.model.endgame;
+
+import connectfour.model.utility.Bitboards;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static connectfour.model.Board.COLS;
+
+/**
+ * Utility class describing the binary layout of an endgame database.
+ * <p>
+ * The database stores the solved positions with a player to move, each
+ * identified by {@link EndgameFormat#key(long, long)}, and their values. It
+ * has the layout:
+ * <pre>
+ *  offset      size  content
+ *       0         4  {@link EndgameFormat#MAGIC}
+ *       4         2  {@link EndgameFormat#VERSION}
+ *       6         1  maximum number of empty slots of the positions
+ *       7         1  reserved
+ *       8         8  number of positions n
+ *      16   4*(b+1)  index of the first position of each of the
+ *                    b = 2^{@link EndgameFormat#INDEX_BITS} buckets, and n
+ *       i       8*n  keys, in ascending order
+ *   i+8*n         n  values, in the order of the keys
+ * </pre>
+ * The bucket of a key are its highest {@link EndgameFormat#INDEX_BITS}
+ * bits. A value is the outcome for the player to move with perfect play: a
+ * positive value {@code d} is a win with the d-th move from now on, counting
+ * the moves of both players, a negative value {@code -d} a loss with the d-th
+ * move and 0 a draw. All values are stored in big-endian byte order.
+ */
+final class EndgameFormat {
+
+    /**
+     * Identifies an endgame database, reads "C4EG".
+     */
+    static final int MAGIC = 0x43344547;
+
+    /**
+     * The version of the layout.
+     */
+    static final short VERSION = 1;
+
+    /**
+     * The number of bits of a key selecting its bucket.
+     */
+    static final int INDEX_BITS = 12;
+
+    /**
+     * The number of buckets.
+     */
+    static final int BUCKETS = 1 << INDEX_BITS;
+
+    /**
+     * The number of bits of a key, see {@link Bitboards#key(long, long)}.
+     */
+    static final int KEY_BITS = COLS * Bitboards.HEIGHT;
+
+    /**
+     * The size of the header and the index in bytes.
+     */
+    static final int HEADER_SIZE = 16 + (BUCKETS + 1) * Integer.BYTES;
+
+    /**
+     * Private constructor to ensure non-instantiability.
+     */
+    private EndgameFormat() {
+        throw new AssertionError("Utility Class!");
+    }
+
+    /**
+     * Calculates the key of a position, which is the same for the position
+     * mirrored at the middle column.
+     *
+     * @param mover    the bitboard of the player to move.
+     * @param opponent the bitboard of the other player.
+     * @return the key.
+     */
+    static long key(long mover, long opponent) {
+        return Math.min(Bitboards.key(opponent, mover),
+                Bitboards.key(Bitboards.mirror(opponent),
+                        Bitboards.mirror(mover)));
+    }
+
+    /**
+     * Gets the bucket of a key.
+     *
+     * @param key the key.
+     * @return the bucket.
+     */
+    static int bucket(long key) {
+        return (int) (key >>> (KEY_BITS - INDEX_BITS));
+    }
+
+    /**
+     * Calculates the value of a position from the value of the position
+     * after a move.
+     *
+     * @param child the value of the position after the move, for the other
+     *              player.
+     * @return the value of the position before the move.
+     */
+    static int parentValue(int child) {
+        if (child > 0) {
+            return -(child + 1);
+        } else if (child < 0) {
+            return -child + 1;
+        } else {
+            return 0;
+        }
+    }
+
+    /**
+     * Ranks a value, where quicker wins rank higher and slower losses rank
+     * higher.
+     *
+     * @param value the value.
+     * @return the rank, which is greater for better values.
+     */
+    static int rank(int value) {
+        if (value > 0) {
+            return Byte.MAX_VALUE - value;
+        } else if (value < 0) {
+            return Byte.MIN_VALUE - value;
+        } else {
+            return 0;
+        }
+    }
+
+    /**
+     * Writes the header without the index to the given buffer.
+     *
+     * @param buffer   the buffer to write to.
+     * @param maxEmpty the maximum number of empty slots of the positions.
+     * @param count    the number of positions.
+     */
+    static void writeHeader(ByteBuffer buffer, int maxEmpty, long count) {
+        buffer.putInt(MAGIC).putShort(VERSION).put((byte) maxEmpty)
+                .put((byte) 0).putLong(count);
+    }
+
+    /**
+     * Checks the header at the start of the given buffer.
+     *
+     * @param buffer the buffer to read from.
+     * @throws IOException If the header does not belong to an endgame
+     *                     database of a supported version.
+     */
+    static void checkHeader(ByteBuffer buffer) throws IOException {
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not an endgame database!");
+        }
+        short version = buffer.getShort(4);
+        if (version != VERSION) {
+            throw new IOException("Unsupported endgame database version "
+                    + version);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package connectfour.model.endgame;
+
+import connectfour.model.utility.Bitboards;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+
+import static connectfour.model.Board.COLS;
+import static connectfour.model.Board.ROWS;
+
+/**
+ * Generates an endgame database, see {@link EndgameDatabase}.
+ * <p>
+ * Enumerating every reachable position with a few empty slots is far beyond
+ * any practical database, e.g. there are billions of positions with six
+ * empty slots. The generator therefore plays random games from the empty
+ * board, chosen by a seed, until the given number of empty slots is
+ * reached, and solves every position reachable from there by
+ * {@link EndgameSolver}. The random games avoid winning moves, so that
+ * most of them reach the empty slots. The same seed always generates the
+ * same database.
+ */
+public final class EndgameGenerator {
+
+    /**
+     * The size of the buffer used to write the database.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Private constructor to ensure non-instantiability.
+     */
+    private EndgameGenerator() {
+        throw new AssertionError("Utility Class!");
+    }
+
+    /**
+     * Generates a database.
+     *
+     * @param args the path of the database, the maximum number of empty
+     *             slots, the number of random games and the seed.
+     * @throws IOException If the database cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 4) {
+            System.err.println("Usage: EndgameGenerator file empty games"
+                    + " seed");
+            System.exit(1);
+        }
+        Path path = Path.of(args[0]);
+        int maxEmpty = Integer.parseInt(args[1]);
+        int games = Integer.parseInt(args[2]);
+        long seed = Long.parseLong(args[3]);
+
+        long start = System.nanoTime();
+        Map<Long, Byte> values = generate(maxEmpty, games, seed);
+        if (path.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+        }
+        write(path, maxEmpty, values);
+        System.out.printf("Solved %d positions with at most %d empty slots"
+                        + " in %.1f s, %d KB written to %s%n", values.size(),
+                maxEmpty, (System.nanoTime() - start) / 1e9,
+                Files.size(path) / 1024, path);
+    }
+
+    /**
+     * Solves all positions reachable from the positions reached by random
+     * games with the given number of empty slots.
+     *
+     * @param maxEmpty the number of empty slots of the random positions.
+     * @param games    the number of random games.
+     * @param seed     the seed of the random games.
+     * @return the values of all solved positions by their key.
+     * @throws IllegalArgumentException If the number of empty slots or
+     *                                  games is not positive, or the values
+     *                                  do not fit into the database.
+     */
+    static Map<Long, Byte> generate(int maxEmpty, int games, long seed) {
+        if (maxEmpty < 1 || maxEmpty > ROWS * COLS || games < 1) {
+            throw new IllegalArgumentException(
+                    "The empty slots and games must be positive!");
+        }
+        EndgameSolver solver = new EndgameSolver();
+        Random random = new Random(seed);
+        for (int game = 0; game < games; game++) {
+            long mover = 0;
+            long opponent = 0;
+            while (Long.bitCount(mover | opponent) < ROWS * COLS - maxEmpty) {
+                long drop = randomDrop(random, mover, opponent);
+                if (drop == 0) {
+                    break;
+                }
+                long moved = mover | drop;
+                mover = opponent;
+                opponent = moved;
+            }
+            if (Long.bitCount(mover | opponent) == ROWS * COLS - maxEmpty) {
+                solver.solve(mover, opponent);
+            }
+        }
+        return solver.getValues();
+    }
+
+    /**
+     * Chooses a random move, which does not end the game, so that the
+     * random games reach late positions.
+     *
+     * @param random   the source of randomness.
+     * @param mover    the bitboard of the player to move.
+     * @param opponent the bitboard of the other player.
+     * @return the bit of the move, or 0 if every move ends the game.
+     */
+    private static long randomDrop(Random random, long mover, long opponent) {
+        int first = random.nextInt(COLS);
+        for (int i = 0; i < COLS; i++) {
+            long drop = Bitboards.dropBit(mover | opponent,
+                    (first + i) % COLS);
+            if (drop != 0 && !Bitboards.hasWon(mover | drop)) {
+                return drop;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Writes a database.
+     *
+     * @param path     the path of the database, which is replaced.
+     * @param maxEmpty the maximum number of empty slots of the positions.
+     * @param values   the values of the positions by their key.
+     * @throws IOException If an I/O error occurs.
+     */
+    static void write(Path path, int maxEmpty, Map<Long, Byte> values)
+            throws IOException {
+        if ((long) values.size() * 9 > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many positions!");
+        }
+        long[] keys = values.keySet().stream().mapToLong(Long::longValue)
+                .sorted().toArray();
+        int[] index = new int[EndgameFormat.BUCKETS + 1];
+        for (long key : keys) {
+            index[EndgameFormat.bucket(key) + 1]++;
+        }
+        Arrays.parallelPrefix(index, Integer::sum);
+
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            EndgameFormat.writeHeader(buffer, maxEmpty, keys.length);
+            for (int first : index) {
+                flushIfFull(channel, buffer, Integer.BYTES);
+                buffer.putInt(first);
+            }
+            for (long key : keys) {
+                flushIfFull(channel, buffer, Long.BYTES);
+                buffer.putLong(key);
+            }
+            for (long key : keys) {
+                flushIfFull(channel, buffer, Byte.BYTES);
+                buffer.put(values.get(key));
+            }
+            // writes the rest, unless the buffer is empty
+            flushIfFull(channel, buffer, BUFFER_SIZE);
+        }
+    }
+
+    /**
+     * Writes the buffer to the channel, if it has less than the given
+     * number of bytes remaining.
+     *
+     * @param channel the channel to write to.
+     * @param buffer  the buffer.
+     * @param bytes   the number of bytes needed.
+     * @throws IOException If an I/O error occurs.
+     */
+    private static void flushIfFull(FileChannel channel, ByteBuffer buffer,
+                                    int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package connectfour.model.endgame;
+
+import connectfour.model.utility.Bitboards;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static connectfour.model.Board.COLS;
+import static connectfour.model.Board.ROWS;
+
+/**
+ * Solves positions exactly by searching all their continuations up to the
+ * end of the game.
+ * <p>
+ * Every solved position is kept with its value, see {@link EndgameFormat},
+ * so transpositions and positions shared by several solved positions are
+ * searched only once. The positions kept are the contents of the database.
+ */
+final class EndgameSolver {
+
+    /**
+     * The values of all solved positions by their key.
+     */
+    private final Map<Long, Byte> values = new HashMap<>();
+
+    /**
+     * Solves a position, in which the game is not over.
+     *
+     * @param mover    the bitboard of the player to move.
+     * @param opponent the bitboard of the other player.
+     * @return the value of the position for the player to move.
+     */
+    int solve(long mover, long opponent) {
+        long key = EndgameFormat.key(mover, opponent);
+        Byte known = values.get(key);
+        if (known != null) {
+            return known;
+        }
+
+        long tokens = mover | opponent;
+        int best = Integer.MIN_VALUE;
+        for (int col = 0; col < COLS; col++) {
+            long drop = Bitboards.dropBit(tokens, col);
+            if (drop == 0) {
+                continue;
+            }
+            int value;
+            if (Bitboards.hasWon(mover | drop)) {
+                value = 1;
+            } else if (Long.bitCount(tokens) + 1 == ROWS * COLS) {
+                value = 0;
+            } else {
+                value = EndgameFormat.parentValue(
+                        solve(opponent, mover | drop));
+            }
+            if (best == Integer.MIN_VALUE
+                    || EndgameFormat.rank(value) > EndgameFormat.rank(best)) {
+                best = value;
+            }
+            if (value == 1) {
+                break;
+            }
+        }
+        values.put(key, (byte) best);
+        return best;
+    }
+
+    /**
+     * @return the values of all solved positions by their key.
+     */
+    Map<Long, Byte> getValues() {
+        return values;
+    }
+}
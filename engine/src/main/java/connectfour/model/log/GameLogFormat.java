@@ -0,0 +1,152 @@
+package connectfour.model.log;
+
+import connectfour.model.Player;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Utility class describing the binary layout of a game log.
+ * <p>
+ * A game log starts with a header of {@link GameLogFormat#HEADER_SIZE} bytes,
+ * containing {@link GameLogFormat#MAGIC} and {@link GameLogFormat#VERSION}.
+ * It is followed by any number of records with the layout:
+ * <pre>
+ *  offset  size  content
+ *       0     2  length of the record in bytes, including this field
+ *       2     1  level
+ *       3     1  first player (bits 0-1) and winner (bits 2-3)
+ *       4     1  number of moves n
+ *       5     1  reserved
+ *       6     8  start of the game in milliseconds since the epoch
+ *      14     n  columns of the moves
+ *    14+n   4*n  time needed for each move in milliseconds
+ * </pre>
+ * All values are stored in big-endian byte order.
+ */
+final class GameLogFormat {
+
+    /**
+     * Identifies a game log file, reads "C4GL".
+     */
+    static final int MAGIC = 0x4334474C;
+
+    /**
+     * The version of the record layout.
+     */
+    static final short VERSION = 1;
+
+    /**
+     * The size of the file header in bytes.
+     */
+    static final int HEADER_SIZE = 8;
+
+    /**
+     * The size of the fixed part of each record in bytes.
+     */
+    static final int RECORD_HEADER_SIZE = 14;
+
+    /**
+     * Offsets of the fields inside a record.
+     */
+    static final int OFFSET_LEVEL = 2;
+    static final int OFFSET_PLAYERS = 3;
+    static final int OFFSET_MOVE_COUNT = 4;
+    static final int OFFSET_START = 6;
+    static final int OFFSET_MOVES = 14;
+
+    /**
+     * Private constructor to ensure non-instantiability.
+     */
+    private GameLogFormat() {
+        throw new AssertionError("Utility Class!");
+    }
+
+    /**
+     * Calculates the size of a record with the given number of moves.
+     *
+     * @param moveCount the number of moves.
+     * @return the size of the record in bytes.
+     */
+    static int recordSize(int moveCount) {
+        return RECORD_HEADER_SIZE + moveCount + moveCount * Integer.BYTES;
+    }
+
+    /**
+     * Writes the file header to the given buffer.
+     *
+     * @param buffer the buffer to write to.
+     */
+    static void writeHeader(ByteBuffer buffer) {
+        buffer.putInt(MAGIC).putShort(VERSION).putShort((short) 0);
+    }
+
+    /**
+     * Checks the file header at the current position of the given buffer.
+     *
+     * @param buffer the buffer to read from.
+     * @throws IOException If the header does not belong to a game log of a
+     *                     supported version.
+     */
+    static void checkHeader(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a game log!");
+        }
+        short version = buffer.getShort();
+        buffer.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported game log version " + version);
+        }
+    }
+
+    /**
+     * Writes a record to the given buffer.
+     *
+     * @param record the record to write.
+     * @param buffer the buffer to write to.
+     */
+    static void writeRecord(GameRecord record, ByteBuffer buffer) {
+        byte[] moves = record.moves();
+        buffer.putShort((short) recordSize(moves.length))
+                .put((byte) record.level())
+                .put((byte) (encodePlayer(record.firstPlayer())
+                        | encodePlayer(record.winner()) << 2))
+                .put((byte) moves.length)
+                .put((byte) 0)
+                .putLong(record.startMillis())
+                .put(moves);
+        for (int millis : record.moveMillis()) {
+            buffer.putInt(millis);
+        }
+    }
+
+    /**
+     * Encodes a player into two bits.
+     *
+     * @param player the player or {@code null}.
+     * @return 1 for the human, 2 for the machine and 0 otherwise.
+     */
+    static int encodePlayer(Player player) {
+        if (player == Player.HUMAN) {
+            return 1;
+        } else if (player == Player.MACHINE) {
+            return 2;
+        } else {
+            return 0;
+        }
+    }
+
+    /**
+     * Decodes a player from the lower two bits of the given value.
+     *
+     * @param bits the encoded player.
+     * @return the decoded player or {@code null}.
+     */
+    static Player decodePlayer(int bits) {
+        return switch (bits & 0b11) {
+            case 1 -> Player.HUMAN;
+            case 2 -> Player.MACHINE;
+            default -> null;
+        };
+    }
+}
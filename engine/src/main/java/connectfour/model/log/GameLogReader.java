@@ -0,0 +1,102 @@
+package connectfour.model.log;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * Reads a binary game log written by {@link GameLogWriter}.
+ * <p>
+ * The log is memory-mapped in windows of at most
+ * {@link GameLogReader#WINDOW_SIZE} bytes, therefore iterating even millions
+ * of games does not copy them onto the heap. A truncated record at the end of
+ * the log, e.g. after a crash while writing, is ignored.
+ */
+public class GameLogReader implements Closeable {
+
+    /**
+     * The maximum size of a mapped region in bytes.
+     */
+    static final int WINDOW_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * Channel to the log file, opened for reading.
+     */
+    private final FileChannel channel;
+
+    /**
+     * Opens the given log file for reading.
+     *
+     * @param path the path of the log file.
+     * @throws IOException If the file cannot be opened or is not a game log.
+     */
+    public GameLogReader(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            GameLogFormat.checkHeader(channel.map(FileChannel.MapMode.READ_ONLY,
+                    0, Math.min(channel.size(), GameLogFormat.HEADER_SIZE)));
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Passes every record of the log to the given action, in the order they
+     * were appended.
+     * <p>
+     * The same {@link GameRecordView} instance is passed for every record.
+     *
+     * @param action the action to perform for each record.
+     * @return the number of records read.
+     * @throws IOException If an I/O error occurs.
+     */
+    public long forEach(Consumer<? super GameRecordView> action)
+            throws IOException {
+        GameRecordView view = new GameRecordView();
+        long size = channel.size();
+        long windowStart = GameLogFormat.HEADER_SIZE;
+        long count = 0;
+
+        while (windowStart < size) {
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY,
+                    windowStart, Math.min(size - windowStart, WINDOW_SIZE));
+            int offset = 0;
+            while (window.limit() - offset >= Short.BYTES) {
+                int length = Short.toUnsignedInt(window.getShort(offset));
+                if (length < GameLogFormat.RECORD_HEADER_SIZE) {
+                    throw new IOException("Corrupt record at position "
+                            + (windowStart + offset));
+                } else if (window.limit() - offset < length) {
+                    // continue in the next window
+                    break;
+                }
+                view.position(window, offset);
+                action.accept(view);
+                count++;
+                offset += length;
+            }
+
+            if (offset == 0) {
+                // truncated record at the end of the log
+                break;
+            }
+            windowStart += offset;
+        }
+        return count;
+    }
+
+    /**
+     * Closes the log.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
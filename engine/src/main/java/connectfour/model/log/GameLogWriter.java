@@ -0,0 +1,233 @@
+package connectfour.model.log;
+
+import connectfour.model.Board;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends finished games to a binary game log.
+ * <p>
+ * Records are written to the file immediately, but forced to the storage
+ * device only after every {@code syncInterval} records, when calling
+ * {@link GameLogWriter#flush()} or when the writer is closed. This keeps the
+ * cost of logging a game small while still bounding the number of games
+ * lost on a crash. A record cut off by a crash while writing is removed when
+ * the log is opened again, so the next record follows the last complete one.
+ * <p>
+ * The methods of this class are thread-safe.
+ */
+public class GameLogWriter implements Closeable {
+
+    /**
+     * The default number of records after which the log is forced to the
+     * storage device.
+     */
+    public static final int DEFAULT_SYNC_INTERVAL = 32;
+
+    /**
+     * The system property containing the path of the game log to use.
+     */
+    public static final String PATH_PROPERTY = "connectfour.gamelog";
+
+    /**
+     * The number of bytes read at once while looking for the end of the last
+     * complete record.
+     */
+    private static final int SCAN_SIZE = 64 * 1024;
+
+    /**
+     * Channel to the log file, opened for appending.
+     */
+    private final FileChannel channel;
+
+    /**
+     * Number of records after which the log is forced to the storage device.
+     */
+    private final int syncInterval;
+
+    /**
+     * Buffer the records are encoded into before writing them.
+     */
+    private final ByteBuffer buffer
+            = ByteBuffer.allocate(GameLogFormat.recordSize(
+                    Board.ROWS * Board.COLS));
+
+    /**
+     * Number of records written since the last sync.
+     */
+    private int unsyncedRecords = 0;
+
+    /**
+     * Opens the given log file for appending, creating it if necessary.
+     *
+     * @param path         the path of the log file.
+     * @param syncInterval the number of records after which the log is
+     *                     forced to the storage device.
+     * @throws IOException              If the file cannot be opened, is not
+     *                                  a game log or contains a corrupt
+     *                                  record.
+     * @throws IllegalArgumentException If {@code syncInterval} is not
+     *                                  positive.
+     */
+    public GameLogWriter(Path path, int syncInterval) throws IOException {
+        if (syncInterval < 1) {
+            throw new IllegalArgumentException(
+                    "The sync interval must be positive!");
+        }
+        this.syncInterval = syncInterval;
+        channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() == 0) {
+                GameLogFormat.writeHeader(buffer);
+                write();
+                channel.force(true);
+            } else {
+                ByteBuffer header
+                        = ByteBuffer.allocate(GameLogFormat.HEADER_SIZE);
+                channel.read(header, 0);
+                GameLogFormat.checkHeader(header.flip());
+                long end = completeRecordsEnd();
+                if (end < channel.size()) {
+                    channel.truncate(end);
+                }
+            }
+            channel.position(channel.size());
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens the given log file with the
+     * {@link GameLogWriter#DEFAULT_SYNC_INTERVAL}.
+     *
+     * @param path the path of the log file.
+     * @throws IOException If the file cannot be opened or is not a game log.
+     */
+    public GameLogWriter(Path path) throws IOException {
+        this(path, DEFAULT_SYNC_INTERVAL);
+    }
+
+    /**
+     * Opens the game log configured by the system property
+     * {@link GameLogWriter#PATH_PROPERTY}. The log is closed automatically
+     * when the virtual machine shuts down.
+     *
+     * @return the opened log or {@code null}, if no log is configured.
+     * @throws IOException If the file cannot be opened or is not a game log.
+     */
+    public static GameLogWriter openConfigured() throws IOException {
+        String path = System.getProperty(PATH_PROPERTY);
+        if (path == null || path.isBlank()) {
+            return null;
+        }
+        GameLogWriter writer = new GameLogWriter(Path.of(path));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                writer.close();
+            } catch (IOException ignored) {
+                // nothing left to do while shutting down
+            }
+        }));
+        return writer;
+    }
+
+    /**
+     * Appends a finished game to the log.
+     *
+     * @param record the game to append.
+     * @throws IOException If an I/O error occurs.
+     */
+    public synchronized void append(GameRecord record) throws IOException {
+        GameLogFormat.writeRecord(record, buffer);
+        write();
+        if (++unsyncedRecords >= syncInterval) {
+            flush();
+        }
+    }
+
+    /**
+     * Forces all appended records to the storage device.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    public synchronized void flush() throws IOException {
+        if (unsyncedRecords > 0) {
+            channel.force(false);
+            unsyncedRecords = 0;
+        }
+    }
+
+    /**
+     * Forces all appended records to the storage device and closes the log.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel.isOpen()) {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Walks the lengths of the records from the header to find the end of
+     * the last complete record.
+     *
+     * @return the position after the last complete record.
+     * @throws IOException If an I/O error occurs or a record is corrupt.
+     */
+    private long completeRecordsEnd() throws IOException {
+        ByteBuffer chunk = ByteBuffer.allocate(SCAN_SIZE);
+        long size = channel.size();
+        long end = GameLogFormat.HEADER_SIZE;
+        while (size - end >= Short.BYTES) {
+            chunk.clear().limit((int) Math.min(SCAN_SIZE, size - end));
+            while (chunk.hasRemaining()) {
+                if (channel.read(chunk, end + chunk.position()) < 0) {
+                    throw new IOException("The game log shrank while opening!");
+                }
+            }
+            chunk.flip();
+            int offset = 0;
+            while (chunk.limit() - offset >= Short.BYTES) {
+                int length = Short.toUnsignedInt(chunk.getShort(offset));
+                if (length < GameLogFormat.RECORD_HEADER_SIZE) {
+                    throw new IOException("Corrupt record at position "
+                            + (end + offset));
+                } else if (end + offset + length > size) {
+                    // truncated record at the end of the log
+                    return end + offset;
+                }
+                offset += length;
+            }
+            end += offset;
+        }
+        return end;
+    }
+
+    /**
+     * Writes the content of {@link GameLogWriter#buffer} to the end of the
+     * file and clears the buffer.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    private void write() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
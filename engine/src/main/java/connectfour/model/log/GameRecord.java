@@ -0,0 +1,63 @@
+package connectfour.model.log;
+
+import connectfour.model.Board;
+import connectfour.model.Player;
+
+import java.util.Arrays;
+
+/**
+ * A finished game of Connect Four as it is stored in the game log.
+ * <p>
+ * The moves are stored as the columns the tokens were dropped into, starting
+ * from 0, in the order they were made. The players alternate, starting with
+ * {@code firstPlayer}. For every move the time it took to make it is stored
+ * in milliseconds at the same index.
+ *
+ * @param startMillis the start of the game in milliseconds since the epoch.
+ * @param level       the difficulty level the game ended with.
+ * @param firstPlayer the player who made the first move.
+ * @param winner      the winner or {@code null} in case of a tie.
+ * @param moves       the columns of all moves in the order they were made.
+ * @param moveMillis  the time needed for each move in milliseconds.
+ */
+public record GameRecord(long startMillis, int level, Player firstPlayer,
+                         Player winner, byte[] moves, int[] moveMillis) {
+
+    /**
+     * Validates the given values.
+     *
+     * @throws IllegalArgumentException If the first player is not a human or
+     *                                  a machine, the winner is a tie, or the
+     *                                  moves and timings do not match.
+     */
+    public GameRecord {
+        if (firstPlayer != Player.HUMAN && firstPlayer != Player.MACHINE) {
+            throw new IllegalArgumentException("Invalid first player!");
+        } else if (winner == Player.TIE) {
+            throw new IllegalArgumentException("A tie has no winner!");
+        } else if (moves.length != moveMillis.length
+                || moves.length > Board.ROWS * Board.COLS) {
+            throw new IllegalArgumentException("Invalid number of moves!");
+        }
+    }
+
+    /**
+     * Gets the player who made the move at the given index.
+     *
+     * @param index the index of the move.
+     * @return the player who made the move.
+     */
+    public Player playerOfMove(int index) {
+        return index % 2 == 0 ? firstPlayer
+                : Player.oppositePlayer(firstPlayer);
+    }
+
+    /**
+     * Sums up the time needed for all moves.
+     *
+     * @return the duration of the game in milliseconds.
+     */
+    public long durationMillis() {
+        return Arrays.stream(moveMillis).asLongStream().sum();
+    }
+}
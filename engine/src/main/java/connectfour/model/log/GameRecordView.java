@@ -0,0 +1,134 @@
+package connectfour.model.log;
+
+import connectfour.model.Player;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Read-only view on a single record of a memory-mapped game log.
+ * <p>
+ * All accessors read directly from the mapped file, nothing is copied onto
+ * the heap. A view is reused by {@link GameLogReader} for every record,
+ * therefore it is only valid inside the callback it was passed to. Use
+ * {@link GameRecordView#toRecord()} to keep a copy.
+ */
+public final class GameRecordView {
+
+    /**
+     * The mapped region containing the current record.
+     */
+    private ByteBuffer buffer;
+
+    /**
+     * The offset of the current record inside {@link GameRecordView#buffer}.
+     */
+    private int offset;
+
+    /**
+     * Constructs a view, which has to be positioned before it is used.
+     */
+    GameRecordView() {
+    }
+
+    /**
+     * Positions this view on the record at the given offset.
+     *
+     * @param newBuffer the mapped region containing the record.
+     * @param newOffset the offset of the record inside the region.
+     */
+    void position(ByteBuffer newBuffer, int newOffset) {
+        buffer = newBuffer;
+        offset = newOffset;
+    }
+
+    /**
+     * @return the start of the game in milliseconds since the epoch.
+     */
+    public long startMillis() {
+        return buffer.getLong(offset + GameLogFormat.OFFSET_START);
+    }
+
+    /**
+     * @return the difficulty level the game ended with.
+     */
+    public int level() {
+        return buffer.get(offset + GameLogFormat.OFFSET_LEVEL);
+    }
+
+    /**
+     * @return the player who made the first move.
+     */
+    public Player firstPlayer() {
+        return GameLogFormat.decodePlayer(
+                buffer.get(offset + GameLogFormat.OFFSET_PLAYERS));
+    }
+
+    /**
+     * @return the winner or {@code null} in case of a tie.
+     */
+    public Player winner() {
+        return GameLogFormat.decodePlayer(
+                buffer.get(offset + GameLogFormat.OFFSET_PLAYERS) >> 2);
+    }
+
+    /**
+     * @return the number of moves made in the game.
+     */
+    public int moveCount() {
+        return buffer.get(offset + GameLogFormat.OFFSET_MOVE_COUNT);
+    }
+
+    /**
+     * Gets the column of the move at the given index.
+     *
+     * @param index the index of the move.
+     * @return the column of the move, starting from 0.
+     * @throws IndexOutOfBoundsException If there is no move at that index.
+     */
+    public int move(int index) {
+        checkIndex(index);
+        return buffer.get(offset + GameLogFormat.OFFSET_MOVES + index);
+    }
+
+    /**
+     * Gets the time needed for the move at the given index.
+     *
+     * @param index the index of the move.
+     * @return the time needed for the move in milliseconds.
+     * @throws IndexOutOfBoundsException If there is no move at that index.
+     */
+    public int moveMillis(int index) {
+        checkIndex(index);
+        return buffer.getInt(offset + GameLogFormat.OFFSET_MOVES
+                + moveCount() + index * Integer.BYTES);
+    }
+
+    /**
+     * Copies the current record onto the heap.
+     *
+     * @return a copy of the current record.
+     */
+    public GameRecord toRecord() {
+        int moveCount = moveCount();
+        byte[] moves = new byte[moveCount];
+        int[] moveMillis = new int[moveCount];
+        for (int i = 0; i < moveCount; i++) {
+            moves[i] = (byte) move(i);
+            moveMillis[i] = moveMillis(i);
+        }
+        return new GameRecord(startMillis(), level(), firstPlayer(),
+                winner(), moves, moveMillis);
+    }
+
+    /**
+     * Checks if there is a move at the given index.
+     *
+     * @param index the index of the move.
+     * @throws IndexOutOfBoundsException If there is no move at that index.
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= moveCount()) {
+            throw new IndexOutOfBoundsException("No move at index " + index);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package connectfour.model.log;
+
+import connectfour.model.Board;
+import connectfour.model.Player;
+import connectfour.model.utility.ConnectFourUtility;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+/**
+ * Keeps track of the moves and their timings of a game in progress, to create
+ * a {@link GameRecord} once the game is over.
+ */
+public class GameRecorder {
+
+    /**
+     * The columns of the moves made so far.
+     */
+    private final ByteArrayOutputStream moves = new ByteArrayOutputStream();
+
+    /**
+     * The time needed for each move made so far in milliseconds.
+     */
+    private final int[] moveMillis = new int[Board.ROWS * Board.COLS];
+
+    /**
+     * The player who made the first move, or {@code null} if no move was made.
+     */
+    private Player firstPlayer;
+
+    /**
+     * The start of the game in milliseconds since the epoch.
+     */
+    private long startMillis;
+
+    /**
+     * The point in time of the last move in nanoseconds.
+     */
+    private long lastMoveNanos;
+
+    /**
+     * Constructs a new GameRecorder and starts recording a new game.
+     */
+    public GameRecorder() {
+        start();
+    }
+
+    /**
+     * Discards all recorded moves and starts recording a new game.
+     */
+    public void start() {
+        moves.reset();
+        firstPlayer = null;
+        startMillis = System.currentTimeMillis();
+        lastMoveNanos = System.nanoTime();
+    }
+
+    /**
+     * Records the move leading from one board to the other. The time needed
+     * for the move is measured from the previously recorded move or the start
+     * of the game.
+     *
+     * @param before the board before the move.
+     * @param after  the board after the move.
+     * @throws IllegalArgumentException The boards do not differ by exactly
+     *                                  one move.
+     */
+    public void recordMove(Board before, Board after) {
+        int col = ConnectFourUtility.findMove(before, after);
+        long now = System.nanoTime();
+        int count = moves.size();
+        if (count == 0) {
+            firstPlayer = after.getSlot(
+                    ConnectFourUtility.topRow(after, col), col);
+        }
+        moves.write(col);
+        moveMillis[count] = (int) ((now - lastMoveNanos) / 1_000_000);
+        lastMoveNanos = now;
+    }
+
+    /**
+     * Discards the recorded moves following the given number of moves, after
+     * they were taken back. The time of the next move is measured from now.
+     *
+     * @param moveCount the number of moves to keep.
+     * @throws IllegalArgumentException Fewer moves were recorded.
+     */
+    public void truncate(int moveCount) {
+        if (moveCount < 0 || moveCount > moves.size()) {
+            throw new IllegalArgumentException("Invalid number of moves!");
+        }
+        byte[] kept = moves.toByteArray();
+        moves.reset();
+        moves.write(kept, 0, moveCount);
+        if (moveCount == 0) {
+            firstPlayer = null;
+        }
+        lastMoveNanos = System.nanoTime();
+    }
+
+    /**
+     * @return the number of moves recorded.
+     */
+    public int size() {
+        return moves.size();
+    }
+
+    /**
+     * Creates the record of the finished game.
+     *
+     * @param board the final board of the game.
+     * @param level the level the game ended with.
+     * @return the record of the game.
+     * @throws IllegalStateException The game is not over yet or no move was
+     *                               recorded.
+     */
+    public GameRecord finish(Board board, int level) {
+        if (!board.isGameOver() || firstPlayer == null) {
+            throw new IllegalStateException("The game is not over yet!");
+        }
+        return new GameRecord(startMillis, level, firstPlayer,
+                board.getWinner(), moves.toByteArray(),
+                Arrays.copyOf(moveMillis, moves.size()));
+    }
+
+}
@@ -0,0 +1,103 @@
+package connectfour.model.utility;
+
+import java.util.Locale;
+
+import static connectfour.model.Board.CONNECT;
+
+/**
+ * Counts the groups of a batch of bitboards, see
+ * {@link Bitboards#countGroups(long[], int, int[])}.
+ */
+interface BatchGroupCounter {
+
+    /**
+     * The class counting with the Vector API, which is only loaded if the
+     * module {@code jdk.incubator.vector} is available. It is compiled in the
+     * separate {@code vector} source set and only found, if that is on the
+     * class path.
+     */
+    String VECTOR_COUNTER = "connectfour.model.utility.VectorGroupCounter";
+
+    /**
+     * The minimum number of longs per vector, for which the Vector API is
+     * used.
+     */
+    int MIN_LANES = 4;
+
+    /**
+     * Counts the groups of a batch of bitboards.
+     *
+     * @param bits   the bitboards.
+     * @param count  the number of bitboards to count, starting at index 0.
+     * @param groups the counts of groups, {@code CONNECT - 1} per bitboard,
+     *               increased by this method.
+     */
+    void countGroups(long[] bits, int count, int[] groups);
+
+    /**
+     * @return the name of the implementation.
+     */
+    String name();
+
+    /**
+     * @return the number of bitboards counted at once.
+     */
+    int lanes();
+
+    /**
+     * Selects the implementation for the given mode. The Vector API is only
+     * used with {@code vector}, if it is available and the virtual machine
+     * runs on x86-64 Linux with vectors of at least
+     * {@link BatchGroupCounter#MIN_LANES} longs. Otherwise one bitboard is
+     * counted after the other.
+     *
+     * @param mode the mode, either {@code vector} or {@code scalar}.
+     * @return the implementation.
+     */
+    static BatchGroupCounter select(String mode) {
+        BatchGroupCounter scalar = new ScalarGroupCounter();
+        String os = System.getProperty("os.name", "")
+                .toLowerCase(Locale.ROOT);
+        String arch = System.getProperty("os.arch", "");
+        if (!mode.equals("vector") || !os.startsWith("linux")
+                || !(arch.equals("amd64") || arch.equals("x86_64"))
+                || ModuleLayer.boot().findModule("jdk.incubator.vector")
+                .isEmpty()) {
+            return scalar;
+        }
+
+        BatchGroupCounter vector;
+        try {
+            vector = (BatchGroupCounter) Class.forName(VECTOR_COUNTER)
+                    .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError
+                 | IllegalStateException e) {
+            return scalar;
+        }
+        return vector.lanes() >= MIN_LANES ? vector : scalar;
+    }
+
+    /**
+     * Counts one bitboard after the other with
+     * {@link Bitboards#countGroups(long, int[])}.
+     */
+    final class ScalarGroupCounter implements BatchGroupCounter {
+
+        @Override
+        public void countGroups(long[] bits, int count, int[] groups) {
+            for (int i = 0; i < count; i++) {
+                Bitboards.countGroups(bits[i], groups, i * (CONNECT - 1));
+            }
+        }
+
+        @Override
+        public String name() {
+            return "scalar";
+        }
+
+        @Override
+        public int lanes() {
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,391 @@
+package connectfour.model.utility;
+
+import connectfour.model.Coordinates2D;
+
+import java.util.stream.IntStream;
+
+import static connectfour.model.Board.COLS;
+import static connectfour.model.Board.CONNECT;
+import static connectfour.model.Board.ROWS;
+
+/**
+ * Utility class providing precomputed bitmasks for a board of standard size.
+ * <p>
+ * A bitboard stores the tokens of one player in a {@code long}. The slot in
+ * row {@code row} and column {@code col}, where (0,0) is the top left
+ * corner, is stored in bit {@code col * HEIGHT + ROWS - 1 - row}. Each column
+ * uses {@link Bitboards#HEIGHT} bits, one more than there are rows, so the
+ * topmost bit of each column is always empty. This separates the columns and
+ * lets lines in every direction be traversed by shifting the whole board.
+ * <p>
+ * The class contains all windows of {@link connectfour.model.Board#CONNECT}
+ * slots in a line, i.e. every possible winning group, as bitmasks and an
+ * index of the windows covering each slot.
+ */
+public final class Bitboards {
+
+    /**
+     * The number of bits used per column.
+     */
+    public static final int HEIGHT = ROWS + 1;
+
+    /**
+     * The system property selecting the counting of groups in batches,
+     * either {@code vector} or {@code scalar}, see
+     * {@link Bitboards#countGroups(long[], int, int[])}. Defaults to
+     * {@code scalar}.
+     */
+    public static final String BATCH_PROPERTY = "connectfour.engine.batch";
+
+    /**
+     * The shifts moving a slot to the next slot in the same line.
+     * The order is vertical, horizontal, left down to right up and left up
+     * to right down.
+     */
+    static final int[] DIRECTION_SHIFTS = {1, HEIGHT, HEIGHT + 1,
+            HEIGHT - 1};
+
+    /**
+     * The bitmask of the bottom row.
+     */
+    private static final long BOTTOM_ROW = calculateBottomRow();
+
+    /**
+     * The top row without the leftmost slot.
+     */
+    static final long TOP_ROW_TAIL = calculateTopRowTail();
+
+    /**
+     * All windows of {@code CONNECT} slots in a line.
+     */
+    private static final long[] WINDOWS = calculateWindows();
+
+    /**
+     * The indices of all windows covering each slot, by bit position.
+     */
+    private static final int[][] WINDOWS_BY_BIT = calculateWindowsByBit();
+
+    /**
+     * The implementation counting the groups of batches of bitboards.
+     */
+    private static final BatchGroupCounter BATCH_COUNTER
+            = BatchGroupCounter.select(System.getProperty(BATCH_PROPERTY,
+            "scalar"));
+
+    /**
+     * Private constructor to indicate utility class.
+     */
+    private Bitboards() {
+        throw new AssertionError("Utility Class!");
+    }
+
+    /**
+     * Gets the bit position of the slot at the given coordinates.
+     *
+     * @param row the row of the slot, starting at the top.
+     * @param col the column of the slot, starting at the left.
+     * @return the bit position.
+     */
+    public static int bit(int row, int col) {
+        return col * HEIGHT + ROWS - 1 - row;
+    }
+
+    /**
+     * Gets the coordinates of the slot at the given bit position.
+     *
+     * @param bit the bit position.
+     * @return the coordinates, where (0,0) is the top left corner.
+     */
+    public static Coordinates2D coordinates(int bit) {
+        return Coordinates2D.of(ROWS - 1 - bit % HEIGHT, bit / HEIGHT);
+    }
+
+    /**
+     * Gets a bitmask containing all slots of the given column.
+     *
+     * @param col the column, starting at the left.
+     * @return the bitmask of the column.
+     */
+    public static long columnMask(int col) {
+        return ((1L << ROWS) - 1) << (col * HEIGHT);
+    }
+
+    /**
+     * Calculates a key identifying a position uniquely. The key is the sum
+     * of the bitboard of the machine, the bitboard of all tokens and the
+     * bottom row. Adding the bottom row to all tokens sets the lowest empty
+     * bit of each column, which encodes the height of the column, so the
+     * tokens of the machine determine the tokens of the human.
+     *
+     * @param humanBits   the bitboard of the human.
+     * @param machineBits the bitboard of the machine.
+     * @return the key, which is less than {@code 2^(COLS * HEIGHT)}.
+     */
+    public static long key(long humanBits, long machineBits) {
+        return machineBits + (humanBits | machineBits) + BOTTOM_ROW;
+    }
+
+    /**
+     * Gets the bit of the slot a token dropped into the given column lands
+     * in.
+     *
+     * @param tokens the bitboard of the tokens of both players.
+     * @param col    the column, starting at the left.
+     * @return the bit of the slot, or 0 if the column is full.
+     */
+    public static long dropBit(long tokens, int col) {
+        return (tokens + BOTTOM_ROW) & columnMask(col);
+    }
+
+    /**
+     * Checks if the given bitboard contains {@code CONNECT} tokens in a
+     * line.
+     *
+     * @param bits the bitboard of a player.
+     * @return true if the player has won, false otherwise.
+     */
+    public static boolean hasWon(long bits) {
+        for (int shift : DIRECTION_SHIFTS) {
+            long line = bits;
+            for (int i = 1; i < CONNECT; i++) {
+                line &= bits >>> (i * shift);
+            }
+            if (line != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Mirrors a bitboard at the middle column.
+     *
+     * @param bits the bitboard.
+     * @return the mirrored bitboard.
+     */
+    public static long mirror(long bits) {
+        long mirrored = 0;
+        for (int col = 0; col < COLS; col++) {
+            mirrored |= ((bits >>> (col * HEIGHT)) & columnMask(0))
+                    << ((COLS - 1 - col) * HEIGHT);
+        }
+        return mirrored;
+    }
+
+    /**
+     * @return the number of windows of {@code CONNECT} slots in a line.
+     */
+    public static int windowCount() {
+        return WINDOWS.length;
+    }
+
+    /**
+     * Gets the window at the given index.
+     *
+     * @param index the index of the window.
+     * @return the bitmask of the window.
+     */
+    public static long window(int index) {
+        return WINDOWS[index];
+    }
+
+    /**
+     * Gets the number of windows covering the slot at the given bit
+     * position.
+     *
+     * @param bit the bit position of the slot.
+     * @return the number of windows covering the slot.
+     */
+    public static int windowCountAt(int bit) {
+        return WINDOWS_BY_BIT[bit].length;
+    }
+
+    /**
+     * Gets a window covering the slot at the given bit position.
+     *
+     * @param bit   the bit position of the slot.
+     * @param index the index of the window between 0 and
+     *              {@link Bitboards#windowCountAt(int)}.
+     * @return the bitmask of the window.
+     */
+    public static long windowAt(int bit, int index) {
+        return WINDOWS[WINDOWS_BY_BIT[bit][index]];
+    }
+
+    /**
+     * Counts the groups of a player in every line of the board.
+     * <p>
+     * A group is a maximal run of at least two tokens of the player in a
+     * line. The count of groups of size n is increased at index n - 2, where
+     * every group of {@code CONNECT} or more tokens is counted at index
+     * {@code CONNECT - 2}. A run longer than {@code CONNECT} is split into
+     * groups of {@code CONNECT} tokens and a remainder.
+     * <p>
+     * The top row without its leftmost slot is counted a second time, as the
+     * original traversal of the board did. This keeps the evaluation of the
+     * machine unchanged.
+     *
+     * @param bits   the bitboard of the player.
+     * @param groups the counts of groups, increased by this method.
+     */
+    public static void countGroups(long bits, int[] groups) {
+        countGroups(bits, groups, 0);
+    }
+
+    /**
+     * Counts the groups of a batch of bitboards, like
+     * {@link Bitboards#countGroups(long, int[])} does for each of them.
+     * <p>
+     * Depending on {@link Bitboards#BATCH_PROPERTY}, the batch is counted
+     * by SIMD instructions of the incubating Vector API or one bitboard
+     * after the other. The Vector API is only used if it was requested, the
+     * module {@code jdk.incubator.vector} was added to the virtual machine,
+     * the classes of the {@code vector} source set are on the class path
+     * and it runs on x86-64 Linux with vectors of at least four longs. It
+     * is not the default, since it was measured to be slower than the
+     * scalar counting with AVX-512, see the {@code benchBatchCounting} task.
+     *
+     * @param bits   the bitboards, of at least
+     *               {@link Bitboards#batchLength(int)} elements.
+     * @param count  the number of bitboards to count, starting at index 0.
+     * @param groups the counts of groups, {@code CONNECT - 1} per bitboard
+     *               in the order of the bitboards, increased by this method.
+     */
+    public static void countGroups(long[] bits, int count, int[] groups) {
+        BATCH_COUNTER.countGroups(bits, count, groups);
+    }
+
+    /**
+     * Gets the length of an array holding a batch of bitboards, which lets
+     * the Vector API load whole vectors.
+     *
+     * @param count the number of bitboards.
+     * @return the length of the array.
+     */
+    public static int batchLength(int count) {
+        int lanes = BATCH_COUNTER.lanes();
+        return (count + lanes - 1) / lanes * lanes;
+    }
+
+    /**
+     * @return the name of the implementation counting batches of
+     * bitboards, either {@code vector} or {@code scalar}.
+     */
+    public static String batchCounter() {
+        return BATCH_COUNTER.name();
+    }
+
+    /**
+     * Counts the groups of a player in every line of the board.
+     *
+     * @param bits   the bitboard of the player.
+     * @param groups the counts of groups, increased by this method.
+     * @param offset the index of the count of groups of size 2.
+     */
+    static void countGroups(long bits, int[] groups, int offset) {
+        for (int shift : DIRECTION_SHIFTS) {
+            countGroupsInDirection(bits, shift, groups, offset);
+        }
+        countGroupsInDirection(bits & TOP_ROW_TAIL, HEIGHT, groups, offset);
+    }
+
+    /**
+     * Counts the groups of a player in all lines of one direction.
+     *
+     * @param bits   the bitboard of the player.
+     * @param shift  the shift moving a slot to the next one in the line.
+     * @param groups the counts of groups, increased by this method.
+     * @param offset the index of the count of groups of size 2.
+     */
+    private static void countGroupsInDirection(long bits, int shift,
+                                               int[] groups, int offset) {
+        // slots starting a run, i.e. the previous slot is not occupied
+        long runs = bits & ~(bits << shift);
+        for (int length = 1; runs != 0; length++) {
+            long longerRuns = runs & (bits >>> (length * shift));
+            int count = Long.bitCount(runs) - Long.bitCount(longerRuns);
+            if (count > 0) {
+                groups[offset + CONNECT - 2] += length / CONNECT * count;
+                if (length % CONNECT >= 2) {
+                    groups[offset + length % CONNECT - 2] += count;
+                }
+            }
+            runs = longerRuns;
+        }
+    }
+
+    /**
+     * Calculates the bitmask of the bottom row.
+     *
+     * @return the bitmask.
+     */
+    private static long calculateBottomRow() {
+        long mask = 0;
+        for (int col = 0; col < COLS; col++) {
+            mask |= 1L << bit(ROWS - 1, col);
+        }
+        return mask;
+    }
+
+    /**
+     * Calculates the bitmask of the top row without the leftmost slot.
+     *
+     * @return the bitmask.
+     */
+    private static long calculateTopRowTail() {
+        long mask = 0;
+        for (int col = 1; col < COLS; col++) {
+            mask |= 1L << bit(0, col);
+        }
+        return mask;
+    }
+
+    /**
+     * Calculates all windows of {@code CONNECT} slots in a line, ordered by
+     * direction and starting slot.
+     *
+     * @return the bitmasks of all windows.
+     */
+    private static long[] calculateWindows() {
+        // directions as row and column increments, matching the shifts
+        int[][] directions = {{-1, 0}, {0, 1}, {-1, 1}, {1, 1}};
+        long[] windows = new long[ROWS * COLS * directions.length];
+        int count = 0;
+
+        for (int[] direction : directions) {
+            for (int row = 0; row < ROWS; row++) {
+                for (int col = 0; col < COLS; col++) {
+                    int endRow = row + (CONNECT - 1) * direction[0];
+                    int endCol = col + (CONNECT - 1) * direction[1];
+                    if (endRow < 0 || endRow >= ROWS || endCol >= COLS) {
+                        continue;
+                    }
+                    long window = 0;
+                    for (int i = 0; i < CONNECT; i++) {
+                        window |= 1L << bit(row + i * direction[0],
+                                col + i * direction[1]);
+                    }
+                    windows[count++] = window;
+                }
+            }
+        }
+        long[] result = new long[count];
+        System.arraycopy(windows, 0, result, 0, count);
+        return result;
+    }
+
+    /**
+     * Calculates the indices of all windows covering each slot.
+     *
+     * @return the indices of the windows, by bit position.
+     */
+    private static int[][] calculateWindowsByBit() {
+        int[][] windowsByBit = new int[COLS * HEIGHT][];
+        for (int bit = 0; bit < windowsByBit.length; bit++) {
+            long mask = 1L << bit;
+            windowsByBit[bit] = IntStream.range(0, WINDOWS.length)
+                    .filter(i -> (WINDOWS[i] & mask) != 0).toArray();
+        }
+        return windowsByBit;
+    }
+}
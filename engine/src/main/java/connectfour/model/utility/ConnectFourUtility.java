@@ -0,0 +1,75 @@
+package connectfour.model.utility;
+
+import connectfour.model.Board;
+import connectfour.model.Coordinates2D;
+import connectfour.model.Player;
+
+/**
+ * Utility class.
+ */
+public final class ConnectFourUtility {
+
+    /**
+     * Private constructor to indicate utility class.
+     */
+    private ConnectFourUtility() {
+        throw new AssertionError("Utility Class!");
+    }
+
+    /**
+     * Converts a {@link Coordinates2D} of a board where (0,0) is in the top
+     * left corner to a {@link Coordinates2D} of a board, where (1,1) is in the
+     * bottom left corner. Basically just moving the origin of the
+     * coordinate system.
+     *
+     * @param cord the coordinate to be converted.
+     * @return the converted coordinate.
+     */
+    public static Coordinates2D convertCord(Coordinates2D cord) {
+        int newRow = Board.ROWS + 1 - (cord.row() + 1);
+        int newCol = cord.col() + 1;
+        return Coordinates2D.of(newRow, newCol);
+    }
+
+    /**
+     * Finds the column in which a token was added.
+     *
+     * @param before the board before the move.
+     * @param after  the board after the move.
+     * @return the column of the move.
+     * @throws IllegalArgumentException The boards do not differ by exactly
+     *                                  one move.
+     */
+    public static int findMove(Board before, Board after) {
+        int col = -1;
+        for (int i = 0; i < Board.COLS; i++) {
+            if (topRow(before, i) != topRow(after, i)) {
+                if (col != -1) {
+                    throw new IllegalArgumentException("More than one move!");
+                }
+                col = i;
+            }
+        }
+        if (col == -1) {
+            throw new IllegalArgumentException("No move was made!");
+        }
+        return col;
+    }
+
+    /**
+     * Gets the topmost occupied row of a column.
+     *
+     * @param board the board.
+     * @param col   the column.
+     * @return the topmost occupied row or {@link Board#ROWS} if the column
+     * is empty.
+     */
+    public static int topRow(Board board, int col) {
+        int row = 0;
+        while (row < Board.ROWS && board.getSlot(row, col) == Player.TIE) {
+            row++;
+        }
+        return row;
+    }
+
+}
@@ -0,0 +1,25 @@
+/**
+ * The game model of Connect Four and the engine calculating the machine
+ * moves. The module does not read java.desktop, so it cannot depend on AWT
+ * or Swing. Further engines and evaluators of the minimax engine can be
+ * plugged in as services.
+ */
+module connectfour.engine {
+    requires jdk.jfr;
+
+    uses connectfour.engine.Engine;
+    uses connectfour.engine.Evaluator;
+
+    provides connectfour.engine.Engine with
+            connectfour.engine.MinimaxEngine,
+            connectfour.engine.MonteCarloEngine;
+    provides connectfour.engine.Evaluator with
+            connectfour.engine.GroupEvaluator;
+
+    exports connectfour.engine;
+    exports connectfour.model;
+    exports connectfour.model.endgame;
+    exports connectfour.model.exceptions;
+    exports connectfour.model.log;
+    exports connectfour.model.utility;
+}
@@ -0,0 +1,72 @@
+package connectfour.model.log;
+
+import connectfour.model.Player;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests appending to a game log after a crash cut off its last record.
+ */
+class GameLogWriterTest {
+
+    /**
+     * A game, whose record is cut off.
+     */
+    private static final GameRecord CUT_OFF = new GameRecord(1, 4,
+            Player.HUMAN, Player.MACHINE, new byte[]{3, 3, 2, 4, 1, 5, 0},
+            new int[]{1, 2, 3, 4, 5, 6, 7});
+
+    /**
+     * A game appended after the cut off record.
+     */
+    private static final GameRecord APPENDED = new GameRecord(2, 5,
+            Player.MACHINE, null, new byte[]{3, 2}, new int[]{8, 9});
+
+    /**
+     * Checks that a record appended after a truncated one is read instead
+     * of the truncated one.
+     *
+     * @param dir a temporary directory.
+     * @throws IOException If the log cannot be written or read.
+     */
+    @Test
+    void appendsAfterLastCompleteRecord(@TempDir Path dir) throws IOException {
+        Path path = dir.resolve("games.log");
+        try (GameLogWriter writer = new GameLogWriter(path)) {
+            writer.append(APPENDED);
+            writer.append(CUT_OFF);
+        }
+        long size = Files.size(path);
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.WRITE)) {
+            channel.truncate(size - 5);
+        }
+
+        try (GameLogWriter writer = new GameLogWriter(path)) {
+            writer.append(APPENDED);
+        }
+
+        List<GameRecord> records = new ArrayList<>();
+        try (GameLogReader reader = new GameLogReader(path)) {
+            reader.forEach(view -> records.add(view.toRecord()));
+        }
+        assertEquals(2, records.size());
+        for (GameRecord record : records) {
+            assertEquals(APPENDED.startMillis(), record.startMillis());
+            assertEquals(APPENDED.moves().length, record.moves().length);
+        }
+        assertEquals(size - GameLogFormat.recordSize(
+                CUT_OFF.moves().length) + GameLogFormat.recordSize(
+                APPENDED.moves().length), Files.size(path));
+    }
+}
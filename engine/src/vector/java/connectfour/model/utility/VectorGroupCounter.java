@@ -0,0 +1,165 @@
+package connectfour.model.utility;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import static connectfour.model.Board.COLS;
+import static connectfour.model.Board.CONNECT;
+import static connectfour.model.Board.ROWS;
+
+/**
+ * Counts the groups of a batch of bitboards with the incubating Vector API,
+ * one bitboard per lane.
+ * <p>
+ * The runs of each direction are traced like in
+ * {@link Bitboards#countGroups(long, int[])}, but for every possible length
+ * instead of until no run is left, so that all lanes execute the same
+ * instructions. The runs ending at each length are merged into one mask per
+ * group size, since the lines are shorter than {@code 2 * CONNECT} and
+ * every run therefore adds at most one group of each size. The masks are
+ * counted with a SIMD population count, which sums the bits of each byte,
+ * then of all directions and finally of the whole lane.
+ * <p>
+ * Only loaded by {@link BatchGroupCounter#select(String)} if the module
+ * {@code jdk.incubator.vector} is available.
+ */
+final class VectorGroupCounter implements BatchGroupCounter {
+
+    /**
+     * The vectors used, which are the widest ones supported by the
+     * processor.
+     */
+    private static final VectorSpecies<Long> SPECIES
+            = LongVector.SPECIES_PREFERRED;
+
+    /**
+     * The length of the longest line of the board.
+     */
+    private static final int MAX_LENGTH = Math.max(ROWS, COLS);
+
+    /**
+     * The number of directions of the lines.
+     */
+    private static final int DIRECTIONS = Bitboards.DIRECTION_SHIFTS.length;
+
+    /**
+     * The masks of the population count, selecting every other bit, pair of
+     * bits, nibble and byte.
+     */
+    private static final long BITS = 0x5555_5555_5555_5555L;
+    private static final long PAIRS = 0x3333_3333_3333_3333L;
+    private static final long NIBBLES = 0x0f0f_0f0f_0f0f_0f0fL;
+    private static final long BYTES = 0x00ff_00ff_00ff_00ffL;
+
+    /**
+     * Constructs a new VectorGroupCounter.
+     *
+     * @throws IllegalStateException The groups or the lines of the board do
+     *                               not have the sizes this class counts.
+     */
+    VectorGroupCounter() {
+        if (CONNECT != 4 || MAX_LENGTH >= 2 * CONNECT) {
+            throw new IllegalStateException("Unsupported board size!");
+        }
+    }
+
+    @Override
+    public void countGroups(long[] bits, int count, int[] groups) {
+        long[] counts = new long[3 * SPECIES.length()];
+        for (int start = 0; start < count; start += SPECIES.length()) {
+            LongVector board = start + SPECIES.length() <= bits.length
+                    ? LongVector.fromArray(SPECIES, bits, start)
+                    : LongVector.fromArray(SPECIES, bits, start,
+                    SPECIES.indexInRange(start, bits.length));
+
+            // the bit counts per byte of the groups of size 2, 3 and 4
+            LongVector pairs = LongVector.zero(SPECIES);
+            LongVector triples = pairs;
+            LongVector fours = pairs;
+            for (int direction = 0; direction <= DIRECTIONS; direction++) {
+                LongVector lines = board;
+                int shift;
+                if (direction < DIRECTIONS) {
+                    shift = Bitboards.DIRECTION_SHIFTS[direction];
+                } else {
+                    lines = board.and(Bitboards.TOP_ROW_TAIL);
+                    shift = Bitboards.HEIGHT;
+                }
+
+                // slots starting a run, i.e. the previous slot is not
+                // occupied, and the runs ending at each length
+                LongVector runs = lines.and(lines.lanewise(
+                        VectorOperators.LSHL, shift).not());
+                LongVector endingPairs = LongVector.zero(SPECIES);
+                LongVector endingTriples = endingPairs;
+                LongVector endingFours = endingPairs;
+                for (int length = 2; length <= MAX_LENGTH; length++) {
+                    LongVector longerRuns = runs.and(lines.lanewise(
+                            VectorOperators.LSHR, (length - 1) * shift));
+                    LongVector ending = longerRuns.and(lines.lanewise(
+                            VectorOperators.LSHR, length * shift).not());
+                    if (length % CONNECT == 2) {
+                        endingPairs = endingPairs.or(ending);
+                    } else if (length % CONNECT == 3) {
+                        endingTriples = endingTriples.or(ending);
+                    }
+                    if (length >= CONNECT) {
+                        endingFours = endingFours.or(ending);
+                    }
+                    runs = longerRuns;
+                }
+                pairs = pairs.add(countBytes(endingPairs));
+                triples = triples.add(countBytes(endingTriples));
+                fours = fours.add(countBytes(endingFours));
+            }
+
+            sumBytes(pairs).intoArray(counts, 0);
+            sumBytes(triples).intoArray(counts, SPECIES.length());
+            sumBytes(fours).intoArray(counts, 2 * SPECIES.length());
+            for (int lane = 0; lane < SPECIES.length()
+                    && start + lane < count; lane++) {
+                for (int size = 0; size < 3; size++) {
+                    groups[(start + lane) * (CONNECT - 1) + size]
+                            += (int) counts[size * SPECIES.length() + lane];
+                }
+            }
+        }
+    }
+
+    @Override
+    public String name() {
+        return "vector";
+    }
+
+    @Override
+    public int lanes() {
+        return SPECIES.length();
+    }
+
+    /**
+     * Counts the set bits of each byte.
+     *
+     * @param x the vector.
+     * @return the vector with the number of set bits in each byte.
+     */
+    private static LongVector countBytes(LongVector x) {
+        x = x.sub(x.lanewise(VectorOperators.LSHR, 1).and(BITS));
+        x = x.and(PAIRS).add(x.lanewise(VectorOperators.LSHR, 2).and(PAIRS));
+        return x.add(x.lanewise(VectorOperators.LSHR, 4)).and(NIBBLES);
+    }
+
+    /**
+     * Sums the bytes of each lane. The sum of each pair of bytes is kept in
+     * 16 bits, so the bytes may hold counts of up to 255.
+     *
+     * @param x the vector.
+     * @return the vector with the sum of the bytes in each lane.
+     */
+    private static LongVector sumBytes(LongVector x) {
+        x = x.and(BYTES).add(x.lanewise(VectorOperators.LSHR, 8).and(BYTES));
+        x = x.add(x.lanewise(VectorOperators.LSHR, 16));
+        return x.add(x.lanewise(VectorOperators.LSHR, 32)).and(0xffff);
+    }
+}
@@ -0,0 +1,135 @@
+package connectfour.bench;
+
+import connectfour.gui.BoardView;
+import connectfour.model.Board;
+import connectfour.model.Player;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+/**
+ * Measures painting the board with {@link BoardView} on large windows.
+ * <p>
+ * For every window size the benchmark reports the paint after a resize by a
+ * few pixels, as when dragging the border of a window, which rasterizes the
+ * token images of the new size, the following full repaints, a repaint
+ * of a single slot, and a full repaint drawing every token as anti-aliased
+ * circle, as the former one component per token did.
+ */
+public final class BoardPaintBenchmark {
+
+    /**
+     * The window sizes, as pairs of width and height.
+     */
+    private static final int[][] SIZES = {{700, 600}, {1400, 1200},
+            {2800, 2400}, {3840, 2160}};
+
+    /**
+     * The number of measured repaints per size.
+     */
+    private static final int REPAINTS = 200;
+
+    /**
+     * The number of measured resizes per size.
+     */
+    private static final int RESIZES = 30;
+
+    /**
+     * Private constructor to ensure non-instantiability.
+     */
+    private BoardPaintBenchmark() {
+        throw new AssertionError("Utility Class!");
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args the program arguments, which are ignored.
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        BoardView view = new BoardView(position -> { });
+        for (int row = 0; row < Board.ROWS; row++) {
+            for (int col = 0; col < Board.COLS; col++) {
+                Player player = Player.values()[(row + col) % 3];
+                view.updateCell(row, col, player, row == col);
+            }
+        }
+
+        System.out.printf("%-11s %12s %12s %12s %12s%n", "size",
+                "resize ms", "full ms", "slot ms", "circles ms");
+        for (int[] size : SIZES) {
+            BufferedImage image = new BufferedImage(size[0], size[1],
+                    BufferedImage.TYPE_INT_RGB);
+            double resize = 0;
+            for (int i = RESIZES - 1; i >= 0; i--) {
+                view.setSize(size[0] - i * Board.COLS,
+                        size[1] - i * Board.ROWS);
+                resize += measure(image, view, 1, false) / RESIZES;
+            }
+
+            double full = measure(image, view, REPAINTS, false);
+            double slot = measure(image, view, REPAINTS, true);
+            double circles = measureCircles(image, REPAINTS);
+            System.out.printf("%-11s %12.3f %12.3f %12.3f %12.3f%n",
+                    size[0] + "x" + size[1], resize, full, slot, circles);
+        }
+    }
+
+    /**
+     * Measures painting the view onto an image.
+     *
+     * @param image    the image to paint onto.
+     * @param view     the view to paint.
+     * @param repaints the number of repaints.
+     * @param slotOnly if only the top left slot is repainted.
+     * @return the average time per repaint in milliseconds.
+     */
+    private static double measure(BufferedImage image, BoardView view,
+                                  int repaints, boolean slotOnly) {
+        long start = System.nanoTime();
+        for (int i = 0; i < repaints; i++) {
+            Graphics2D g2 = image.createGraphics();
+            if (slotOnly) {
+                g2.clipRect(0, 0, view.getWidth() / Board.COLS,
+                        view.getHeight() / Board.ROWS);
+            }
+            view.paint(g2);
+            g2.dispose();
+        }
+        return (System.nanoTime() - start) / 1e6 / repaints;
+    }
+
+    /**
+     * Measures painting every token as anti-aliased circle onto an image.
+     *
+     * @param image    the image to paint onto.
+     * @param repaints the number of repaints.
+     * @return the average time per repaint in milliseconds.
+     */
+    private static double measureCircles(BufferedImage image, int repaints) {
+        int width = image.getWidth() / Board.COLS;
+        int height = image.getHeight() / Board.ROWS;
+        int radius = (int) (Math.min(width, height) * 0.9) / 2;
+        long start = System.nanoTime();
+        for (int i = 0; i < repaints; i++) {
+            Graphics2D g2 = image.createGraphics();
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                    RenderingHints.VALUE_ANTIALIAS_ON);
+            for (int row = 0; row < Board.ROWS; row++) {
+                for (int col = 0; col < Board.COLS; col++) {
+                    g2.setColor(Color.BLUE);
+                    g2.fillRect(col * width, row * height, width, height);
+                    g2.setColor(Color.WHITE);
+                    g2.fillOval(col * width + width / 2 - radius,
+                            row * height + height / 2 - radius,
+                            radius * 2, radius * 2);
+                }
+            }
+            g2.dispose();
+        }
+        return (System.nanoTime() - start) / 1e6 / repaints;
+    }
+}
@@ -1,7 +1,10 @@
 package connectfour;
 
+import connectfour.engine.EngineService;
 import connectfour.gui.ConnectFourWindow;
 
+import java.time.Duration;
+
 /**
  * Utility class to start the program.
  */
@@ -15,11 +18,18 @@ public final class Main {
     }
 
     /**
-     * Schedules the creation of the gui for the event-dispatching thread.
+     * Schedules the creation of the gui for the event-dispatching thread and
+     * warms up the engine meanwhile, unless
+     * {@link EngineService#WARM_UP_PROPERTY} is 0.
      *
      * @param args the program arguments
      */
     public static void main(String[] args) {
+        long warmUp = Long.getLong(EngineService.WARM_UP_PROPERTY,
+                EngineService.DEFAULT_WARM_UP.toMillis());
+        if (warmUp > 0) {
+            EngineService.shared().warmUp(Duration.ofMillis(warmUp));
+        }
         javax.swing.SwingUtilities.invokeLater(Main::createAndShowGUI);
     }
 
@@ -0,0 +1,375 @@
+package connectfour.gui;
+
+import connectfour.model.Board;
+import connectfour.model.Coordinates2D;
+import connectfour.model.Player;
+import connectfour.model.SearchIteration;
+
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Visual representation of the grid of a game of Connect Four, painted as a
+ * single component.
+ * <p>
+ * The tokens are drawn from images cached by {@link TokenSprites}, which are
+ * rasterized in device pixels, so the board stays sharp on screens with a
+ * scaling factor. Updating a slot by
+ * {@link BoardView#updateCell(int, int, Player, boolean)} only repaints the
+ * slot itself, if it changed.
+ * <p>
+ * Any thread may publish a new state of the game by
+ * {@link BoardView#show(Board)}. The state is applied on the event dispatch
+ * thread, where all states published in the meantime are coalesced into the
+ * latest one and all changed slots are repainted at once.
+ * <p>
+ * While the machine is calculating, the scores of the moves into each column
+ * can be shown as a heat map on top of the grid by
+ * {@link BoardView#setColumnScores(int[])}, from red for the worst to green
+ * for the best move.
+ * <p>
+ * The time needed for painting is recorded and available through
+ * {@link BoardView#getPaintCount()} and {@link BoardView#getPaintNanos()}.
+ */
+public class BoardView extends JComponent {
+
+    /**
+     * Preferred size of each slot
+     */
+    private static final Dimension PREFERRED_CELL_SIZE
+            = new Dimension(100, 100);
+
+    /**
+     * Opacity of the heat map, from 0 to 255.
+     */
+    private static final int HEAT_ALPHA = 96;
+
+    /**
+     * Size of the scores of the heat map relative to the height of a slot.
+     */
+    private static final float SCORE_FONT_SIZE = 0.18f;
+
+    /**
+     * The images of the tokens.
+     */
+    private final TokenSprites sprites;
+
+    /**
+     * The displayed player of each slot.
+     */
+    private final Player[] players = new Player[Coordinates2D.CELLS];
+
+    /**
+     * If each slot is a witness.
+     */
+    private final boolean[] witnesses = new boolean[Coordinates2D.CELLS];
+
+    /**
+     * The latest published board, which was not applied yet, or {@code null}.
+     */
+    private final AtomicReference<Board> pendingBoard
+            = new AtomicReference<>();
+
+    /**
+     * The scores of the moves into each column shown as heat map, or
+     * {@code null} if none are shown.
+     */
+    private int[] columnScores;
+
+    /**
+     * The number of times this component was painted.
+     */
+    private long paintCount = 0;
+
+    /**
+     * The total time needed for painting in nanoseconds.
+     */
+    private long paintNanos = 0;
+
+    /**
+     * Constructs a new empty BoardView.
+     *
+     * @param clickListener called with the position of the clicked slot on
+     *                      the grid.
+     */
+    public BoardView(Consumer<Coordinates2D> clickListener) {
+        Arrays.fill(players, Player.TIE);
+        setOpaque(true);
+        setBackground(Color.BLUE);
+        sprites = new TokenSprites(getBackground());
+        setPreferredSize(new Dimension(
+                PREFERRED_CELL_SIZE.width * Board.COLS,
+                PREFERRED_CELL_SIZE.height * Board.ROWS));
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                Coordinates2D position = positionAt(e.getX(), e.getY());
+                if (position != null) {
+                    clickListener.accept(position);
+                }
+            }
+        });
+    }
+
+    /**
+     * Compares the new values of a slot with the current ones and updates
+     * them, if necessary. If any values changed, repaints the slot to
+     * correctly represent the internal state.
+     *
+     * @param row        the row of the slot.
+     * @param col        the column of the slot.
+     * @param newPlayer  the new player represented by the slot.
+     * @param newWitness if the slot is a witness.
+     */
+    public void updateCell(int row, int col, Player newPlayer,
+                           boolean newWitness) {
+        int cell = Coordinates2D.index(row, col);
+        if (players[cell] != newPlayer || witnesses[cell] != newWitness) {
+            players[cell] = newPlayer;
+            witnesses[cell] = newWitness;
+            repaint(cellBounds(row, col));
+        }
+    }
+
+    /**
+     * Publishes a new state of the game to be shown. May be called by any
+     * thread. The board is applied later on the event dispatch thread,
+     * unless a newer board is published before.
+     *
+     * @param board the board to show, which must not be changed afterwards.
+     */
+    public void show(Board board) {
+        if (pendingBoard.getAndSet(board) == null) {
+            SwingUtilities.invokeLater(this::applyPendingBoard);
+        }
+    }
+
+    /**
+     * Applies the latest published board and repaints the region containing
+     * all changed slots once.
+     */
+    private void applyPendingBoard() {
+        Board board = pendingBoard.getAndSet(null);
+        if (board == null) {
+            return;
+        }
+
+        long witness = 0;
+        if (board.getWinner() != null) {
+            for (Coordinates2D position : board.getWitness()) {
+                witness |= 1L << position.index();
+            }
+        }
+
+        int minRow = Board.ROWS;
+        int maxRow = -1;
+        int minCol = Board.COLS;
+        int maxCol = -1;
+        for (int row = 0; row < Board.ROWS; row++) {
+            for (int col = 0; col < Board.COLS; col++) {
+                int cell = Coordinates2D.index(row, col);
+                Player player = board.getSlot(row, col);
+                boolean isWitness = (witness & (1L << cell)) != 0;
+                if (players[cell] != player || witnesses[cell] != isWitness) {
+                    players[cell] = player;
+                    witnesses[cell] = isWitness;
+                    minRow = Math.min(minRow, row);
+                    maxRow = Math.max(maxRow, row);
+                    minCol = Math.min(minCol, col);
+                    maxCol = Math.max(maxCol, col);
+                }
+            }
+        }
+
+        if (maxRow >= 0) {
+            Rectangle first = cellBounds(minRow, minCol);
+            Rectangle last = cellBounds(maxRow, maxCol);
+            repaint(first.union(last));
+        }
+    }
+
+    /**
+     * Shows the given scores of the moves into each column as heat map on
+     * top of the grid. Must be called on the event dispatch thread.
+     *
+     * @param scores the score of each column, where full columns have the
+     *               score {@link SearchIteration#NO_SCORE}, or {@code null}
+     *               to hide the heat map.
+     */
+    public void setColumnScores(int[] scores) {
+        if (!Arrays.equals(columnScores, scores)) {
+            columnScores = scores == null ? null : scores.clone();
+            repaint();
+        }
+    }
+
+    /**
+     * @return the number of times this component was painted.
+     */
+    public long getPaintCount() {
+        return paintCount;
+    }
+
+    /**
+     * @return the total time needed for painting in nanoseconds.
+     */
+    public long getPaintNanos() {
+        return paintNanos;
+    }
+
+    /**
+     * Paints all slots intersecting the clip of the given graphics.
+     *
+     * @param g the graphics
+     */
+    @Override
+    protected void paintComponent(Graphics g) {
+        long start = System.nanoTime();
+        Graphics2D g2 = (Graphics2D) g;
+        Rectangle clip = g2.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+        g2.setColor(getBackground());
+        g2.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+        Rectangle origin = cellBounds(0, 0);
+        if (origin.width > 0 && origin.height > 0) {
+            AffineTransform transform = g2.getTransform();
+            int deviceWidth = (int) Math.ceil(
+                    origin.width * transform.getScaleX());
+            int deviceHeight = (int) Math.ceil(
+                    origin.height * transform.getScaleY());
+
+            // only the slots intersecting the clip are painted
+            int firstRow = Math.max(0, (clip.y - origin.y) / origin.height);
+            int lastRow = Math.min(Board.ROWS - 1,
+                    (clip.y + clip.height - 1 - origin.y) / origin.height);
+            int firstCol = Math.max(0, (clip.x - origin.x) / origin.width);
+            int lastCol = Math.min(Board.COLS - 1,
+                    (clip.x + clip.width - 1 - origin.x) / origin.width);
+
+            for (int row = firstRow; row <= lastRow; row++) {
+                for (int col = firstCol; col <= lastCol; col++) {
+                    int cell = Coordinates2D.index(row, col);
+                    BufferedImage sprite = sprites.get(players[cell],
+                            witnesses[cell], deviceWidth, deviceHeight);
+                    g2.drawImage(sprite, origin.x + col * origin.width,
+                            origin.y + row * origin.height,
+                            origin.width, origin.height, null);
+                }
+            }
+            if (columnScores != null) {
+                paintColumnScores(g2, origin, firstCol, lastCol);
+            }
+        }
+        paintCount++;
+        paintNanos += System.nanoTime() - start;
+    }
+
+    /**
+     * Paints the heat map of the {@link BoardView#columnScores} over the
+     * given columns. The scores are compared on a logarithmic scale, since
+     * the evaluation of the machine rates threats orders of magnitude higher
+     * than positional advantages.
+     *
+     * @param g2       the graphics.
+     * @param origin   the bounds of the top left slot.
+     * @param firstCol the first column to paint.
+     * @param lastCol  the last column to paint.
+     */
+    private void paintColumnScores(Graphics2D g2, Rectangle origin,
+                                   int firstCol, int lastCol) {
+        double min = Double.MAX_VALUE;
+        double max = -Double.MAX_VALUE;
+        for (int score : columnScores) {
+            if (score != SearchIteration.NO_SCORE) {
+                min = Math.min(min, heat(score));
+                max = Math.max(max, heat(score));
+            }
+        }
+
+        int height = origin.height * Board.ROWS;
+        g2.setFont(g2.getFont().deriveFont(origin.height * SCORE_FONT_SIZE));
+        FontMetrics metrics = g2.getFontMetrics();
+        for (int col = firstCol; col <= lastCol; col++) {
+            int score = columnScores[col];
+            if (score == SearchIteration.NO_SCORE) {
+                continue;
+            }
+            double ratio = max > min ? (heat(score) - min) / (max - min) : 1;
+            int x = origin.x + col * origin.width;
+            g2.setColor(new Color((int) (255 * (1 - ratio)),
+                    (int) (255 * ratio), 0, HEAT_ALPHA));
+            g2.fillRect(x, origin.y, origin.width, height);
+
+            String text = Integer.toString(score);
+            g2.setColor(Color.BLACK);
+            g2.drawString(text,
+                    x + (origin.width - metrics.stringWidth(text)) / 2,
+                    origin.y + metrics.getAscent());
+        }
+    }
+
+    /**
+     * Maps a score onto a logarithmic scale, keeping its sign.
+     *
+     * @param score the score.
+     * @return the mapped score.
+     */
+    private static double heat(int score) {
+        return Math.signum(score) * Math.log1p(Math.abs((double) score));
+    }
+
+    /**
+     * Calculates the bounds of a slot. All slots have the same size, the grid
+     * is centered in this component.
+     *
+     * @param row the row of the slot.
+     * @param col the column of the slot.
+     * @return the bounds of the slot.
+     */
+    private Rectangle cellBounds(int row, int col) {
+        int width = getWidth() / Board.COLS;
+        int height = getHeight() / Board.ROWS;
+        int offsetX = (getWidth() - width * Board.COLS) / 2;
+        int offsetY = (getHeight() - height * Board.ROWS) / 2;
+        return new Rectangle(offsetX + col * width, offsetY + row * height,
+                width, height);
+    }
+
+    /**
+     * Finds the slot at the given point.
+     *
+     * @param x the x coordinate of the point.
+     * @param y the y coordinate of the point.
+     * @return the position of the slot or {@code null}, if the point is not
+     * on the grid.
+     */
+    private Coordinates2D positionAt(int x, int y) {
+        Rectangle origin = cellBounds(0, 0);
+        if (origin.width == 0 || origin.height == 0
+                || x < origin.x || y < origin.y) {
+            return null;
+        }
+        int col = (x - origin.x) / origin.width;
+        int row = (y - origin.y) / origin.height;
+        if (row >= Board.ROWS || col >= Board.COLS) {
+            return null;
+        }
+        return Coordinates2D.of(row, col);
+    }
+}
@@ -0,0 +1,480 @@
+package connectfour.gui;
+
+import connectfour.engine.Calibration;
+import connectfour.engine.DifficultyProfile;
+import connectfour.engine.Engine;
+import connectfour.engine.EngineService;
+import connectfour.engine.Engines;
+import connectfour.model.Board;
+import connectfour.model.Coordinates2D;
+import connectfour.model.GameHistory;
+import connectfour.model.GameState;
+import connectfour.model.Player;
+import connectfour.model.SearchIteration;
+import connectfour.model.SearchLimits;
+import connectfour.model.exceptions.IllegalMoveException;
+import connectfour.model.log.GameLogWriter;
+import connectfour.model.log.GameRecorder;
+
+import javax.swing.JFrame;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+import java.awt.BorderLayout;
+import java.io.IOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+
+/**
+ * Visual representation of a grid in a game of Connect four.
+ * <p>
+ * Provides methods to handle user input through clicking on the board or
+ * external buttons.
+ */
+public class GameBoardPanel extends JPanel {
+
+    /**
+     * The component painting the grid.
+     */
+    private final BoardView boardView = new BoardView(this::tokenClicked);
+    /**
+     * The machine move currently calculated by the {@link EngineService}, or
+     * {@code null} if none was started yet.
+     */
+    private CompletableFuture<Board> machineMoveTask;
+    /**
+     * Current state of the game.
+     */
+    private Board currentGameState;
+    /**
+     * Flag indicating if the machine is calculating.
+     */
+    private boolean machineIsCalculating = false;
+    /**
+     * The number of machine moves started so far, identifying the current
+     * one.
+     */
+    private int machineMoveCount = 0;
+    /**
+     * Current level of the game.
+     */
+    private int level = 4;
+    /**
+     * The engine calculating the machine moves of the game.
+     */
+    private Engine engine = Engines.defaultEngine();
+    /**
+     * The budget of each level, if the speed of this machine is configured,
+     * see {@link Calibration#RATE_PROPERTY}, or {@code null} to search each
+     * level to its depth.
+     */
+    private final DifficultyProfile[] profiles
+            = Calibration.configuredProfiles();
+    /**
+     * The starting player of the game currently running.
+     */
+    private Player firstPlayer = Player.HUMAN;
+    /**
+     * Records the moves of the game currently running.
+     */
+    private final GameRecorder recorder = new GameRecorder();
+    /**
+     * The moves of the game currently running, which can be taken back.
+     */
+    private final GameHistory history = new GameHistory();
+    /**
+     * Log to append finished games to, or {@code null} if none is configured.
+     */
+    private GameLogWriter gameLog;
+
+    /**
+     * Constructs a new GameBoardPanel.
+     * <p>
+     * Initializes the model in the default state and adds the grid to the
+     * panel.
+     */
+    protected GameBoardPanel() {
+        super(new BorderLayout());
+        currentGameState = new GameState();
+        add(boardView, BorderLayout.CENTER);
+        try {
+            gameLog = GameLogWriter.openConfigured();
+        } catch (IOException e) {
+            gameLog = null;
+            displayErrorPopup("The game log could not be opened.");
+        }
+    }
+
+    /**
+     * Called when a slot of the {@link BoardView} is clicked. The position of
+     * the slot on the board is given as parameter.
+     * <p>
+     * Checks if the click was invalid, meaning the game is over or the
+     * machine is still calculating. Then tries to execute a move in the column
+     * of {@code position}.
+     * <p>
+     * If there is an error making the move, displays a popup window containing
+     * detailed information regarding the nature of the error.
+     * <p>
+     * Automatically checks if the game is over after executing the move.
+     * If the game is not over executes a machine move, otherwise shows a popup
+     * stating the winner.
+     *
+     * @param position the position of the clicked slot on the grid
+     */
+    protected void tokenClicked(Coordinates2D position) {
+        if (currentGameState.isGameOver()) {
+            displayErrorPopup("The game is over. You cannot move!");
+            return;
+        } else if (machineIsCalculating) {
+            displayErrorPopup("The machine is still calculating...");
+            return;
+        }
+
+        Board newGameState;
+        try {
+            newGameState = currentGameState.move(position.col());
+        } catch (IllegalMoveException e) {
+            displayErrorPopup("It's not your turn.");
+            return;
+        } catch (IllegalArgumentException e) {
+            displayErrorPopup("Error while processing input.");
+            return;
+        }
+
+        if (newGameState == null) {
+            displayErrorPopup("The column was already full");
+        } else {
+            recorder.recordMove(currentGameState, newGameState);
+            history.add(newGameState);
+            currentGameState = newGameState;
+            repaintBoard();
+
+            if (newGameState.isGameOver()) {
+                logGame();
+                displayWinnerPopup();
+            } else {
+                machineMove();
+            }
+        }
+    }
+
+    /**
+     * Updates the viewed board to show the correct internal state of the model.
+     * <p>
+     * Publishes the current game state to the {@link BoardView}, which
+     * decides for each slot individually, if it has to be repainted.
+     */
+    private void repaintBoard() {
+        boardView.show(currentGameState);
+    }
+
+    /**
+     * Executes a machine move. To allow the user to still be able to interact
+     * with the user interface the costly calculation is done by the shared
+     * {@link EngineService}. The result is handed back to the event dispatch
+     * thread, which owns all state of this panel.
+     */
+    private void machineMove() {
+        Board gameState = currentGameState;
+        int search = ++machineMoveCount;
+        machineIsCalculating = true;
+        machineMoveTask = EngineService.shared().submitAsync(
+                gameState.clone(), limits(),
+                iteration -> SwingUtilities.invokeLater(() ->
+                        iterationCompleted(search, iteration)),
+                SwingUtilities::invokeLater);
+        machineMoveTask.whenComplete((newGameState, error) ->
+                machineMoveDone(search, gameState, newGameState, error));
+    }
+
+    /**
+     * @return the limits of the searches at the current level.
+     */
+    private SearchLimits limits() {
+        return profiles == null
+                ? SearchLimits.DEFAULT : profiles[level - 1].toLimits();
+    }
+
+    /**
+     * Called on the event dispatch thread when an iteration of the search
+     * for a machine move has completed. Shows the scores of the columns as
+     * heat map, unless the search was cancelled or superseded in the
+     * meantime.
+     *
+     * @param search    the number of the search.
+     * @param iteration the result of the iteration.
+     */
+    private void iterationCompleted(int search, SearchIteration iteration) {
+        if (search == machineMoveCount && machineIsCalculating) {
+            boardView.setColumnScores(iteration.scores());
+        }
+    }
+
+    /**
+     * Called on the event dispatch thread when the calculation of a machine
+     * move has completed. Results of searches, which were cancelled or
+     * superseded in the meantime, are ignored.
+     *
+     * @param search       the number of the search.
+     * @param gameState    the game state the machine move was calculated for.
+     * @param newGameState the game state with the machine move executed, or
+     *                     {@code null} if the calculation failed.
+     * @param error        the reason of the failure, or {@code null}.
+     */
+    private void machineMoveDone(int search, Board gameState,
+                                 Board newGameState, Throwable error) {
+        if (search != machineMoveCount || !machineIsCalculating
+                || error instanceof CancellationException
+                || error instanceof InterruptedException) {
+            return;
+        }
+        machineIsCalculating = false;
+        boardView.setColumnScores(null);
+        if (error instanceof RejectedExecutionException) {
+            machineMoveFailed("The machine is busy");
+            return;
+        } else if (error != null) {
+            machineMoveFailed("Error while calculating the machine's move");
+            return;
+        }
+
+        if (newGameState == null) {
+            displayErrorPopup("Error inserting token.");
+        } else {
+            // the level may have been changed during the calculation
+            newGameState.setLevel(level);
+            newGameState.setEngine(engine);
+            recorder.recordMove(gameState, newGameState);
+            history.add(newGameState);
+            currentGameState = newGameState;
+            repaintBoard();
+            if (newGameState.isGameOver()) {
+                logGame();
+                displayWinnerPopup();
+            }
+        }
+    }
+
+    /**
+     * Reports a machine move, which could not be calculated. Since nothing
+     * calculates it again, the human move it replies to is taken back, so
+     * the human can repeat it. If the machine makes the first move, the
+     * human has to start a new game.
+     *
+     * @param reason the reason of the failure.
+     */
+    private void machineMoveFailed(String reason) {
+        if (!history.canUndo()) {
+            displayErrorPopup(reason + ", please start a new game.");
+            return;
+        }
+        Board board = history.undo();
+        board.setLevel(level);
+        board.setEngine(engine);
+        recorder.truncate(history.size());
+        currentGameState = board;
+        repaintBoard();
+        displayErrorPopup(reason + ", your move was taken back.");
+    }
+
+    /**
+     * Cancels the machine move calculation if ongoing.
+     */
+    private void cancelMachineMove() {
+        if (machineMoveTask != null) {
+            machineMoveTask.cancel(true);
+        }
+        machineIsCalculating = false;
+        boardView.setColumnScores(null);
+    }
+
+    /**
+     * Changes the current level.
+     *
+     * @param newLevel the new level.
+     */
+    protected void levelChanged(int newLevel) {
+        currentGameState.setLevel(newLevel);
+        level = newLevel;
+    }
+
+    /**
+     * Changes the engine calculating the machine moves.
+     *
+     * @param newEngine the new engine.
+     */
+    protected void engineChanged(Engine newEngine) {
+        currentGameState.setEngine(newEngine);
+        engine = newEngine;
+    }
+
+    /**
+     * Terminates the program.
+     * <p>
+     * Interrupts the machine move calculation if ongoing and
+     */
+    protected void quitButtonPressed() {
+        cancelMachineMove();
+        if (gameLog != null) {
+            try {
+                gameLog.close();
+            } catch (IOException ignored) {
+                // the program terminates anyway
+            }
+        }
+        JFrame window = (JFrame) SwingUtilities.getWindowAncestor(
+                GameBoardPanel.this);
+
+        window.setVisible(false);
+        window.dispose();
+    }
+
+    /**
+     * Switches the {@link GameBoardPanel#firstPlayer}starts a new game.
+     * If the new {@link GameBoardPanel#firstPlayer} is the machine,
+     * automatically executes a machine move.
+     * <p>
+     * Interrupts the machine move calculation if ongoing.
+     */
+    protected void switchButtonPressed() {
+        cancelMachineMove();
+        currentGameState = new GameState();
+        currentGameState.setLevel(level);
+        currentGameState.setEngine(engine);
+        recorder.start();
+        history.start(level);
+        repaintBoard();
+        if (firstPlayer == Player.HUMAN) {
+            firstPlayer = Player.MACHINE;
+            machineMove();
+        } else if (firstPlayer == Player.MACHINE) {
+            firstPlayer = Player.HUMAN;
+        }
+    }
+
+    /**
+     * Starts a new game. In case the machine made the first move, a machine
+     * move gets triggered automatically.
+     * <p>
+     * Interrupts the machine move calculation if ongoing
+     */
+    protected void newButtonPressed() {
+        cancelMachineMove();
+        currentGameState = new GameState();
+        currentGameState.setLevel(level);
+        currentGameState.setEngine(engine);
+        recorder.start();
+        history.start(level);
+        repaintBoard();
+        if (firstPlayer == Player.MACHINE) {
+            machineMove();
+        }
+    }
+
+    /**
+     * Takes back the last move of the human and the machine's reply, if it
+     * was made already. Interrupts the machine move calculation if ongoing.
+     * <p>
+     * If the machine made the first move, taking it back lets the machine
+     * calculate it again.
+     */
+    protected void undoButtonPressed() {
+        if (!history.canUndo()) {
+            displayErrorPopup("There is no move to undo.");
+            return;
+        }
+        cancelMachineMove();
+        Board board;
+        do {
+            board = history.undo();
+        } while (board.getPlayerToMove() != Player.HUMAN && history.canUndo());
+
+        board.setLevel(level);
+        board.setEngine(engine);
+        recorder.truncate(history.size());
+        currentGameState = board;
+        repaintBoard();
+        if (board.getPlayerToMove() == Player.MACHINE) {
+            machineMove();
+        }
+    }
+
+    /**
+     * Makes the moves taken back last again, up to the next move of the
+     * human. Interrupts the machine move calculation if ongoing.
+     * <p>
+     * Games finished again this way are not logged a second time.
+     */
+    protected void redoButtonPressed() {
+        if (!history.canRedo()) {
+            displayErrorPopup("There is no move to redo.");
+            return;
+        }
+        cancelMachineMove();
+        Board board;
+        do {
+            board = history.redo();
+            recorder.recordMove(currentGameState, board);
+            currentGameState = board;
+        } while (board.getPlayerToMove() != Player.HUMAN && history.canRedo());
+
+        board.setLevel(level);
+        board.setEngine(engine);
+        repaintBoard();
+        if (board.isGameOver()) {
+            displayWinnerPopup();
+        } else if (board.getPlayerToMove() == Player.MACHINE) {
+            machineMove();
+        }
+    }
+
+    /**
+     * Appends the finished game to the {@link GameBoardPanel#gameLog}, if one
+     * is configured.
+     */
+    private void logGame() {
+        if (gameLog == null) {
+            return;
+        }
+        try {
+            gameLog.append(recorder.finish(currentGameState, level));
+        } catch (IOException e) {
+            displayErrorPopup("The game could not be logged.");
+        }
+    }
+
+    /**
+     * Displays a popup window, containing a given error message.
+     *
+     * @param message the error message to be displayed
+     */
+    private void displayErrorPopup(String message) {
+        JOptionPane.showMessageDialog(this, message,
+                "Error!", JOptionPane.ERROR_MESSAGE);
+    }
+
+    /**
+     * Displays a popup window with information about the end of the game.
+     * The window will only be shown if the
+     * {@link GameBoardPanel#currentGameState} is a finished game.
+     */
+    private void displayWinnerPopup() {
+        if (currentGameState.isGameOver()) {
+            Player player = currentGameState.getWinner();
+            String message;
+            if (player == Player.HUMAN) {
+                message = "Congratulations! You won.";
+            } else if (player == Player.MACHINE) {
+                message = "Sorry! Machine wins.";
+            } else {
+                message = "Nobody wins. Tie.";
+            }
+            JOptionPane.showMessageDialog(this, message,
+                    "The game is over!", JOptionPane.INFORMATION_MESSAGE);
+        }
+    }
+
+}
\ No newline at end of file
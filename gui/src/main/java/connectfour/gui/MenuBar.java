@@ -1,5 +1,6 @@
 package connectfour.gui;
 
+import connectfour.engine.Engines;
 import connectfour.model.GameState;
 import javax.swing.JButton;
 import javax.swing.JComboBox;
@@ -23,6 +24,14 @@ public class MenuBar extends JPanel {
      * Button to switch sides and start a new game.
      */
     private final JButton btnSwitch;
+    /**
+     * Button to take back the last moves.
+     */
+    private final JButton btnUndo;
+    /**
+     * Button to make the moves taken back again.
+     */
+    private final JButton btnRedo;
     /**
      * Button to quit the program.
      */
@@ -32,9 +41,15 @@ public class MenuBar extends JPanel {
      * Ranging from 1 to {@link GameState#MAX_LEVEL} inclusive.
      */
     private final JComboBox<Integer> dropDownLevels;
+    /**
+     * Dropdown menu to set the engine calculating the machine moves, by
+     * name.
+     */
+    private final JComboBox<String> dropDownEngines;
 
     /**
-     * Constructs a new MenuBar containing three buttons and the dropdown menu.
+     * Constructs a new MenuBar containing five buttons and the dropdown
+     * menus.
      *
      * @param pGameBoardPanel the {@code GameBoardPanel} reference.
      */
@@ -43,16 +58,24 @@ public class MenuBar extends JPanel {
         gameBoardPanel = pGameBoardPanel;
         btnNew = new JButton("New");
         btnSwitch = new JButton("Switch");
+        btnUndo = new JButton("Undo");
+        btnRedo = new JButton("Redo");
         btnQuit = new JButton("Quit");
 
         Integer[] levels = IntStream.rangeClosed(1, GameState.MAX_LEVEL)
                 .boxed().toArray(Integer[]::new);
         dropDownLevels = new JComboBox<>(levels);
         dropDownLevels.setSelectedItem(levels[3]);
+        dropDownEngines = new JComboBox<>(
+                Engines.names().toArray(String[]::new));
+        dropDownEngines.setSelectedItem(Engines.defaultEngine().name());
 
         add(dropDownLevels);
+        add(dropDownEngines);
         add(btnNew);
         add(btnSwitch);
+        add(btnUndo);
+        add(btnRedo);
         add(btnQuit);
 
         addListeners();
@@ -67,6 +90,12 @@ public class MenuBar extends JPanel {
                     dropDownLevels.getSelectedIndex()));
         });
 
+        dropDownEngines.addActionListener(e -> {
+            gameBoardPanel.engineChanged(Engines.byName(
+                    dropDownEngines.getItemAt(
+                            dropDownEngines.getSelectedIndex())));
+        });
+
         btnQuit.addActionListener(e -> {
             gameBoardPanel.quitButtonPressed();
         });
@@ -78,6 +107,14 @@ public class MenuBar extends JPanel {
         btnSwitch.addActionListener(e -> {
             gameBoardPanel.switchButtonPressed();
         });
+
+        btnUndo.addActionListener(e -> {
+            gameBoardPanel.undoButtonPressed();
+        });
+
+        btnRedo.addActionListener(e -> {
+            gameBoardPanel.redoButtonPressed();
+        });
     }
 
 }
\ No newline at end of file
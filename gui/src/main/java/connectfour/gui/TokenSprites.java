@@ -0,0 +1,140 @@
+package connectfour.gui;
+
+import connectfour.model.Player;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of pre-rasterized images of the tokens of a game of Connect Four.
+ * <p>
+ * The images are rasterized once per size in device pixels, including the
+ * background of the slot. Thus they are opaque and painting a token is a
+ * plain image copy instead of drawing and blending anti-aliased circles. Only
+ * the images of the most recently used sizes are kept, which covers resizing
+ * a window and moving it between screens of different resolution.
+ * <p>
+ * Provides tuning parameters to change the size of the token and the witness
+ * dot.
+ */
+final class TokenSprites {
+
+    /**
+     * Tuning parameter to change the size of the tokens
+     */
+    private static final double TOKEN_SIZE = 0.9;
+    /**
+     * Tuning parameter to change the size of the witness dot
+     */
+    private static final double WITNESS_SIZE = 0.2;
+    /**
+     * The number of sizes kept in the cache.
+     */
+    private static final int CACHED_SIZES = 4;
+
+    /**
+     * The background color of the slots.
+     */
+    private final Color background;
+
+    /**
+     * The images by size, ordered from least to most recently used.
+     */
+    private final Map<Long, BufferedImage[]> cache
+            = new LinkedHashMap<>(CACHED_SIZES, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(
+                        Map.Entry<Long, BufferedImage[]> eldest) {
+                    return size() > CACHED_SIZES;
+                }
+            };
+
+    /**
+     * Constructs a new empty cache.
+     *
+     * @param background the background color of the slots.
+     */
+    TokenSprites(Color background) {
+        this.background = background;
+    }
+
+    /**
+     * Gets the image of a token of the given size in device pixels.
+     *
+     * @param player    the player represented by the token.
+     * @param isWitness if the token is a witness.
+     * @param width     the width of the image in device pixels.
+     * @param height    the height of the image in device pixels.
+     * @return the image of the token.
+     */
+    BufferedImage get(Player player, boolean isWitness, int width,
+                      int height) {
+        long key = (long) width << Integer.SIZE | height;
+        BufferedImage[] sprites = cache.computeIfAbsent(key,
+                k -> new BufferedImage[Player.values().length * 2]);
+        int index = player.ordinal() * 2 + (isWitness ? 1 : 0);
+        if (sprites[index] == null) {
+            sprites[index] = rasterize(player, isWitness, width, height);
+        }
+        return sprites[index];
+    }
+
+    /**
+     * Draws a token onto an image filled with the background color.
+     * <p>
+     * Draws a circle in the respective color to the player. If the token is
+     * a witness also draws a black circle on top of the player circle.
+     *
+     * @param player    the player represented by the token.
+     * @param isWitness if the token is a witness.
+     * @param width     the width of the image in device pixels.
+     * @param height    the height of the image in device pixels.
+     * @return the image of the token.
+     */
+    private BufferedImage rasterize(Player player, boolean isWitness,
+                                    int width, int height) {
+        BufferedImage image = new BufferedImage(Math.max(width, 1),
+                Math.max(height, 1), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2 = image.createGraphics();
+        g2.setColor(background);
+        g2.fillRect(0, 0, width, height);
+
+        //activate antialiasing for cleaner circle edges
+        g2.setRenderingHint(
+                RenderingHints.KEY_ANTIALIASING,
+                RenderingHints.VALUE_ANTIALIAS_ON);
+
+        int radiusHeight = Math.min(height, (int) (height * TOKEN_SIZE)) / 2;
+        int radiusWidth = Math.min(width, (int) (width * TOKEN_SIZE)) / 2;
+        //minimum value of the two has to be used, to ensure correct size
+        int radius = Math.min(radiusHeight, radiusWidth);
+
+        //select tokens color
+        switch (player) {
+            case HUMAN -> g2.setColor(Color.YELLOW);
+            case MACHINE -> g2.setColor(Color.RED);
+            default -> g2.setColor(Color.WHITE);
+        }
+        //draw token
+        g2.fillOval((width / 2) - radius,
+                (height / 2) - radius,
+                radius * 2,
+                radius * 2);
+
+        //draw black dot to show witnesses
+        if (isWitness) {
+            g2.setColor(Color.BLACK);
+            radius = Math.min(height, (int) (height * WITNESS_SIZE));
+            g2.fillOval((width / 2) - radius,
+                    (height / 2) - radius,
+                    radius * 2,
+                    radius * 2);
+        }
+        g2.dispose();
+        return image;
+    }
+}